@@ -0,0 +1,44 @@
+package com.sports.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Embedded STOMP broker for tests and single-box setups (websocket.broker.mode=EMBEDDED).
+ * A non-persistent Artemis broker listens on localhost and the WebSocket relay connects to
+ * it, so the relay path runs without any external infrastructure. The Artemis modules are
+ * optional dependencies; without them this configuration is skipped.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "EMBEDDED")
+@ConditionalOnClass(name = EmbeddedStompBrokerConfig.EMBEDDED_BROKER_CLASS)
+public class EmbeddedStompBrokerConfig {
+
+    static final String EMBEDDED_BROKER_CLASS = "org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ";
+
+    @Value("${websocket.broker.embedded.port:61613}")
+    private int port;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker() throws Exception {
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        // Spring's /topic and /queue prefixes map to multicast and anycast addresses
+        configuration.addAcceptorConfiguration("stomp", "tcp://localhost:" + port
+                + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        log.info("Embedded STOMP broker on localhost:{}", port);
+        return broker;
+    }
+}
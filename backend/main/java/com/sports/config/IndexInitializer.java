@@ -0,0 +1,105 @@
+package com.sports.config;
+
+import com.sports.model.entity.JobLease;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchCommentary;
+import com.sports.model.entity.MatchCommentaryBucket;
+import com.sports.model.entity.MatchEvent;
+import com.sports.model.entity.PlayerProfile;
+import com.sports.model.entity.PlayerStatistics;
+import com.sports.model.entity.RankingHistoryBucket;
+import com.sports.model.entity.RankingJobRun;
+import com.sports.model.entity.RankingRollup;
+import com.sports.model.entity.Ranking;
+import com.sports.model.entity.RankingSnapshot;
+import com.sports.model.entity.RatingReplayEntry;
+import com.sports.model.entity.Team;
+import com.sports.model.entity.VenueBooking;
+import com.sports.model.entity.ViewerNodeShare;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index Initializer - Creates the annotated indexes of documents whose
+ * correctness or bulk reads depend on them (unique upsert keys, sorted
+ * history scans), since automatic index creation is disabled
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexInitializer implements CommandLineRunner {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            PlayerProfile.class,
+            Team.class,
+            RankingJobRun.class,
+            JobLease.class,
+            Ranking.class,
+            RankingSnapshot.class,
+            RankingHistoryBucket.class,
+            RankingRollup.class,
+            RatingReplayEntry.class,
+            Match.class,
+            MatchEvent.class,
+            MatchCommentary.class,
+            MatchCommentaryBucket.class,
+            PlayerStatistics.class,
+            ViewerNodeShare.class,
+            VenueBooking.class
+    );
+
+    // Indexes replaced by differently scoped ones; dropped before the current ones are ensured
+    private static final Map<Class<?>, List<String>> RETIRED_INDEXES = Map.of(
+            MatchEvent.class, List.of("client_event_id", "match_sequence_idx")
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> documentClass : INDEXED_DOCUMENTS) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(documentClass);
+                dropRetired(documentClass, indexOps);
+                // One index failing (e.g. a unique index over duplicate data) must not skip the others
+                resolver.resolveIndexFor(documentClass).forEach(index -> {
+                    try {
+                        indexOps.ensureIndex(index);
+                    } catch (Exception e) {
+                        log.warn("⚠️  Index {} of {} skipped: {}", index.getIndexOptions().get("name"),
+                                documentClass.getSimpleName(), e.getMessage());
+                    }
+                });
+            } catch (Exception e) {
+                // Log the error but don't stop application startup
+                log.warn("⚠️  Index creation skipped for {}: {}", documentClass.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void dropRetired(Class<?> documentClass, IndexOperations indexOps) {
+        List<String> retired = RETIRED_INDEXES.getOrDefault(documentClass, List.of());
+        if (retired.isEmpty()) {
+            return;
+        }
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(retired::contains)
+                .forEach(name -> {
+                    indexOps.dropIndex(name);
+                    log.info("Dropped retired index {} of {}", name, documentClass.getSimpleName());
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.sports.config;
+
+import com.sports.service.JobLeaseService;
+import com.sports.service.LeaderOnly;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Leader Election Configuration - Routes calls of {@link LeaderOnly} methods
+ * through the cluster-wide job lease
+ */
+@Configuration(proxyBeanMethods = false)
+public class LeaderElectionConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static DefaultPointcutAdvisor leaderOnlyAdvisor(ObjectProvider<JobLeaseService> jobLeaseService) {
+        return new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(LeaderOnly.class),
+                new LeaderOnlyInterceptor(jobLeaseService));
+    }
+
+    /**
+     * Runs the intercepted method only while this node holds the job's lease
+     */
+    private record LeaderOnlyInterceptor(ObjectProvider<JobLeaseService> jobLeaseService)
+            implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+            Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+            LeaderOnly settings = AnnotatedElementUtils.findMergedAnnotation(method, LeaderOnly.class);
+            if (settings == null) {
+                return invocation.proceed();
+            }
+
+            JobLeaseService leases = jobLeaseService.getObject();
+            if (settings.takeOver() && invocation instanceof ProxyMethodInvocation proxyInvocation) {
+                leases.register(settings, (ProxyMethodInvocation) proxyInvocation.invocableClone());
+            }
+            return leases.runAsLeader(settings, invocation::proceed);
+        }
+    }
+}
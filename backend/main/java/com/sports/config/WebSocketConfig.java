@@ -1,28 +1,89 @@
 package com.sports.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 /**
  * WebSocket Configuration for Real-time Updates
+ *
+ * SIMPLE keeps subscriptions in this node's in-memory broker. RELAY forwards them to an
+ * external STOMP broker so every node sees every message; EMBEDDED relays to an Artemis
+ * broker started inside this application (see EmbeddedStompBrokerConfig).
  */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
-    
+
+    public enum BrokerMode { SIMPLE, RELAY, EMBEDDED }
+
+    @Value("${websocket.broker.mode:SIMPLE}")
+    private BrokerMode brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${websocket.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${websocket.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${websocket.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${websocket.broker.embedded.port:61613}")
+    private int embeddedPort;
+
     @Override
     public void configureMessageBroker(@org.springframework.lang.NonNull MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        switch (brokerMode) {
+            case SIMPLE -> config.enableSimpleBroker("/topic", "/queue");
+            case RELAY -> enableRelay(config, relayHost, relayPort);
+            case EMBEDDED -> {
+                if (!ClassUtils.isPresent(EmbeddedStompBrokerConfig.EMBEDDED_BROKER_CLASS, getClass().getClassLoader())) {
+                    throw new RuntimeException("websocket.broker.mode=EMBEDDED needs the optional "
+                            + "artemis-server and artemis-stomp-protocol dependencies on the classpath");
+                }
+                enableRelay(config, "localhost", embeddedPort);
+            }
+        }
         config.setApplicationDestinationPrefixes("/app");
+        log.info("WebSocket broker mode: {}", brokerMode);
     }
-    
+
     @Override
     public void registerStompEndpoints(@org.springframework.lang.NonNull StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:3000", "http://localhost:4200")
                 .withSockJS();
     }
+
+    private void enableRelay(MessageBrokerRegistry config, String host, int port) {
+        var relay = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(host)
+                .setRelayPort(port)
+                .setClientLogin(clientLogin)
+                .setClientPasscode(clientPasscode)
+                .setSystemLogin(systemLogin)
+                .setSystemPasscode(systemPasscode);
+        if (!relayVirtualHost.isBlank()) {
+            relay.setVirtualHost(relayVirtualHost);
+        }
+    }
 }
@@ -1,9 +1,18 @@
 package com.sports.controller;
 
 import com.sports.dto.ApiResponse;
+import com.sports.dto.PlayerStatisticsRebuildStats;
+import com.sports.dto.RankingJobProgress;
+import com.sports.dto.RatingReplayComparison;
+import com.sports.model.entity.RankingJobRun;
+import com.sports.model.entity.RatingReplay;
 import com.sports.model.entity.User;
+import com.sports.model.enums.SportType;
 import com.sports.model.enums.UserRole;
 import com.sports.service.AdminService;
+import com.sports.service.PlayerStatisticsService;
+import com.sports.service.RankingJobCoordinator;
+import com.sports.service.RatingReplayService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +36,9 @@ import java.util.Map;
 public class AdminController {
     
     private final AdminService adminService;
+    private final RankingJobCoordinator rankingJobCoordinator;
+    private final PlayerStatisticsService playerStatisticsService;
+    private final RatingReplayService ratingReplayService;
     // AuthService removed as it was unused
     
     // ==================== Dashboard Stats ====================
@@ -199,4 +211,120 @@ public class AdminController {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
+    
+    // ==================== Ranking Jobs ====================
+    
+    @GetMapping("/rankings/jobs")
+    @Operation(summary = "Get live progress of the per-sport ranking jobs")
+    public ResponseEntity<ApiResponse<List<RankingJobProgress>>> getRankingJobs() {
+        return ResponseEntity.ok(ApiResponse.success(rankingJobCoordinator.getProgress()));
+    }
+    
+    @PostMapping("/rankings/jobs/run")
+    @Operation(summary = "Start ranking jobs for all sports")
+    public ResponseEntity<ApiResponse<List<RankingJobProgress>>> runRankingJobs() {
+        try {
+            List<RankingJobProgress> progress = rankingJobCoordinator.runAll("MANUAL");
+            return ResponseEntity.ok(ApiResponse.success("Ranking jobs queued", progress));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/rankings/jobs/{sportType}/cancel")
+    @Operation(summary = "Cancel the ranking job of a sport")
+    public ResponseEntity<ApiResponse<RankingJobProgress>> cancelRankingJob(@PathVariable SportType sportType) {
+        try {
+            RankingJobProgress progress = rankingJobCoordinator.cancel(sportType);
+            return ResponseEntity.ok(ApiResponse.success("Ranking job cancellation requested", progress));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/rankings/jobs/{sportType}/retry")
+    @Operation(summary = "Retry the ranking job of a sport")
+    public ResponseEntity<ApiResponse<RankingJobProgress>> retryRankingJob(@PathVariable SportType sportType) {
+        try {
+            RankingJobProgress progress = rankingJobCoordinator.retry(sportType);
+            return ResponseEntity.ok(ApiResponse.success("Ranking job queued", progress));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/rankings/jobs/history")
+    @Operation(summary = "Get duration and throughput of past ranking job runs")
+    public ResponseEntity<ApiResponse<List<RankingJobRun>>> getRankingJobHistory(
+            @RequestParam(required = false) SportType sportType,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(rankingJobCoordinator.getRunHistory(sportType, limit)));
+    }
+    
+    // ==================== Rating Replays ====================
+    
+    @PostMapping("/rankings/replays")
+    @Operation(summary = "Replay the full match history into shadow ratings")
+    public ResponseEntity<ApiResponse<RatingReplay>> startReplay(
+            @RequestParam(defaultValue = "ELO") String model,
+            @RequestParam(defaultValue = "32") double kFactor,
+            @RequestParam(defaultValue = "0") double initialRating) {
+        try {
+            RatingReplay replay = ratingReplayService.startReplay(model, kFactor, initialRating);
+            return ResponseEntity.ok(ApiResponse.success("Rating replay queued", replay));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/rankings/replays/{replayId}")
+    @Operation(summary = "Get status and throughput of a rating replay")
+    public ResponseEntity<ApiResponse<RatingReplay>> getReplay(@PathVariable String replayId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(ratingReplayService.getReplay(replayId)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/rankings/replays/{replayId}/compare")
+    @Operation(summary = "Compare replayed ratings with live ratings")
+    public ResponseEntity<ApiResponse<RatingReplayComparison>> compareReplay(
+            @PathVariable String replayId,
+            @RequestParam(defaultValue = "PLAYER") String category,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            RatingReplayComparison comparison = ratingReplayService.compare(
+                    replayId, category.toUpperCase(), Math.max(1, Math.min(limit, 500)));
+            return ResponseEntity.ok(ApiResponse.success(comparison));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/rankings/replays/{replayId}/swap")
+    @Operation(summary = "Swap replayed ratings in for the live ratings")
+    public ResponseEntity<ApiResponse<RatingReplay>> swapReplay(@PathVariable String replayId) {
+        try {
+            RatingReplay replay = ratingReplayService.swap(replayId);
+            return ResponseEntity.ok(ApiResponse.success("Replayed ratings swapped in", replay));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    // ==================== Player Statistics ====================
+    
+    @PostMapping("/statistics/players/rebuild")
+    @Operation(summary = "Recount one season of player statistics from the match events")
+    public ResponseEntity<ApiResponse<PlayerStatisticsRebuildStats>> rebuildPlayerStatistics(
+            @RequestParam SportType sportType,
+            @RequestParam String season) {
+        try {
+            PlayerStatisticsRebuildStats stats = playerStatisticsService.rebuildSeason(sportType, season);
+            return ResponseEntity.ok(ApiResponse.success("Player statistics rebuilt", stats));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
 }
@@ -2,12 +2,16 @@ package com.sports.controller;
 
 
 import com.sports.dto.ApiResponse;
+import com.sports.dto.FixtureRequest;
+import com.sports.dto.FixtureResult;
 import com.sports.model.entity.Event;
 import com.sports.model.entity.User;
 import com.sports.model.enums.EventStatus;
 import com.sports.model.enums.SportType;
 import com.sports.service.AuthService;
 import com.sports.service.EventService;
+import com.sports.service.FixtureService;
+import com.sports.service.ViewerCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +34,8 @@ public class EventController {
     
     private final EventService eventService;
     private final AuthService authService;
+    private final ViewerCounterService viewerCounterService;
+    private final FixtureService fixtureService;
     
     @PostMapping
     @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
@@ -82,11 +88,26 @@ public class EventController {
         }
     }
     
+    @PostMapping("/{id}/fixtures")
+    @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
+    @Operation(summary = "Generate event fixtures (Swiss generates the next round)")
+    public ResponseEntity<ApiResponse<FixtureResult>> generateFixtures(
+            @PathVariable String id,
+            @RequestBody FixtureRequest request) {
+        try {
+            FixtureResult result = fixtureService.generate(id, request);
+            return ResponseEntity.ok(ApiResponse.success("Fixtures generated successfully", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get event by ID")
     public ResponseEntity<ApiResponse<Event>> getEventById(@PathVariable String id) {
         try {
             Event event = eventService.getEventById(id);
+            viewerCounterService.eventViewed(id);
             return ResponseEntity.ok(ApiResponse.success(event));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -2,16 +2,25 @@ package com.sports.controller;
 
 
 import com.sports.dto.ApiResponse;
+import com.sports.dto.CommentaryPage;
 import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchCommentary;
+import com.sports.service.MatchCommentaryService;
 import com.sports.service.MatchService;
+import com.sports.service.MatchStatisticsService;
+import com.sports.service.MatchTimelineService;
+import com.sports.service.ViewerCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import java.util.List;
 
@@ -25,6 +34,10 @@ import java.util.List;
 public class MatchController {
     
     private final MatchService matchService;
+    private final MatchStatisticsService matchStatisticsService;
+    private final ViewerCounterService viewerCounterService;
+    private final MatchTimelineService matchTimelineService;
+    private final MatchCommentaryService matchCommentaryService;
     
     @PostMapping
     @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
@@ -82,12 +95,81 @@ public class MatchController {
     public ResponseEntity<ApiResponse<Match>> getMatchById(@PathVariable String id) {
         try {
             Match match = matchService.getMatchById(id);
+            viewerCounterService.matchViewed(id);
             return ResponseEntity.ok(ApiResponse.success(match));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
     
+    @GetMapping("/{id}/stats")
+    @Operation(summary = "Get match statistics")
+    public ResponseEntity<ApiResponse<MatchCommentary.MatchStatistics>> getMatchStatistics(@PathVariable String id) {
+        try {
+            MatchCommentary.MatchStatistics statistics = matchStatisticsService.getStatistics(id);
+            return ResponseEntity.ok(ApiResponse.success(statistics));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/{id}/commentary")
+    @PreAuthorize("hasAnyRole('REFEREE', 'ORGANIZER', 'ADMIN')")
+    @Operation(summary = "Append a commentary line")
+    public ResponseEntity<ApiResponse<MatchCommentary.CommentaryEntry>> addCommentary(
+            @PathVariable String id,
+            @RequestBody MatchCommentary.CommentaryEntry entry) {
+        try {
+            MatchCommentary.CommentaryEntry added = matchCommentaryService.append(id, entry);
+            return ResponseEntity.ok(ApiResponse.success("Commentary added", added));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/{id}/commentary")
+    @Operation(summary = "Get match commentary newest first, paging back with beforeBucket")
+    public ResponseEntity<ApiResponse<CommentaryPage>> getCommentary(
+            @PathVariable String id,
+            @RequestParam(required = false) Long beforeBucket,
+            @RequestParam(defaultValue = "2") int buckets) {
+        CommentaryPage page = matchCommentaryService.getCommentary(id, beforeBucket, buckets);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+    
+    @GetMapping("/{id}/timeline")
+    @Operation(summary = "Stream the match event timeline (SSE or NDJSON), following live matches until completion")
+    public ResponseEntity<ResponseBodyEmitter> streamTimeline(
+            @PathVariable String id,
+            @RequestParam(required = false) Long afterSequence,
+            @RequestParam(required = false) MatchTimelineService.Format format,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // An EventSource reconnect resumes from the id of the last event it received
+        long resumeAfter = afterSequence != null ? afterSequence
+                : lastEventId != null && lastEventId.matches("\\d+") ? Long.parseLong(lastEventId) : 0;
+        if (format == null) {
+            format = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)
+                    ? MatchTimelineService.Format.NDJSON : MatchTimelineService.Format.SSE;
+        }
+        ResponseBodyEmitter emitter = matchTimelineService.openTimeline(id, resumeAfter, format);
+        return ResponseEntity.ok()
+                .contentType(format == MatchTimelineService.Format.SSE ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+    
+    @PostMapping("/{id}/stats/rebuild")
+    @PreAuthorize("hasAnyRole('ORGANIZER', 'ADMIN')")
+    @Operation(summary = "Recount match statistics from the stored events")
+    public ResponseEntity<ApiResponse<MatchCommentary.MatchStatistics>> rebuildMatchStatistics(@PathVariable String id) {
+        try {
+            MatchCommentary.MatchStatistics statistics = matchStatisticsService.rebuild(id);
+            return ResponseEntity.ok(ApiResponse.success("Statistics rebuilt", statistics));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/event/{eventId}")
     @Operation(summary = "Get matches by event")
     public ResponseEntity<ApiResponse<Page<Match>>> getMatchesByEvent(
@@ -99,16 +181,18 @@ public class MatchController {
     
     @GetMapping("/live")
     @Operation(summary = "Get live matches")
-    public ResponseEntity<ApiResponse<List<Match>>> getLiveMatches() {
-        List<Match> matches = matchService.getLiveMatches();
-        return ResponseEntity.ok(ApiResponse.success(matches));
+    public ResponseEntity<byte[]> getLiveMatches() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(matchService.getLiveMatchesJson());
     }
     
     @GetMapping("/upcoming")
     @Operation(summary = "Get upcoming matches")
-    public ResponseEntity<ApiResponse<List<Match>>> getUpcomingMatches() {
-        List<Match> matches = matchService.getUpcomingMatches();
-        return ResponseEntity.ok(ApiResponse.success(matches));
+    public ResponseEntity<byte[]> getUpcomingMatches() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(matchService.getUpcomingMatchesJson());
     }
     
     @GetMapping("/team/{teamId}")
@@ -0,0 +1,64 @@
+package com.sports.controller;
+
+import com.sports.dto.ApiResponse;
+import com.sports.dto.MatchEventAck;
+import com.sports.model.entity.MatchEvent;
+import com.sports.service.MatchEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Match Event Controller - Timeline events (goals, cards, substitutions) from scorers and feeds
+ */
+@RestController
+@RequestMapping("/api/matches/{matchId}/events")
+@RequiredArgsConstructor
+@Tag(name = "Match Events", description = "Match event ingestion endpoints")
+public class MatchEventController {
+    
+    private final MatchEventService matchEventService;
+    
+    @PostMapping
+    @PreAuthorize("hasAnyRole('REFEREE', 'ORGANIZER', 'ADMIN')")
+    @Operation(summary = "Record a match event (idempotent by clientEventId)")
+    public ResponseEntity<ApiResponse<MatchEventAck>> ingestEvent(
+            @PathVariable String matchId,
+            @RequestBody MatchEvent event) {
+        try {
+            MatchEventAck ack = matchEventService.ingest(matchId, event);
+            return ResponseEntity.ok(ApiResponse.success(ack.isDuplicate() ? "Event already recorded" : "Event recorded", ack));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('REFEREE', 'ORGANIZER', 'ADMIN')")
+    @Operation(summary = "Record a batch of match events in order (idempotent by clientEventId)")
+    public ResponseEntity<ApiResponse<List<MatchEventAck>>> ingestEvents(
+            @PathVariable String matchId,
+            @RequestBody List<MatchEvent> events) {
+        try {
+            List<MatchEventAck> acks = matchEventService.ingest(matchId, events);
+            return ResponseEntity.ok(ApiResponse.success("Events recorded", acks));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping
+    @Operation(summary = "Get match events after a sequence number")
+    public ResponseEntity<ApiResponse<List<MatchEvent>>> getEvents(
+            @PathVariable String matchId,
+            @RequestParam(defaultValue = "0") long afterSequence,
+            @RequestParam(defaultValue = "200") int limit) {
+        List<MatchEvent> events = matchEventService.getEvents(matchId, afterSequence, limit);
+        return ResponseEntity.ok(ApiResponse.success(events));
+    }
+}
@@ -0,0 +1,46 @@
+package com.sports.controller;
+
+import com.sports.dto.ApiResponse;
+import com.sports.model.entity.PlayerStatistics;
+import com.sports.model.enums.SportType;
+import com.sports.service.PlayerStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Player Statistics Controller - Season statistics, one document per player, sport and season
+ */
+@RestController
+@RequestMapping("/api/players/{playerId}/statistics")
+@RequiredArgsConstructor
+@Tag(name = "Player Statistics", description = "Player season statistics endpoints")
+public class PlayerStatisticsController {
+    
+    private final PlayerStatisticsService playerStatisticsService;
+    
+    @GetMapping
+    @Operation(summary = "Get a player's statistics for every season")
+    public ResponseEntity<ApiResponse<List<PlayerStatistics>>> getPlayerStatistics(@PathVariable String playerId) {
+        List<PlayerStatistics> statistics = playerStatisticsService.getPlayerStatistics(playerId);
+        return ResponseEntity.ok(ApiResponse.success(statistics));
+    }
+    
+    @GetMapping("/{sportType}/{season}")
+    @Operation(summary = "Get a player's statistics for one season")
+    public ResponseEntity<ApiResponse<PlayerStatistics>> getSeasonStatistics(
+            @PathVariable String playerId,
+            @PathVariable SportType sportType,
+            @PathVariable String season) {
+        try {
+            PlayerStatistics statistics = playerStatisticsService.getPlayerStatistics(playerId, sportType, season);
+            return ResponseEntity.ok(ApiResponse.success(statistics));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
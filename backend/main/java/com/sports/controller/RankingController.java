@@ -2,15 +2,27 @@ package com.sports.controller;
 
 
 import com.sports.dto.ApiResponse;
+import com.sports.dto.LeaderboardEntry;
+import com.sports.dto.RankingHistoryPoint;
+import com.sports.dto.RankingRunStats;
+import com.sports.dto.RatingPeriodStats;
 import com.sports.model.entity.Ranking;
+import com.sports.model.enums.HistoryResolution;
 import com.sports.model.enums.SportType;
+import com.sports.service.LeaderboardService;
+import com.sports.service.RankingRollupService;
 import com.sports.service.RankingService;
+import com.sports.service.RatingPeriodService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -23,16 +35,54 @@ import java.util.List;
 public class RankingController {
     
     private final RankingService rankingService;
+    private final LeaderboardService leaderboardService;
+    private final RankingRollupService rankingRollupService;
+    private final RatingPeriodService ratingPeriodService;
     
     @GetMapping("/{sportType}/{rankingType}")
-    @Operation(summary = "Get latest rankings")
+    @Operation(summary = "Get latest rankings (GLOBAL rankings are served live)")
     public ResponseEntity<ApiResponse<List<Ranking>>> getLatestRankings(
             @PathVariable SportType sportType,
-            @PathVariable String rankingType) {
-        List<Ranking> rankings = rankingService.getLatestRankings(sportType, rankingType);
+            @PathVariable String rankingType,
+            @RequestParam(defaultValue = "PLAYER") String category,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<Ranking> rankings = "GLOBAL".equalsIgnoreCase(rankingType) && leaderboardService.isReady()
+                ? rankingService.getLiveRankings(sportType, category.toUpperCase(), offset, Math.min(limit, 500))
+                : rankingService.getLatestRankings(sportType, rankingType);
         return ResponseEntity.ok(ApiResponse.success(rankings));
     }
     
+    @GetMapping("/{sportType}/live/{category}/{entityId}")
+    @Operation(summary = "Get live rank of a player or team")
+    public ResponseEntity<ApiResponse<LeaderboardEntry>> getLiveRank(
+            @PathVariable SportType sportType,
+            @PathVariable String category,
+            @PathVariable String entityId) {
+        try {
+            LeaderboardEntry entry = rankingService.getLiveRank(sportType, category.toUpperCase(), entityId);
+            return ResponseEntity.ok(ApiResponse.success(entry));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/{sportType}/around/{entityId}")
+    @Operation(summary = "Get the entries ranked around a player or team")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getRankingsAround(
+            @PathVariable SportType sportType,
+            @PathVariable String entityId,
+            @RequestParam(defaultValue = "PLAYER") String category,
+            @RequestParam(defaultValue = "10") int window) {
+        try {
+            List<LeaderboardEntry> entries = rankingService.getRankingsAround(
+                    sportType, category.toUpperCase(), entityId, Math.max(0, Math.min(window, 100)));
+            return ResponseEntity.ok(ApiResponse.success(entries));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/player/{playerProfileId}/history")
     @Operation(summary = "Get player ranking history")
     public ResponseEntity<ApiResponse<List<Ranking>>> getPlayerRankingHistory(
@@ -49,6 +99,44 @@ public class RankingController {
         return ResponseEntity.ok(ApiResponse.success(history));
     }
     
+    @GetMapping("/player/{playerProfileId}/history/series")
+    @Operation(summary = "Get player ranking history as a downsampled time series")
+    public ResponseEntity<ApiResponse<Page<RankingHistoryPoint>>> getPlayerHistorySeries(
+            @PathVariable String playerProfileId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) HistoryResolution resolution,
+            @RequestParam(defaultValue = "GLOBAL") String rankingType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return historySeries("PLAYER", playerProfileId, rankingType, from, to, resolution, page, size);
+    }
+    
+    @GetMapping("/team/{teamId}/history/series")
+    @Operation(summary = "Get team ranking history as a downsampled time series")
+    public ResponseEntity<ApiResponse<Page<RankingHistoryPoint>>> getTeamHistorySeries(
+            @PathVariable String teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) HistoryResolution resolution,
+            @RequestParam(defaultValue = "GLOBAL") String rankingType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return historySeries("TEAM", teamId, rankingType, from, to, resolution, page, size);
+    }
+    
+    private ResponseEntity<ApiResponse<Page<RankingHistoryPoint>>> historySeries(
+            String category, String entityId, String rankingType, LocalDate from, LocalDate to,
+            HistoryResolution resolution, int page, int size) {
+        try {
+            Page<RankingHistoryPoint> series = rankingRollupService.getHistorySeries(
+                    category, entityId, rankingType.toUpperCase(), from, to, resolution, page, size);
+            return ResponseEntity.ok(ApiResponse.success(series));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @PostMapping("/calculate/players/{sportType}")
     @Operation(summary = "Calculate player rankings")
     public ResponseEntity<ApiResponse<String>> calculatePlayerRankings(@PathVariable SportType sportType) {
@@ -62,4 +150,57 @@ public class RankingController {
         rankingService.calculateTeamRankings(sportType);
         return ResponseEntity.ok(ApiResponse.success("Rankings calculated successfully", null));
     }
+    
+    @PostMapping("/calculate/players/{sportType}/stream")
+    @Operation(summary = "Calculate player rankings with streaming bulk writes")
+    public ResponseEntity<ApiResponse<RankingRunStats>> streamPlayerRankings(@PathVariable SportType sportType) {
+        RankingRunStats stats = rankingService.streamPlayerRankings(sportType);
+        return ResponseEntity.ok(ApiResponse.success("Rankings calculated successfully", stats));
+    }
+    
+    @PostMapping("/calculate/teams/{sportType}/stream")
+    @Operation(summary = "Calculate team rankings with streaming bulk writes")
+    public ResponseEntity<ApiResponse<RankingRunStats>> streamTeamRankings(@PathVariable SportType sportType) {
+        RankingRunStats stats = rankingService.streamTeamRankings(sportType);
+        return ResponseEntity.ok(ApiResponse.success("Rankings calculated successfully", stats));
+    }
+    
+    @PostMapping("/calculate/teams/{sportType}/aggregate")
+    @Operation(summary = "Calculate team rankings with a Mongo aggregation (in-JVM fallback before MongoDB 5.0)")
+    public ResponseEntity<ApiResponse<RankingRunStats>> aggregateTeamRankings(@PathVariable SportType sportType) {
+        RankingRunStats stats = rankingService.aggregateTeamRankings(sportType);
+        return ResponseEntity.ok(ApiResponse.success("Rankings calculated successfully", stats));
+    }
+    
+    @PostMapping("/calculate/players/{sportType}/geographic")
+    @Operation(summary = "Calculate global, national, state and city player rankings in one pass")
+    public ResponseEntity<ApiResponse<RankingRunStats>> streamGeographicPlayerRankings(@PathVariable SportType sportType) {
+        RankingRunStats stats = rankingService.streamGeographicPlayerRankings(sportType);
+        return ResponseEntity.ok(ApiResponse.success("Rankings calculated successfully", stats));
+    }
+    
+    @PostMapping("/calculate/rating-period/event/{eventId}")
+    @Operation(summary = "Rate all completed matches of an event as one Glicko-2 rating period")
+    public ResponseEntity<ApiResponse<RatingPeriodStats>> rateEvent(@PathVariable String eventId) {
+        try {
+            RatingPeriodStats stats = ratingPeriodService.rateEvent(eventId);
+            return ResponseEntity.ok(ApiResponse.success("Rating period applied successfully", stats));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/calculate/rating-period/{sportType}")
+    @Operation(summary = "Rate a sport's completed matches in a date range as one Glicko-2 rating period")
+    public ResponseEntity<ApiResponse<RatingPeriodStats>> ratePeriod(
+            @PathVariable SportType sportType,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            RatingPeriodStats stats = ratingPeriodService.ratePeriod(sportType, from, to);
+            return ResponseEntity.ok(ApiResponse.success("Rating period applied successfully", stats));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
 }
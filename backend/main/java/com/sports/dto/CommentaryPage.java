@@ -0,0 +1,23 @@
+package com.sports.dto;
+
+import com.sports.model.entity.MatchCommentary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of match commentary, newest line first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentaryPage {
+
+    private String matchId;
+    private List<MatchCommentary.CommentaryEntry> entries;
+    private Long nextBefore; // pass as beforeBucket for the next older page; null when there is none
+}
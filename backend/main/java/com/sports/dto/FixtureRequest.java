@@ -0,0 +1,24 @@
+package com.sports.dto;
+
+import com.sports.model.enums.FixtureFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for generating the fixtures of an event
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FixtureRequest {
+
+    private FixtureFormat format;
+    private LocalDateTime startTime;       // defaults to the event start date
+    private Integer roundIntervalMinutes;  // time between rounds, defaults to 60
+    private String venueId;                // defaults to the event venue
+}
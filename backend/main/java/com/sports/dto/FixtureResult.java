@@ -0,0 +1,27 @@
+package com.sports.dto;
+
+import com.sports.model.enums.FixtureFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing one fixture generation run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FixtureResult {
+
+    private String eventId;
+    private FixtureFormat format;
+    private int participants;
+    private int firstRound;
+    private int lastRound;
+    private int matchesCreated;
+    private int byes;
+    private long generationMs; // pairing and bracket building, excluding the writes
+    private long durationMs;
+}
@@ -0,0 +1,36 @@
+package com.sports.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sports.model.enums.MatchStatus;
+import com.sports.model.enums.SportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact live update pushed to match subscribers. Only the fields that changed are
+ * sent; seq increases by one per message for a match across all nodes, so a jump means
+ * missed updates and the client should re-read the match. Messages from different nodes
+ * can arrive slightly out of order, so a seq at or below the last one seen is dropped.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchDelta {
+
+    public enum Type { SCORE, STARTED, STATUS, COMPLETED }
+
+    private String matchId;
+    private long seq;
+    private Type type;
+    private SportType sportType;
+    private MatchStatus status;
+    private Integer team1Score;
+    private Integer team2Score;
+    private String winnerTeamId;
+    private String winnerPlayerId;
+    private long timestamp;
+}
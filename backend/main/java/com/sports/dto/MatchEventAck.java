@@ -0,0 +1,21 @@
+package com.sports.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO acknowledging one ingested match event once it is durable
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchEventAck {
+
+    private String clientEventId;
+    private String eventId; // null for duplicates
+    private Long sequence;  // sequence of the original for duplicates, when known
+    private boolean duplicate;
+}
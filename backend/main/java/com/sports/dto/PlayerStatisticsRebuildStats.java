@@ -0,0 +1,25 @@
+package com.sports.dto;
+
+import com.sports.model.enums.SportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing a full rebuild of one season's player statistics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerStatisticsRebuildStats {
+
+    private SportType sportType;
+    private String season;
+    private int matches;
+    private long events;
+    private int players;
+    private int partitions;
+    private long durationMs;
+}
@@ -0,0 +1,29 @@
+package com.sports.dto;
+
+import com.sports.model.enums.HistoryResolution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for one point of a downsampled ranking history time series
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingHistoryPoint {
+
+    private LocalDate periodStart;
+    private HistoryResolution resolution;
+    private String rankingType;
+    private Integer rank;
+    private Integer bestRank;
+    private Integer worstRank;
+    private Double averageRank;
+    private Double rating;
+    private int samples;
+}
@@ -0,0 +1,33 @@
+package com.sports.dto;
+
+import com.sports.model.enums.RankingJobStatus;
+import com.sports.model.enums.SportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO describing the live progress of one sport's ranking job
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingJobProgress {
+
+    private String runId;
+    private SportType sportType;
+    private String trigger;
+    private RankingJobStatus status;
+    private long processed;
+    private long total;
+    private double percent;
+    private Long etaSeconds;
+    private double docsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.sports.dto;
+
+import com.sports.model.enums.SportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing a single streaming ranking recalculation run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingRunStats {
+
+    private SportType sportType;
+    private String rankingCategory; // PLAYER, TEAM
+    private long processed;
+    private long rankChanges;
+    private int chunks;
+    private long durationMs;
+    private double docsPerSecond;
+    private long peakHeapBytes;
+}
@@ -0,0 +1,21 @@
+package com.sports.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO comparing one entity's live rating with its replayed rating
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingDifference {
+
+    private String entityId;
+    private Double liveRating;
+    private double replayRating;
+    private double difference;
+}
@@ -0,0 +1,24 @@
+package com.sports.dto;
+
+import com.sports.model.enums.SportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing one Glicko-2 rating period run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingPeriodStats {
+
+    private SportType sportType;
+    private String eventId;
+    private int matches;
+    private int players;
+    private int teams;
+    private long durationMs;
+}
@@ -0,0 +1,26 @@
+package com.sports.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO summarising how a rating replay differs from the live ratings
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingReplayComparison {
+
+    private String replayId;
+    private String rankingCategory;
+    private long compared;
+    private long missing; // replayed entities that no longer exist
+    private double meanAbsoluteDifference;
+    private double maxAbsoluteDifference;
+    private List<RatingDifference> largestDifferences;
+}
@@ -1,6 +1,7 @@
 package com.sports.model.entity;
 
 import com.sports.model.enums.EventStatus;
+import com.sports.model.enums.FixtureFormat;
 import com.sports.model.enums.SportType;
 import lombok.*;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -102,10 +103,20 @@ public class Event extends BaseEntity {
     @Builder.Default
     private List<String> matchIds = new ArrayList<>();
     
+    @Field("fixture_format")
+    private FixtureFormat fixtureFormat;
+    
+    @Field("fixture_round")
+    private Integer fixtureRound; // last round generated
+    
     @Field("total_views")
     @Builder.Default
     private Integer totalViews = 0;
     
+    @Field("current_viewers")
+    @Builder.Default
+    private Integer currentViewers = 0;
+    
     @Field("featured_event")
     @Builder.Default
     private Boolean featuredEvent = false;
@@ -0,0 +1,48 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+import java.time.LocalDateTime;
+
+/**
+ * Job Lease - Cluster-wide lock of a scheduled job; the id is the job name.
+ * Every acquisition increments the fencing token, so a node whose lease was
+ * taken over can tell it is no longer the leader. Tokens between the completed
+ * token and the current one belong to runs that were abandoned.
+ */
+@Document(collection = "job_leases")
+@CompoundIndex(name = "running_expires_idx", def = "{'running': 1, 'expires_at': 1}")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease extends BaseEntity {
+
+    @Field
+    private String owner; // node id
+
+    @Field("fencing_token")
+    private Long fencingToken;
+
+    @Field
+    private Boolean running;
+
+    @Field("acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Field("heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Field("expires_at")
+    private LocalDateTime expiresAt;
+
+    @Field("completed_at")
+    private LocalDateTime completedAt;
+
+    @Field("completed_token")
+    private Long completedToken; // fencing token of the last run that finished
+}
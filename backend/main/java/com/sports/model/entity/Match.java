@@ -4,6 +4,7 @@ import com.sports.model.enums.MatchStatus;
 import lombok.*;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
  * Match Entity - Individual matches within events
  */
 @Document(collection = "matches")
+@CompoundIndex(name = "completion_order_idx", def = "{'status': 1, 'actual_end_time': 1, '_id': 1}")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -68,6 +70,23 @@ public class Match extends BaseEntity {
     @Field("winner_player_id")
     private String winnerPlayerId;
     
+    @Field("rating_period_at")
+    private LocalDateTime ratingPeriodAt; // set once a Glicko-2 rating period has claimed the result
+    
+    @Field("rating_period_run")
+    @Indexed(sparse = true)
+    private String ratingPeriodRun; // the rating period run that claimed the result
+    
+    @Field("rating_applied_at")
+    private LocalDateTime ratingAppliedAt; // claimed by the per-match Elo update on completion
+    
+    @Field("rating_failed_at")
+    @Indexed(sparse = true)
+    private LocalDateTime ratingFailedAt; // set when that update failed; the nightly retry re-applies it
+    
+    @Field("stats_applied_at")
+    private LocalDateTime statsAppliedAt; // set once the match's events are counted into player season statistics
+    
     @Field("referee_id")
     private String refereeId;
     
@@ -83,6 +102,24 @@ public class Match extends BaseEntity {
     @Field("round_name")
     private String roundName; // Quarter-final, Semi-final, Final, etc.
     
+    @Field("round")
+    private Integer round; // 1-based round within the event's fixtures
+    
+    @Field("bracket")
+    private String bracket; // WINNERS, LOSERS, GRAND_FINAL for elimination fixtures
+    
+    @Field("winner_next_match_id")
+    private String winnerNextMatchId; // Bracket match the winner moves on to
+    
+    @Field("winner_next_slot")
+    private Integer winnerNextSlot; // 1 or 2: the side of that match the winner takes
+    
+    @Field("loser_next_match_id")
+    private String loserNextMatchId; // Losers-bracket match the loser drops to (double elimination)
+    
+    @Field("loser_next_slot")
+    private Integer loserNextSlot;
+    
     @Field("is_live")
     @Builder.Default
     private Boolean isLive = false;
@@ -90,4 +127,8 @@ public class Match extends BaseEntity {
     @Field("total_viewers")
     @Builder.Default
     private Integer totalViewers = 0;
+    
+    @Field("current_viewers")
+    @Builder.Default
+    private Integer currentViewers = 0;
 }
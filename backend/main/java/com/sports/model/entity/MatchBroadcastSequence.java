@@ -0,0 +1,21 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Match Broadcast Sequence - Seq of the last live delta pushed for a match; the id is
+ * the match id. Kept apart from the Match document, which whole-document saves replace.
+ */
+@Document(collection = "match_broadcast_sequences")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchBroadcastSequence extends BaseEntity {
+
+    @Field("seq")
+    private Long seq;
+}
@@ -0,0 +1,137 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Match Commentary Entity
+ * Stores live match commentary and statistics
+ */
+@Document(collection = "match_commentary")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchCommentary extends BaseEntity {
+    
+    @Field("match_id")
+    @Indexed
+    private String matchId;
+    
+    // Legacy embedded list; new lines are appended to MatchCommentaryBucket documents
+    @Field("commentary_entries")
+    @Builder.Default
+    private List<CommentaryEntry> commentaryEntries = new ArrayList<>();
+    
+    @Field("match_statistics")
+    private MatchStatistics matchStatistics;
+    
+    @Field("statistics_sequence")
+    private Long statisticsSequence; // last match event sequence the statistics count
+    
+    /**
+     * Commentary Entry
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CommentaryEntry {
+        @Field("minute")
+        private Integer minute;
+        
+        @Field("extra_time")
+        private Integer extraTime;
+        
+        @Field("text")
+        private String text;
+        
+        @Field("timestamp")
+        private LocalDateTime timestamp;
+        
+        @Field("is_important")
+        @Builder.Default
+        private Boolean isImportant = false; // Highlight important commentary
+    }
+    
+    /**
+     * Match Statistics
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MatchStatistics {
+        // Possession
+        @Field("home_possession")
+        private Integer homePossession;
+        
+        @Field("away_possession")
+        private Integer awayPossession;
+        
+        // Shots
+        @Field("home_shots")
+        private Integer homeShots;
+        
+        @Field("away_shots")
+        private Integer awayShots;
+        
+        @Field("home_shots_on_target")
+        private Integer homeShotsOnTarget;
+        
+        @Field("away_shots_on_target")
+        private Integer awayShotsOnTarget;
+        
+        // Passes
+        @Field("home_passes")
+        private Integer homePasses;
+        
+        @Field("away_passes")
+        private Integer awayPasses;
+        
+        @Field("home_pass_accuracy")
+        private Double homePassAccuracy;
+        
+        @Field("away_pass_accuracy")
+        private Double awayPassAccuracy;
+        
+        // Fouls and Cards
+        @Field("home_fouls")
+        private Integer homeFouls;
+        
+        @Field("away_fouls")
+        private Integer awayFouls;
+        
+        @Field("home_yellow_cards")
+        private Integer homeYellowCards;
+        
+        @Field("away_yellow_cards")
+        private Integer awayYellowCards;
+        
+        @Field("home_red_cards")
+        private Integer homeRedCards;
+        
+        @Field("away_red_cards")
+        private Integer awayRedCards;
+        
+        // Corners and Offsides
+        @Field("home_corners")
+        private Integer homeCorners;
+        
+        @Field("away_corners")
+        private Integer awayCorners;
+        
+        @Field("home_offsides")
+        private Integer homeOffsides;
+        
+        @Field("away_offsides")
+        private Integer awayOffsides;
+    }
+}
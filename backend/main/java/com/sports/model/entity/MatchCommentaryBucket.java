@@ -0,0 +1,40 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Match Commentary Bucket - A bounded run of consecutive commentary lines of one match.
+ * Lines are appended with $push; a full or expired bucket is never touched again.
+ */
+@Document(collection = "match_commentary_buckets")
+@CompoundIndex(name = "match_bucket_idx", def = "{'match_id': 1, 'bucket': 1}", unique = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchCommentaryBucket extends BaseEntity {
+
+    @Field("match_id")
+    private String matchId;
+
+    @Field("bucket")
+    private Long bucket; // 0, 1, 2, ... in commentary order
+
+    @Field("count")
+    private Integer count;
+
+    @Field("started_at")
+    private LocalDateTime startedAt;
+
+    @Field("entries")
+    @Builder.Default
+    private List<MatchCommentary.CommentaryEntry> entries = new ArrayList<>();
+}
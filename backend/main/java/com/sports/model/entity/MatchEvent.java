@@ -3,17 +3,19 @@ package com.sports.model.entity;
 import lombok.*;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Match Events Entity
  * Stores timeline of match events (goals, cards, substitutions, etc.)
  */
 @Document(collection = "match_events")
+@CompoundIndex(name = "match_sequence_unique_idx", def = "{'match_id': 1, 'sequence': 1}", unique = true)
+@CompoundIndex(name = "match_client_event_idx", def = "{'match_id': 1, 'client_event_id': 1}", unique = true,
+        partialFilter = "{ 'client_event_id': { $exists: true } }")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -25,6 +27,12 @@ public class MatchEvent extends BaseEntity {
     @Indexed
     private String matchId;
     
+    @Field("client_event_id")
+    private String clientEventId; // Supplied by the scorer or feed, unique per match; makes ingestion idempotent
+    
+    @Field("sequence")
+    private Long sequence; // Position in the match timeline, assigned on ingestion
+    
     @Field("event_type")
     @Indexed
     private EventType eventType;
@@ -102,7 +110,22 @@ public class MatchEvent extends BaseEntity {
         HALF_TIME,
         FULL_TIME,
         EXTRA_TIME_START,
-        PENALTY_SHOOTOUT
+        PENALTY_SHOOTOUT,
+        // Counted into match statistics
+        SHOT,
+        SHOT_ON_TARGET,
+        PASS,
+        PASS_MISSED,
+        FOUL,
+        CORNER,
+        OFFSIDE,
+        CROSS,
+        // Counted into player statistics
+        TACKLE,
+        INTERCEPTION,
+        BLOCK,
+        CLEARANCE,
+        SAVE
     }
     
     /**
@@ -114,126 +137,3 @@ public class MatchEvent extends BaseEntity {
         RED
     }
 }
-
-/**
- * Match Commentary Entity
- * Stores live match commentary and statistics
- */
-@Document(collection = "match_commentary")
-@Data
-@EqualsAndHashCode(callSuper = true)
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-class MatchCommentary extends BaseEntity {
-    
-    @Field("match_id")
-    @Indexed
-    private String matchId;
-    
-    @Field("commentary_entries")
-    @Builder.Default
-    private List<CommentaryEntry> commentaryEntries = new ArrayList<>();
-    
-    @Field("match_statistics")
-    private MatchStatistics matchStatistics;
-    
-    /**
-     * Commentary Entry
-     */
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    @Builder
-    public static class CommentaryEntry {
-        @Field("minute")
-        private Integer minute;
-        
-        @Field("extra_time")
-        private Integer extraTime;
-        
-        @Field("text")
-        private String text;
-        
-        @Field("timestamp")
-        private LocalDateTime timestamp;
-        
-        @Field("is_important")
-        @Builder.Default
-        private Boolean isImportant = false; // Highlight important commentary
-    }
-    
-    /**
-     * Match Statistics
-     */
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    @Builder
-    public static class MatchStatistics {
-        // Possession
-        @Field("home_possession")
-        private Integer homePossession;
-        
-        @Field("away_possession")
-        private Integer awayPossession;
-        
-        // Shots
-        @Field("home_shots")
-        private Integer homeShots;
-        
-        @Field("away_shots")
-        private Integer awayShots;
-        
-        @Field("home_shots_on_target")
-        private Integer homeShotsOnTarget;
-        
-        @Field("away_shots_on_target")
-        private Integer awayShotsOnTarget;
-        
-        // Passes
-        @Field("home_passes")
-        private Integer homePasses;
-        
-        @Field("away_passes")
-        private Integer awayPasses;
-        
-        @Field("home_pass_accuracy")
-        private Double homePassAccuracy;
-        
-        @Field("away_pass_accuracy")
-        private Double awayPassAccuracy;
-        
-        // Fouls and Cards
-        @Field("home_fouls")
-        private Integer homeFouls;
-        
-        @Field("away_fouls")
-        private Integer awayFouls;
-        
-        @Field("home_yellow_cards")
-        private Integer homeYellowCards;
-        
-        @Field("away_yellow_cards")
-        private Integer awayYellowCards;
-        
-        @Field("home_red_cards")
-        private Integer homeRedCards;
-        
-        @Field("away_red_cards")
-        private Integer awayRedCards;
-        
-        // Corners and Offsides
-        @Field("home_corners")
-        private Integer homeCorners;
-        
-        @Field("away_corners")
-        private Integer awayCorners;
-        
-        @Field("home_offsides")
-        private Integer homeOffsides;
-        
-        @Field("away_offsides")
-        private Integer awayOffsides;
-    }
-}
@@ -0,0 +1,22 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Match List Version - Counter of changes to one cached match list (LIVE, UPCOMING); the id
+ * is the list name. Every node bumps it after a change and drops its cached copy once the
+ * stored version moves past the one the copy was built at.
+ */
+@Document(collection = "match_list_versions")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchListVersion extends BaseEntity {
+
+    @Field("version")
+    private Long version;
+}
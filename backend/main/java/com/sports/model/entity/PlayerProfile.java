@@ -12,6 +12,7 @@ import org.springframework.data.mongodb.core.index.CompoundIndex;
  */
 @Document(collection = "player_profiles")
 @CompoundIndex(name = "user_sport_idx", def = "{'user_id': 1, 'sport_type': 1}", unique = true)
+@CompoundIndex(name = "sport_rating_idx", def = "{'sport_type': 1, 'rating': -1, '_id': 1}")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -58,6 +59,14 @@ public class PlayerProfile extends BaseEntity {
     @Builder.Default
     private Double rating = 0.0; // ELO or custom rating
     
+    @Field("rating_deviation")
+    @Builder.Default
+    private Double ratingDeviation = 350.0; // Glicko-2 rating deviation
+    
+    @Field
+    @Builder.Default
+    private Double volatility = 0.06; // Glicko-2 volatility
+    
     @Field("global_rank")
     private Integer globalRank;
     
@@ -4,6 +4,7 @@ import com.sports.model.enums.SportType;
 import lombok.*;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 /**
@@ -11,6 +12,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
  * Tracks comprehensive player performance metrics
  */
 @Document(collection = "player_statistics")
+@CompoundIndex(name = "player_season_idx", def = "{'player_id': 1, 'sport_type': 1, 'season': 1}", unique = true)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -56,4 +56,8 @@ public class Ranking extends BaseEntity {
     
     @Field("geographic_scope")
     private String geographicScope; // Country, State, City name
+    
+    @Field("run_token")
+    @Indexed(sparse = true)
+    private Long runToken; // fencing token of the leased ranking run that wrote the row
 }
@@ -0,0 +1,71 @@
+package com.sports.model.entity;
+
+import com.sports.model.enums.SportType;
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranking History Bucket - Per-entity, per-month index of ranking points,
+ * so a player's or team's history is a handful of document reads
+ */
+@Document(collection = "ranking_history")
+@CompoundIndex(name = "entity_month_idx", def = "{'entity_id': 1, 'ranking_category': 1, 'month': 1}", unique = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingHistoryBucket extends BaseEntity {
+
+    @Field("entity_id")
+    private String entityId;
+
+    @Field("ranking_category")
+    private String rankingCategory; // PLAYER, TEAM
+
+    @Field("sport_type")
+    private SportType sportType;
+
+    @Field
+    private String month; // yyyy-MM
+
+    @Field
+    @Builder.Default
+    private List<HistoryPoint> points = new ArrayList<>();
+
+    /**
+     * History Point
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class HistoryPoint {
+        @Field("ranking_date")
+        private LocalDateTime rankingDate;
+
+        @Field("ranking_type")
+        private String rankingType;
+
+        @Field
+        private Integer rank;
+
+        @Field("previous_rank")
+        private Integer previousRank;
+
+        @Field
+        private Double rating;
+
+        @Field
+        private Double points;
+
+        @Field("geographic_scope")
+        private String geographicScope;
+    }
+}
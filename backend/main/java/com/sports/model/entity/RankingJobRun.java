@@ -0,0 +1,56 @@
+package com.sports.model.entity;
+
+import com.sports.model.enums.RankingJobStatus;
+import com.sports.model.enums.SportType;
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ranking Job Run - Outcome, duration and throughput of one sport's ranking recalculation
+ */
+@Document(collection = "ranking_job_runs")
+@CompoundIndex(name = "sport_started_idx", def = "{'sport_type': 1, 'started_at': -1}")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingJobRun extends BaseEntity {
+
+    @Field("sport_type")
+    private SportType sportType;
+
+    @Field
+    private String trigger; // SCHEDULED, MANUAL, RETRY
+
+    @Field
+    private RankingJobStatus status;
+
+    @Field("started_at")
+    private LocalDateTime startedAt;
+
+    @Field("finished_at")
+    private LocalDateTime finishedAt;
+
+    @Field
+    private Long total;
+
+    @Field
+    private Long processed;
+
+    @Field("rank_changes")
+    private Long rankChanges;
+
+    @Field("duration_ms")
+    private Long durationMs;
+
+    @Field("docs_per_second")
+    private Double docsPerSecond;
+
+    @Field
+    private String error;
+}
@@ -0,0 +1,61 @@
+package com.sports.model.entity;
+
+import com.sports.model.enums.HistoryResolution;
+import com.sports.model.enums.SportType;
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+import java.time.LocalDate;
+
+/**
+ * Ranking Rollup - Weekly or monthly aggregate of an entity's daily ranking points
+ */
+@Document(collection = "ranking_rollups")
+@CompoundIndex(name = "entity_period_idx",
+        def = "{'entity_id': 1, 'ranking_category': 1, 'ranking_type': 1, 'resolution': 1, 'period_start': 1}",
+        unique = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingRollup extends BaseEntity {
+
+    @Field("entity_id")
+    private String entityId;
+
+    @Field("ranking_category")
+    private String rankingCategory; // PLAYER, TEAM
+
+    @Field("ranking_type")
+    private String rankingType; // GLOBAL, NATIONAL, STATE, CITY
+
+    @Field("sport_type")
+    private SportType sportType;
+
+    @Field
+    private HistoryResolution resolution; // WEEKLY, MONTHLY
+
+    @Field("period_start")
+    private LocalDate periodStart;
+
+    @Field("last_rank")
+    private Integer lastRank;
+
+    @Field("best_rank")
+    private Integer bestRank;
+
+    @Field("worst_rank")
+    private Integer worstRank;
+
+    @Field("average_rank")
+    private Double averageRank;
+
+    @Field("last_rating")
+    private Double lastRating;
+
+    @Field
+    private Integer samples;
+}
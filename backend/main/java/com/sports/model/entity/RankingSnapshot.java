@@ -0,0 +1,76 @@
+package com.sports.model.entity;
+
+import com.sports.model.enums.SportType;
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ranking Snapshot - One day's ranking of a sport/category/type stored as parallel arrays.
+ * Large rankings are split into several chunks; compressed chunks keep the arrays in payload.
+ */
+@Document(collection = "ranking_snapshots")
+@CompoundIndex(name = "snapshot_lookup_idx",
+        def = "{'sport_type': 1, 'ranking_type': 1, 'ranking_category': 1, 'snapshot_date': -1, 'chunk_index': 1}",
+        unique = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingSnapshot extends BaseEntity {
+
+    @Field("sport_type")
+    private SportType sportType;
+
+    @Field("ranking_type")
+    private String rankingType; // GLOBAL, NATIONAL, STATE, CITY
+
+    @Field("ranking_category")
+    private String rankingCategory; // PLAYER, TEAM
+
+    @Field("snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Field("ranking_date")
+    private LocalDateTime rankingDate;
+
+    @Field("chunk_index")
+    private Integer chunkIndex;
+
+    @Field("entry_count")
+    private Integer entryCount;
+
+    @Field("entity_ids")
+    private List<String> entityIds;
+
+    @Field
+    private List<Integer> ranks;
+
+    @Field("previous_ranks")
+    private List<Integer> previousRanks;
+
+    @Field
+    private List<Double> ratings;
+
+    @Field
+    private List<Double> points;
+
+    @Field("geographic_scopes")
+    private List<String> geographicScopes;
+
+    @Field
+    @Builder.Default
+    private Boolean compressed = false;
+
+    @Field
+    private byte[] payload; // GZIP-packed arrays when compressed
+
+    @Field("indexed_at")
+    private LocalDateTime indexedAt; // set once the rollup has added the chunk to the per-entity history index
+}
@@ -0,0 +1,60 @@
+package com.sports.model.entity;
+
+import com.sports.model.enums.RankingJobStatus;
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rating Replay - One recomputation of all ratings from the full match history;
+ * its results are kept in rating_replay_entries until swapped in
+ */
+@Document(collection = "rating_replays")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingReplay extends BaseEntity {
+
+    @Field
+    private String model; // ELO
+
+    @Field("k_factor")
+    private Double kFactor;
+
+    @Field("initial_rating")
+    private Double initialRating;
+
+    @Field
+    private RankingJobStatus status;
+
+    @Field
+    private Long matches;
+
+    @Field
+    private Integer players;
+
+    @Field
+    private Integer teams;
+
+    @Field("duration_ms")
+    private Long durationMs;
+
+    @Field("matches_per_second")
+    private Double matchesPerSecond;
+
+    @Field("started_at")
+    private LocalDateTime startedAt;
+
+    @Field("finished_at")
+    private LocalDateTime finishedAt;
+
+    @Field("swapped_at")
+    private LocalDateTime swappedAt;
+
+    @Field
+    private String error;
+}
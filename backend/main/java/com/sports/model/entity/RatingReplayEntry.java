@@ -0,0 +1,34 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+/**
+ * Rating Replay Entry - Shadow rating of one player or team produced by a replay
+ */
+@Document(collection = "rating_replay_entries")
+@CompoundIndex(name = "replay_entity_idx", def = "{'replay_id': 1, 'ranking_category': 1, 'entity_id': 1}", unique = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingReplayEntry extends BaseEntity {
+
+    @Field("replay_id")
+    private String replayId;
+
+    @Field("ranking_category")
+    private String rankingCategory; // PLAYER, TEAM
+
+    @Field("entity_id")
+    private String entityId;
+
+    @Field
+    private Double rating;
+
+    @Field("matches_played")
+    private Integer matchesPlayed;
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.List;
  * Team Entity - Represents sports teams
  */
 @Document(collection = "teams")
+@CompoundIndex(name = "sport_rating_idx", def = "{'sport_type': 1, 'rating': -1, '_id': 1}")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -87,9 +89,20 @@ public class Team extends BaseEntity {
     @Builder.Default
     private Double rating = 0.0;
     
+    @Field("rating_deviation")
+    @Builder.Default
+    private Double ratingDeviation = 350.0; // Glicko-2 rating deviation
+    
+    @Field
+    @Builder.Default
+    private Double volatility = 0.06; // Glicko-2 volatility
+    
     @Field("current_rank")
     private Integer currentRank;
     
+    @Field("previous_rank")
+    private Integer previousRank; // rank before the latest aggregated ranking run
+    
     @Field("verified_team")
     @Builder.Default
     private Boolean verifiedTeam = false;
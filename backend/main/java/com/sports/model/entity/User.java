@@ -57,6 +57,8 @@ public class User extends BaseEntity {
     
     private String country;
     
+    private String state;
+    
     private String city;
     
     @Builder.Default
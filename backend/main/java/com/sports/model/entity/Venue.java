@@ -5,6 +5,11 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.index.Indexed;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Venue Entity - Sports venues/locations
  */
@@ -66,9 +71,35 @@ public class Venue extends BaseEntity {
     private Double hourlyRate;
     
     @Field("availability_schedule")
-    private String availabilitySchedule; // JSON representation of schedule
+    private String availabilitySchedule; // JSON representation of schedule (free text, superseded by openingHours)
+    
+    @Field("opening_hours")
+    @Builder.Default
+    private List<OpeningHours> openingHours = new ArrayList<>(); // Bookings must fit in one window; empty = always open
+    
+    @Field("booking_revision")
+    @Builder.Default
+    private Long bookingRevision = 0L; // Bumped by every reservation, so nodes know when their booking index is stale
     
     @Field("verified_venue")
     @Builder.Default
     private Boolean verifiedVenue = false;
+    
+    /**
+     * Opening Hours - One weekly window, e.g. MONDAY 08:00-22:00
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OpeningHours {
+        @Field("day_of_week")
+        private DayOfWeek dayOfWeek;
+        
+        @Field("opens")
+        private LocalTime opens;
+        
+        @Field("closes")
+        private LocalTime closes;
+    }
 }
@@ -0,0 +1,43 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.LocalDateTime;
+
+/**
+ * Venue Booking - A venue reserved from startTime (inclusive) to endTime (exclusive),
+ * either for one match or, without a matchId, held for a whole event
+ */
+@Document(collection = "venue_bookings")
+@CompoundIndex(name = "venue_end_idx", def = "{'venue_id': 1, 'end_time': 1}")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VenueBooking extends BaseEntity {
+
+    @Field("venue_id")
+    private String venueId;
+
+    @Field("event_id")
+    @Indexed
+    private String eventId;
+
+    @Field("match_id")
+    private String matchId; // null for an event hold
+
+    @Field("start_time")
+    private LocalDateTime startTime;
+
+    @Field("end_time")
+    private LocalDateTime endTime;
+
+    public boolean isEventHold() {
+        return matchId == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.sports.model.entity;
+
+import lombok.*;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Viewer Node Share - Concurrent viewers one node has added to the stored currentViewers
+ * figures; the id is the node id. The node renews it on every flush, and once it expires
+ * another node withdraws the share, so a crashed node's viewers do not stay counted.
+ */
+@Document(collection = "viewer_node_shares")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ViewerNodeShare extends BaseEntity {
+
+    @Field("expires_at")
+    @Indexed
+    private LocalDateTime expiresAt;
+
+    @Field("match_viewers")
+    private Map<String, Long> matchViewers; // match id -> viewers counted by this node
+
+    @Field("event_viewers")
+    private Map<String, Long> eventViewers; // event id -> viewers counted by this node
+}
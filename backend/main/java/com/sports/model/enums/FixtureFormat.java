@@ -0,0 +1,11 @@
+package com.sports.model.enums;
+
+/**
+ * Tournament format used to generate an event's fixtures
+ */
+public enum FixtureFormat {
+    ROUND_ROBIN,
+    SWISS,
+    SINGLE_ELIMINATION,
+    DOUBLE_ELIMINATION
+}
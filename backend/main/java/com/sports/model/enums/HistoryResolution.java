@@ -0,0 +1,10 @@
+package com.sports.model.enums;
+
+/**
+ * Resolution of a ranking history time series
+ */
+public enum HistoryResolution {
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
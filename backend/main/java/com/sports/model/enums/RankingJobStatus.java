@@ -0,0 +1,12 @@
+package com.sports.model.enums;
+
+/**
+ * Status of a Per-Sport Ranking Job Run
+ */
+public enum RankingJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
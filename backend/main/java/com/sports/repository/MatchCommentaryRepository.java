@@ -0,0 +1,13 @@
+package com.sports.repository;
+
+import com.sports.model.entity.MatchCommentary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MatchCommentaryRepository extends MongoRepository<MatchCommentary, String> {
+    
+    Optional<MatchCommentary> findByMatchId(String matchId);
+}
@@ -0,0 +1,14 @@
+package com.sports.repository;
+
+import com.sports.model.entity.MatchEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MatchEventRepository extends MongoRepository<MatchEvent, String> {
+    
+    List<MatchEvent> findByMatchIdAndSequenceGreaterThanOrderBySequenceAsc(String matchId, Long sequence, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.sports.repository;
+
+import com.sports.model.entity.PlayerStatistics;
+import com.sports.model.enums.SportType;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlayerStatisticsRepository extends MongoRepository<PlayerStatistics, String> {
+    
+    List<PlayerStatistics> findByPlayerIdOrderBySeasonDesc(String playerId);
+    
+    Optional<PlayerStatistics> findByPlayerIdAndSportTypeAndSeason(String playerId, SportType sportType, String season);
+}
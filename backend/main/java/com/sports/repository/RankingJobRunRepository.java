@@ -0,0 +1,17 @@
+package com.sports.repository;
+
+import com.sports.model.entity.RankingJobRun;
+import com.sports.model.enums.SportType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RankingJobRunRepository extends MongoRepository<RankingJobRun, String> {
+    
+    List<RankingJobRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+    
+    List<RankingJobRun> findBySportTypeOrderByStartedAtDesc(SportType sportType, Pageable pageable);
+}
@@ -0,0 +1,83 @@
+package com.sports.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sports.model.entity.Match;
+import com.sports.model.enums.MatchStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bracket Service - Moves the winner (and, in double elimination, the loser) of a
+ * completed bracket match into the match it feeds.
+ *
+ * The links are set when the fixtures are generated, so advancing is one conditional
+ * update per participant: the slot is only filled while it is empty (or already holds
+ * that participant) and the match has not started. Each feeding match owns its own
+ * slot, so matches of the same round completing together never touch the same field,
+ * and repeating a completion is a no-op.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BracketService {
+
+    private final MongoTemplate mongoTemplate;
+    private final MatchListCache matchListCache;
+
+    /**
+     * Never throws: the match is already completed, so a failure is logged and completing
+     * the match again retries it
+     */
+    public void advance(Match completed) {
+        if (completed.getStatus() != MatchStatus.COMPLETED
+                || (completed.getWinnerNextMatchId() == null && completed.getLoserNextMatchId() == null)) {
+            return;
+        }
+        try {
+            advanceParticipants(completed);
+        } catch (Exception e) {
+            log.error("Could not advance bracket match {}; completing it again retries: {}",
+                    completed.getId(), e.getMessage());
+        }
+    }
+
+    private void advanceParticipants(Match completed) {
+        boolean teams = completed.getTeam1Id() != null || completed.getTeam2Id() != null;
+        String side1 = teams ? completed.getTeam1Id() : completed.getPlayer1Id();
+        String side2 = teams ? completed.getTeam2Id() : completed.getPlayer2Id();
+        String winner = teams ? completed.getWinnerTeamId() : completed.getWinnerPlayerId();
+        if (winner == null) {
+            log.warn("Bracket match {} completed without a winner; nothing advanced", completed.getId());
+            return;
+        }
+        String loser = winner.equals(side1) ? side2 : side1;
+
+        boolean filled = fill(completed.getWinnerNextMatchId(), completed.getWinnerNextSlot(), teams, winner);
+        filled |= fill(completed.getLoserNextMatchId(), completed.getLoserNextSlot(), teams, loser);
+        if (filled) {
+            matchListCache.invalidate(MatchListCache.MatchList.UPCOMING);
+        }
+    }
+
+    private boolean fill(String nextMatchId, Integer slot, boolean teams, String participant) {
+        if (nextMatchId == null || slot == null || participant == null) {
+            return false;
+        }
+        String field = (teams ? "team" : "player") + slot + "Id";
+        Query empty = Query.query(Criteria.where("id").is(nextMatchId)
+                .and(field).in(null, participant)
+                .and("status").is(MatchStatus.SCHEDULED));
+        UpdateResult result = mongoTemplate.updateFirst(empty, new Update().set(field, participant), Match.class);
+        if (result.getMatchedCount() == 0) {
+            log.warn("Could not advance {} to slot {} of match {}: slot already filled or match under way",
+                    participant, slot, nextMatchId);
+            return false;
+        }
+        return result.getModifiedCount() > 0;
+    }
+}
@@ -24,6 +24,7 @@ public class EventService {
     
     private final EventRepository eventRepository;
     private final NotificationService notificationService;
+    private final VenueBookingService venueBookingService;
     
     @Transactional
     public Event createEvent(Event event, User organizer) {
@@ -33,6 +34,12 @@ public class EventService {
             event.setStatus(EventStatus.DRAFT);
         }
         Event savedEvent = eventRepository.save(event);
+        try {
+            venueBookingService.reserveEvent(savedEvent);
+        } catch (RuntimeException e) {
+            eventRepository.delete(savedEvent);
+            throw e;
+        }
         
         // Send notification
         notificationService.notifyEventCreated(savedEvent);
@@ -44,6 +51,12 @@ public class EventService {
     public Event updateEvent(String eventId, Event updatedEvent) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
+        Event previous = Event.builder()
+                .venueId(event.getVenueId())
+                .startDate(event.getStartDate())
+                .endDate(event.getEndDate())
+                .build();
+        previous.setId(eventId);
         
         // Update fields
         event.setName(updatedEvent.getName());
@@ -56,6 +69,8 @@ public class EventService {
         event.setPrizePool(updatedEvent.getPrizePool());
         event.setRules(updatedEvent.getRules());
         
+        // Rejects the update when the new venue or dates clash with another booking
+        venueBookingService.rebookEvent(previous, event);
         Event saved = eventRepository.save(event);
         notificationService.notifyEventUpdated(saved);
         
@@ -145,6 +160,7 @@ public class EventService {
                 .orElseThrow(() -> new RuntimeException("Event not found"));
         event.setIsActive(false);
         eventRepository.save(event);
+        venueBookingService.releaseEvent(eventId);
     }
     
     // Location-based methods
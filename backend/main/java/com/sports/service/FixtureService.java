@@ -0,0 +1,611 @@
+package com.sports.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sports.dto.FixtureRequest;
+import com.sports.dto.FixtureResult;
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.enums.FixtureFormat;
+import com.sports.model.enums.MatchStatus;
+import com.sports.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Fixture Service - Generates round-robin, Swiss and single/double elimination fixtures
+ * for an event from its participants, in list order as seeding.
+ *
+ * Fixtures are built in memory and written with one bulk insert of all matches and one
+ * $push $each of their ids onto the event. Swiss generates one round per call from the
+ * results so far; the other formats generate the whole schedule. Before anything is
+ * written the event is claimed with a conditional update on its fixture format and
+ * round, so concurrent calls cannot both generate the same fixtures. Elimination byes are
+ * resolved while building, so no match is created for a side that can never be filled.
+ * With a venue, each match is booked at the first free slot from its round's time on.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FixtureService {
+
+    static final String WINNERS = "WINNERS";
+    static final String LOSERS = "LOSERS";
+    static final String GRAND_FINAL = "GRAND_FINAL";
+
+    private static final int DEFAULT_ROUND_INTERVAL_MINUTES = 60;
+
+    private final MongoTemplate mongoTemplate;
+    private final EventRepository eventRepository;
+    private final MatchListCache matchListCache;
+    private final VenueBookingService venueBookingService;
+
+    public FixtureResult generate(String eventId, FixtureRequest request) {
+        long started = System.currentTimeMillis();
+        if (request.getFormat() == null) {
+            throw new RuntimeException("Fixture format is required");
+        }
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+        boolean teams = Boolean.TRUE.equals(event.getIsTeamEvent());
+        List<String> participants = teams ? event.getParticipatingTeamIds() : event.getParticipantIds();
+        if (participants == null || participants.size() < 2) {
+            throw new RuntimeException("At least 2 participants are needed to generate fixtures");
+        }
+        if (new HashSet<>(participants).size() != participants.size()) {
+            throw new RuntimeException("Participants must not repeat");
+        }
+        if (request.getFormat() != FixtureFormat.SWISS
+                && mongoTemplate.exists(Query.query(Criteria.where("eventId").is(eventId)), Match.class)) {
+            throw new RuntimeException("Fixtures already exist for this event");
+        }
+        if (event.getFixtureFormat() != null && event.getFixtureFormat() != request.getFormat()) {
+            throw new RuntimeException("Event fixtures already use the " + event.getFixtureFormat() + " format");
+        }
+
+        Schedule schedule = new Schedule(event, teams, request);
+        long generationStarted = System.nanoTime();
+        switch (request.getFormat()) {
+            case ROUND_ROBIN -> roundRobin(schedule, participants);
+            case SWISS -> swissRound(schedule, participants);
+            case SINGLE_ELIMINATION -> elimination(schedule, participants, false);
+            case DOUBLE_ELIMINATION -> elimination(schedule, participants, true);
+        }
+        long generationMs = (System.nanoTime() - generationStarted) / 1_000_000;
+        if (schedule.matches.isEmpty()) {
+            throw new RuntimeException("No fixtures left to generate");
+        }
+
+        claim(event, request.getFormat(), schedule);
+        List<Match> booked = List.of();
+        try {
+            if (schedule.venueId != null) {
+                // Byes are already decided and never take the venue
+                booked = schedule.matches.stream()
+                        .filter(match -> match.getStatus() == MatchStatus.SCHEDULED)
+                        .toList();
+                venueBookingService.placeMatches(schedule.venueId, booked);
+            }
+            save(event, schedule.matches);
+        } catch (RuntimeException e) {
+            if (!booked.isEmpty()) {
+                venueBookingService.releaseMatches(booked.stream().map(Match::getId).toList());
+            }
+            unclaim(event, schedule);
+            throw e;
+        }
+        log.info("Generated {} {} matches for event {} in {} ms ({} ms building)", schedule.matches.size(),
+                request.getFormat(), eventId, System.currentTimeMillis() - started, generationMs);
+
+        return FixtureResult.builder()
+                .eventId(eventId)
+                .format(request.getFormat())
+                .participants(participants.size())
+                .firstRound(schedule.firstRound)
+                .lastRound(schedule.lastRound)
+                .matchesCreated(schedule.matches.size())
+                .byes(schedule.byes)
+                .generationMs(generationMs)
+                .durationMs(System.currentTimeMillis() - started)
+                .build();
+    }
+
+    /**
+     * Move the event from the fixtures this call was built on to the ones it generates.
+     * Only one of several concurrent calls can match the unchanged format and round.
+     */
+    private void claim(Event event, FixtureFormat format, Schedule schedule) {
+        Criteria unchanged = Criteria.where("id").is(event.getId());
+        if (format == FixtureFormat.SWISS) {
+            unchanged.and("fixtureFormat").in(null, FixtureFormat.SWISS)
+                    .and("fixtureRound").is(schedule.firstRound > 1 ? schedule.firstRound - 1 : null);
+        } else {
+            unchanged.and("fixtureFormat").is(null);
+        }
+        UpdateResult result = mongoTemplate.updateFirst(Query.query(unchanged),
+                new Update().set("fixtureFormat", format).set("fixtureRound", schedule.lastRound),
+                Event.class);
+        if (result.getMatchedCount() == 0) {
+            throw new RuntimeException("Fixtures for this event were generated concurrently; reload and retry");
+        }
+    }
+
+    private void unclaim(Event event, Schedule schedule) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(event.getId())
+                        .and("fixtureRound").is(schedule.lastRound)),
+                new Update().set("fixtureFormat", event.getFixtureFormat())
+                        .set("fixtureRound", event.getFixtureRound()),
+                Event.class);
+    }
+
+    private void save(Event event, List<Match> matches) {
+        mongoTemplate.insert(matches, Match.class);
+        Object[] ids = matches.stream().map(Match::getId).toArray();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(event.getId())),
+                new Update().push("matchIds").each(ids),
+                Event.class);
+        matchListCache.invalidate(MatchListCache.MatchList.UPCOMING);
+    }
+
+    // ==================== Round robin ====================
+
+    /**
+     * Circle method: one participant stays put while the others rotate, so every pair
+     * meets exactly once over n - 1 rounds (n rounds with a bye when n is odd)
+     */
+    private void roundRobin(Schedule schedule, List<String> participants) {
+        int size = participants.size() + (participants.size() % 2);
+        String[] circle = new String[size];
+        for (int i = 0; i < participants.size(); i++) {
+            circle[i] = participants.get(i);
+        }
+        for (int round = 1; round < size; round++) {
+            for (int i = 0; i < size / 2; i++) {
+                String home = circle[i];
+                String away = circle[size - 1 - i];
+                if (home == null || away == null) {
+                    schedule.byes++;
+                    continue;
+                }
+                // Alternate the fixed participant's side so it is not always at home
+                if (i == 0 && round % 2 == 0) {
+                    schedule.add(round, round, "Round " + round, null, away, home);
+                } else {
+                    schedule.add(round, round, "Round " + round, null, home, away);
+                }
+            }
+            String last = circle[size - 1];
+            System.arraycopy(circle, 1, circle, 2, size - 2);
+            circle[1] = last;
+        }
+    }
+
+    // ==================== Swiss ====================
+
+    /**
+     * Pair the next round: participants are ranked by points (then seed) and each is
+     * paired with the next-ranked participant it has not met yet. With an odd count the
+     * lowest-ranked participant without a bye gets one, recorded as a walkover win.
+     * Cancelled and abandoned matches were never played and count for nothing. Round r
+     * is planned r - 1 intervals after the start time.
+     */
+    private void swissRound(Schedule schedule, List<String> participants) {
+        int count = participants.size();
+        IdIndexMap index = new IdIndexMap(count);
+        participants.forEach(index::indexOf);
+        int[] points = new int[count]; // 2 per win, 1 per draw
+        boolean[] hadBye = new boolean[count];
+        Set<Long> played = new HashSet<>();
+        int lastRound = 0;
+
+        Query history = Query.query(Criteria.where("eventId").is(schedule.event.getId()));
+        history.fields().include("round").include("status").include("team1Id").include("team2Id")
+                .include("player1Id").include("player2Id").include("winnerTeamId").include("winnerPlayerId");
+        try (Stream<Match> matches = mongoTemplate.stream(history, Match.class)) {
+            for (Match match : (Iterable<Match>) matches::iterator) {
+                int round = match.getRound() == null ? 0 : match.getRound();
+                if (round > lastRound) {
+                    lastRound = round;
+                }
+                if (match.getStatus() == MatchStatus.CANCELLED || match.getStatus() == MatchStatus.ABANDONED) {
+                    continue;
+                }
+                if (match.getStatus() != MatchStatus.COMPLETED) {
+                    throw new RuntimeException("Round " + round + " is still in progress");
+                }
+                int side1 = indexOf(index, schedule.teams ? match.getTeam1Id() : match.getPlayer1Id());
+                int side2 = indexOf(index, schedule.teams ? match.getTeam2Id() : match.getPlayer2Id());
+                String winner = schedule.teams ? match.getWinnerTeamId() : match.getWinnerPlayerId();
+                if (side1 >= 0 && side2 < 0) {
+                    hadBye[side1] = true;
+                    points[side1] += 2;
+                    continue;
+                }
+                if (side1 < 0 || side2 < 0) {
+                    continue;
+                }
+                played.add(pairKey(side1, side2));
+                if (winner == null) {
+                    points[side1]++;
+                    points[side2]++;
+                } else {
+                    int won = index.get(winner);
+                    if (won >= 0) {
+                        points[won] += 2;
+                    }
+                }
+            }
+        }
+
+        int round = lastRound + 1;
+        schedule.firstRound = round;
+        String roundName = "Round " + round;
+        // Rank by points descending, then seed; packed so one primitive sort does it
+        long[] ranked = new long[count];
+        for (int i = 0; i < count; i++) {
+            ranked[i] = ((long) (Integer.MAX_VALUE - points[i]) << 32) | i;
+        }
+        Arrays.sort(ranked);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) ranked[i];
+        }
+
+        boolean[] paired = new boolean[count];
+        if (count % 2 == 1) {
+            int bye = order[count - 1];
+            for (int i = count - 1; i >= 0; i--) {
+                if (!hadBye[order[i]]) {
+                    bye = order[i];
+                    break;
+                }
+            }
+            paired[bye] = true;
+            schedule.addBye(round, round, roundName, index.idAt(bye));
+        }
+
+        for (int i = 0; i < count; i++) {
+            int first = order[i];
+            if (paired[first]) {
+                continue;
+            }
+            int opponent = -1;
+            int fallback = -1;
+            for (int j = i + 1; j < count; j++) {
+                int candidate = order[j];
+                if (paired[candidate]) {
+                    continue;
+                }
+                if (fallback < 0) {
+                    fallback = candidate;
+                }
+                if (!played.contains(pairKey(first, candidate))) {
+                    opponent = candidate;
+                    break;
+                }
+            }
+            // Everyone left has already met this participant; a rematch beats leaving it out
+            if (opponent < 0) {
+                opponent = fallback;
+            }
+            if (opponent < 0) {
+                break;
+            }
+            paired[first] = true;
+            paired[opponent] = true;
+            schedule.add(round, round, roundName, null, index.idAt(first), index.idAt(opponent));
+        }
+    }
+
+    private static int indexOf(IdIndexMap index, String id) {
+        return id == null ? -1 : index.get(id);
+    }
+
+    private static long pairKey(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    // ==================== Elimination ====================
+
+    /**
+     * Build the full bracket on the next power of two with standard seeding (1 v N, 2 v N-1
+     * ...), so byes go to the top seeds. Double elimination adds the losers bracket, where
+     * winners-bracket losers drop in round by round, and a grand final.
+     */
+    private void elimination(Schedule schedule, List<String> participants, boolean doubleElimination) {
+        int rounds = 32 - Integer.numberOfLeadingZeros(participants.size() - 1);
+        int bracketSize = 1 << rounds;
+        int[] seeds = seedOrder(bracketSize);
+        List<BracketMatch> order = new ArrayList<>();
+
+        // Winners bracket
+        BracketMatch[][] winners = new BracketMatch[rounds][];
+        for (int r = 0; r < rounds; r++) {
+            winners[r] = new BracketMatch[bracketSize >> (r + 1)];
+            for (int i = 0; i < winners[r].length; i++) {
+                BracketMatch match = new BracketMatch(WINNERS, r + 1, r + 1, winnersRoundName(r, rounds, doubleElimination));
+                if (r == 0) {
+                    match.sides[0] = Side.of(seeded(participants, seeds[2 * i]));
+                    match.sides[1] = Side.of(seeded(participants, seeds[2 * i + 1]));
+                } else {
+                    match.sides[0] = Side.winnerOf(winners[r - 1][2 * i]);
+                    match.sides[1] = Side.winnerOf(winners[r - 1][2 * i + 1]);
+                }
+                winners[r][i] = match;
+                order.add(match);
+            }
+        }
+
+        if (doubleElimination) {
+            Side losersChampion = Side.loserOf(winners[rounds - 1][0]);
+            BracketMatch[] previous = null;
+            int losersRound = 0;
+            for (int j = 0; rounds > 1 && j < rounds; j++) {
+                BracketMatch[] current;
+                if (j == 0) {
+                    // Winners round 1 losers play each other
+                    current = new BracketMatch[bracketSize >> 2];
+                    for (int i = 0; i < current.length; i++) {
+                        current[i] = new BracketMatch(LOSERS, losersRound + 1, losersRound + 2, "Losers Round " + (losersRound + 1));
+                        current[i].sides[0] = Side.loserOf(winners[0][2 * i]);
+                        current[i].sides[1] = Side.loserOf(winners[0][2 * i + 1]);
+                    }
+                } else {
+                    // Survivors meet the losers of the next winners round, crossed over to avoid early rematches
+                    BracketMatch[] dropping = winners[j];
+                    current = new BracketMatch[previous.length];
+                    for (int i = 0; i < current.length; i++) {
+                        current[i] = new BracketMatch(LOSERS, losersRound + 1, losersRound + 2, "Losers Round " + (losersRound + 1));
+                        current[i].sides[0] = Side.winnerOf(previous[i]);
+                        current[i].sides[1] = Side.loserOf(dropping[dropping.length - 1 - i]);
+                    }
+                    order.addAll(Arrays.asList(current));
+                    previous = current;
+                    losersRound++;
+                    if (current.length == 1) {
+                        continue;
+                    }
+                    // Then the survivors play each other
+                    current = new BracketMatch[previous.length / 2];
+                    for (int i = 0; i < current.length; i++) {
+                        current[i] = new BracketMatch(LOSERS, losersRound + 1, losersRound + 2, "Losers Round " + (losersRound + 1));
+                        current[i].sides[0] = Side.winnerOf(previous[2 * i]);
+                        current[i].sides[1] = Side.winnerOf(previous[2 * i + 1]);
+                    }
+                }
+                order.addAll(Arrays.asList(current));
+                previous = current;
+                losersRound++;
+            }
+            if (previous != null) {
+                losersChampion = Side.winnerOf(previous[0]);
+            }
+
+            int finalSlot = Math.max(rounds, losersRound + 1) + 1;
+            BracketMatch grandFinal = new BracketMatch(GRAND_FINAL, 1, finalSlot, "Grand Final");
+            grandFinal.sides[0] = Side.winnerOf(winners[rounds - 1][0]);
+            grandFinal.sides[1] = losersChampion;
+            order.add(grandFinal);
+        }
+
+        resolveByes(order, schedule);
+        for (BracketMatch match : order) {
+            if (!match.dropped) {
+                match.match = schedule.add(match.round, match.timeSlot, match.roundName, match.bracket,
+                        match.sides[0].participant, match.sides[1].participant);
+                link(match, 0);
+                link(match, 1);
+            }
+        }
+    }
+
+    /**
+     * Point the match feeding this side at it, so completion can advance in one update.
+     * Feeds come earlier in the order, so their Match already exists.
+     */
+    private static void link(BracketMatch match, int side) {
+        Side feed = match.sides[side];
+        if (feed.from == null) {
+            return;
+        }
+        Match source = feed.from.match;
+        if (feed.loser) {
+            source.setLoserNextMatchId(match.match.getId());
+            source.setLoserNextSlot(side + 1);
+        } else {
+            source.setWinnerNextMatchId(match.match.getId());
+            source.setWinnerNextSlot(side + 1);
+        }
+    }
+
+    /**
+     * Drop every match that has an empty side: its other side simply moves on. Matches
+     * are in feed order, so each one's sources are already settled when it is reached.
+     */
+    private static void resolveByes(List<BracketMatch> order, Schedule schedule) {
+        for (BracketMatch match : order) {
+            match.sides[0] = match.sides[0].settled();
+            match.sides[1] = match.sides[1].settled();
+            boolean empty0 = match.sides[0].isEmpty();
+            boolean empty1 = match.sides[1].isEmpty();
+            if (!empty0 && !empty1) {
+                continue;
+            }
+            match.dropped = true;
+            match.winnerOut = empty0 ? match.sides[1] : match.sides[0];
+            match.loserOut = Side.EMPTY;
+            if (empty0 != empty1 && match.winnerOut.participant != null) {
+                schedule.byes++;
+            }
+        }
+    }
+
+    private static String seeded(List<String> participants, int seed) {
+        return seed <= participants.size() ? participants.get(seed - 1) : null;
+    }
+
+    /**
+     * Seed at each bracket position, e.g. 1, 8, 4, 5, 2, 7, 3, 6 for eight
+     */
+    private static int[] seedOrder(int bracketSize) {
+        int[] seeds = {1};
+        while (seeds.length < bracketSize) {
+            int[] next = new int[seeds.length * 2];
+            int sum = next.length + 1;
+            for (int i = 0; i < seeds.length; i++) {
+                next[2 * i] = seeds[i];
+                next[2 * i + 1] = sum - seeds[i];
+            }
+            seeds = next;
+        }
+        return seeds;
+    }
+
+    private static String winnersRoundName(int round, int rounds, boolean doubleElimination) {
+        String prefix = doubleElimination ? "Winners " : "";
+        int remaining = rounds - round;
+        return switch (remaining) {
+            case 1 -> prefix + "Final";
+            case 2 -> prefix + "Semi-final";
+            case 3 -> prefix + "Quarter-final";
+            default -> prefix + "Round of " + (1 << remaining);
+        };
+    }
+
+    /**
+     * One side of a bracket match: a participant, the winner or loser of another match
+     * (not known yet), or empty (a bye that will never be filled)
+     */
+    private record Side(String participant, BracketMatch from, boolean loser) {
+
+        private static final Side EMPTY = new Side(null, null, false);
+
+        private static Side of(String participant) {
+            return participant == null ? EMPTY : new Side(participant, null, false);
+        }
+
+        private static Side winnerOf(BracketMatch match) {
+            return new Side(null, match, false);
+        }
+
+        private static Side loserOf(BracketMatch match) {
+            return new Side(null, match, true);
+        }
+
+        private boolean isEmpty() {
+            return participant == null && from == null;
+        }
+
+        /**
+         * Follow dropped matches to where their result really comes from
+         */
+        private Side settled() {
+            if (from == null || !from.dropped) {
+                return this;
+            }
+            return (loser ? from.loserOut : from.winnerOut).settled();
+        }
+    }
+
+    private static final class BracketMatch {
+        private final String bracket;
+        private final int round;
+        private final int timeSlot;
+        private final String roundName;
+        private final Side[] sides = new Side[2];
+        private boolean dropped;
+        private Side winnerOut;
+        private Side loserOut;
+        private Match match;
+
+        private BracketMatch(String bracket, int round, int timeSlot, String roundName) {
+            this.bracket = bracket;
+            this.round = round;
+            this.timeSlot = timeSlot;
+            this.roundName = roundName;
+        }
+    }
+
+    /**
+     * Matches being generated for one event, with their ids assigned up front
+     */
+    private static final class Schedule {
+        private final Event event;
+        private final boolean teams;
+        private final LocalDateTime startTime;
+        private final int roundIntervalMinutes;
+        private final String venueId;
+        private final List<Match> matches = new ArrayList<>();
+        private int firstRound = 1;
+        private int lastRound;
+        private int byes;
+
+        private Schedule(Event event, boolean teams, FixtureRequest request) {
+            this.event = event;
+            this.teams = teams;
+            this.startTime = request.getStartTime() != null ? request.getStartTime()
+                    : event.getStartDate() != null ? event.getStartDate() : LocalDateTime.now();
+            this.roundIntervalMinutes = request.getRoundIntervalMinutes() != null
+                    ? request.getRoundIntervalMinutes() : DEFAULT_ROUND_INTERVAL_MINUTES;
+            this.venueId = request.getVenueId() != null ? request.getVenueId() : event.getVenueId();
+        }
+
+        /**
+         * A scheduled match; timeSlot counts from 1 in round intervals after the start time
+         */
+        private Match add(int round, int timeSlot, String roundName, String bracket, String side1, String side2) {
+            Match match = Match.builder()
+                    .eventId(event.getId())
+                    .matchNumber(String.valueOf(matches.size() + 1))
+                    .venueId(venueId)
+                    .scheduledTime(startTime.plusMinutes((long) (timeSlot - 1) * roundIntervalMinutes))
+                    .status(MatchStatus.SCHEDULED)
+                    .round(round)
+                    .roundName(roundName)
+                    .bracket(bracket)
+                    .build();
+            match.setId(new ObjectId().toHexString());
+            match.setIsActive(true);
+            // Ids are assigned up front, so auditing would treat these as updates
+            match.setCreatedAt(LocalDateTime.now());
+            if (teams) {
+                match.setTeam1Id(side1);
+                match.setTeam2Id(side2);
+            } else {
+                match.setPlayer1Id(side1);
+                match.setPlayer2Id(side2);
+            }
+            matches.add(match);
+            lastRound = Math.max(lastRound, round);
+            return match;
+        }
+
+        /**
+         * A Swiss bye, stored as a completed walkover so standings count it as a win
+         */
+        private void addBye(int round, int timeSlot, String roundName, String participant) {
+            Match bye = add(round, timeSlot, roundName + " (bye)", null, participant, null);
+            bye.setStatus(MatchStatus.COMPLETED);
+            bye.setActualEndTime(LocalDateTime.now());
+            if (teams) {
+                bye.setWinnerTeamId(participant);
+            } else {
+                bye.setWinnerPlayerId(participant);
+            }
+            byes++;
+        }
+    }
+}
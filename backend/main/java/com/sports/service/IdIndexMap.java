@@ -0,0 +1,95 @@
+package com.sports.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from entity id to a dense int index (0, 1, 2, ...).
+ * Keys and values live in flat arrays, so lookups allocate nothing and
+ * indexes can address parallel primitive arrays directly.
+ */
+final class IdIndexMap {
+
+    private String[] keys;
+    private int[] values;
+    private String[] idsByIndex;
+    private int size;
+
+    IdIndexMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new String[capacity];
+        values = new int[capacity];
+        idsByIndex = new String[Math.max(16, expectedSize)];
+    }
+
+    /**
+     * Index of the id, assigning the next free index when it is new
+     */
+    int indexOf(String id) {
+        int mask = keys.length - 1;
+        int slot = mix(id.hashCode()) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(id)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int index = size++;
+        keys[slot] = id;
+        values[slot] = index;
+        if (index == idsByIndex.length) {
+            idsByIndex = Arrays.copyOf(idsByIndex, index * 2);
+        }
+        idsByIndex[index] = id;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return index;
+    }
+
+    /**
+     * Index of the id, or -1 when it was never added
+     */
+    int get(String id) {
+        int mask = keys.length - 1;
+        int slot = mix(id.hashCode()) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(id)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    String idAt(int index) {
+        return idsByIndex[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = mix(oldKeys[i].hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
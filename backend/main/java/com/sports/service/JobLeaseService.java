@@ -0,0 +1,295 @@
+package com.sports.service;
+
+import com.sports.model.entity.JobLease;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Job Lease Service - Mongo-backed leases that keep {@link LeaderOnly} jobs to one
+ * node at a time. Leases expire unless the holder renews them, and each
+ * acquisition hands out a higher fencing token than the last.
+ *
+ * A leader that stalls past its expiry (GC pause, partition) keeps running until it
+ * checks. Jobs call {@link #holds} right before each write; what a stalled leader had
+ * already sent before its check can still land, so leased writes must be idempotent or
+ * tagged with the token and cleaned up by the successor.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobLeaseService {
+
+    private static final ThreadLocal<Lease> CURRENT = new ThreadLocal<>();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${cluster.node-id:}")
+    private String configuredNodeId;
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private String nodeId;
+    private ScheduledExecutorService heartbeats;
+    private ExecutorService takeovers;
+
+    @PostConstruct
+    void start() {
+        // The random suffix keeps several application contexts in one JVM apart
+        nodeId = StringUtils.isNotBlank(configuredNodeId) ? configuredNodeId
+                : ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        heartbeats = Executors.newSingleThreadScheduledExecutor(task -> daemon(task, "lease-heartbeat"));
+        takeovers = Executors.newCachedThreadPool(task -> daemon(task, "lease-takeover"));
+        log.info("Job leases owned as node {}", nodeId);
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeats.shutdownNow();
+        takeovers.shutdownNow();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Lease held by the current thread while it runs a {@link LeaderOnly} job, or null
+     */
+    public static Lease currentLease() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a task only if this node can acquire the lease, renewing it until the task returns
+     *
+     * @return the task's result, or null when another node holds the lease
+     */
+    public Object runAsLeader(LeaderOnly settings, LeasedTask task) throws Throwable {
+        Lease lease = tryAcquire(settings.value(), settings.leaseSeconds());
+        if (lease == null) {
+            log.debug("Skipping {}: lease held by another node", settings.value());
+            return null;
+        }
+
+        Lease outer = CURRENT.get();
+        CURRENT.set(lease);
+        try {
+            return task.run();
+        } finally {
+            CURRENT.set(outer);
+            release(lease, settings.holdAfterCompletionSeconds());
+        }
+    }
+
+    /**
+     * Check with Mongo that the lease still carries this node's fencing token
+     *
+     * @return false once another node has acquired the lease; the lease stays lost
+     */
+    public boolean holds(Lease lease) {
+        if (lease.lost) {
+            return false;
+        }
+        if (mongoTemplate.exists(ownedBy(lease), JobLease.class)) {
+            return true;
+        }
+        lease.lost = true;
+        lease.heartbeat.cancel(false);
+        log.warn("Lease {} (token {}) was taken over by another node", lease.name, lease.token);
+        return false;
+    }
+
+    /**
+     * Remember how to re-run a job so this node can take it over from a dead leader
+     */
+    public void register(LeaderOnly settings, ProxyMethodInvocation invocation) {
+        registrations.putIfAbsent(settings.value(), new Registration(settings, invocation));
+    }
+
+    /**
+     * Take over jobs whose leader stopped renewing the lease before completing
+     */
+    @Scheduled(fixedDelayString = "${cluster.lease.takeover-poll-ms:15000}")
+    public void takeOverAbandonedJobs() {
+        if (registrations.isEmpty()) {
+            return;
+        }
+        Query query = Query.query(Criteria.where("id").in(registrations.keySet())
+                .and("running").is(true)
+                .and("expiresAt").lte(LocalDateTime.now()));
+
+        for (JobLease abandoned : mongoTemplate.find(query, JobLease.class)) {
+            Registration registration = registrations.get(abandoned.getId());
+            if (registration == null || !registration.inFlight.compareAndSet(false, true)) {
+                continue;
+            }
+            takeovers.execute(() -> {
+                try {
+                    log.warn("Lease {} abandoned by {} (token {}), taking over",
+                            abandoned.getId(), abandoned.getOwner(), abandoned.getFencingToken());
+                    runAsLeader(registration.settings, () -> registration.invocation.invocableClone().proceed());
+                } catch (Throwable e) {
+                    log.error("Take-over of {} failed", abandoned.getId(), e);
+                } finally {
+                    registration.inFlight.set(false);
+                }
+            });
+        }
+    }
+
+    private Lease tryAcquire(String name, long leaseSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("id").is(name).and("expiresAt").lte(now));
+        Update update = new Update()
+                .set("owner", nodeId)
+                .set("running", true)
+                .set("acquiredAt", now)
+                .set("heartbeatAt", now)
+                .set("expiresAt", now.plusSeconds(leaseSeconds))
+                .inc("fencingToken", 1)
+                .setOnInsert("isActive", true);
+
+        JobLease acquired;
+        try {
+            acquired = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class);
+        } catch (DuplicateKeyException e) {
+            // The lease exists and has not expired
+            return null;
+        }
+        if (acquired == null) {
+            return null;
+        }
+
+        Lease lease = new Lease(name, acquired.getFencingToken(), acquired.getCompletedToken(), now);
+        long renewEveryMs = Math.max(1000, leaseSeconds * 1000 / 3);
+        lease.heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> renew(lease, leaseSeconds), renewEveryMs, renewEveryMs, TimeUnit.MILLISECONDS);
+        log.info("Acquired lease {} with fencing token {}", name, lease.token);
+        return lease;
+    }
+
+    private void renew(Lease lease, long leaseSeconds) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long matched = mongoTemplate.updateFirst(ownedBy(lease),
+                    new Update().set("heartbeatAt", now).set("expiresAt", now.plusSeconds(leaseSeconds)),
+                    JobLease.class).getMatchedCount();
+            if (matched == 0) {
+                lease.lost = true;
+                lease.heartbeat.cancel(false);
+                log.warn("Lease {} (token {}) was taken over by another node", lease.name, lease.token);
+            }
+        } catch (Exception e) {
+            // Keep trying until the lease expires; another node takes over after that
+            log.warn("Could not renew lease {}: {}", lease.name, e.getMessage());
+        }
+    }
+
+    private void release(Lease lease, long holdAfterCompletionSeconds) {
+        lease.heartbeat.cancel(false);
+        if (lease.lost) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime holdUntil = lease.acquiredAt.plusSeconds(holdAfterCompletionSeconds);
+        mongoTemplate.updateFirst(ownedBy(lease), new Update()
+                .set("running", false)
+                .set("completedAt", now)
+                .set("completedToken", lease.token)
+                .set("expiresAt", holdUntil.isAfter(now) ? holdUntil : now), JobLease.class);
+    }
+
+    private Query ownedBy(Lease lease) {
+        return Query.query(Criteria.where("id").is(lease.name)
+                .and("owner").is(nodeId)
+                .and("fencingToken").is(lease.token));
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Body of a leased job
+     */
+    @FunctionalInterface
+    public interface LeasedTask {
+        Object run() throws Throwable;
+    }
+
+    /**
+     * A lease held by this node; lost once another node acquired it with a higher token
+     */
+    public static final class Lease {
+        private final String name;
+        private final long token;
+        private final long completedToken;
+        private final LocalDateTime acquiredAt;
+        private volatile boolean lost;
+        private volatile ScheduledFuture<?> heartbeat;
+
+        private Lease(String name, long token, Long completedToken, LocalDateTime acquiredAt) {
+            this.name = name;
+            this.token = token;
+            this.completedToken = completedToken == null ? 0 : completedToken;
+            this.acquiredAt = acquiredAt;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getFencingToken() {
+            return token;
+        }
+
+        /**
+         * Token of the last run of this job that finished; runs with tokens above it and
+         * below this lease's were abandoned by their leader
+         */
+        public long getCompletedToken() {
+            return completedToken;
+        }
+
+        public boolean isTakeOver() {
+            return completedToken < token - 1;
+        }
+
+        public boolean isLost() {
+            return lost;
+        }
+    }
+
+    private record Registration(LeaderOnly settings, ProxyMethodInvocation invocation, AtomicBoolean inFlight) {
+        private Registration(LeaderOnly settings, ProxyMethodInvocation invocation) {
+            this(settings, invocation, new AtomicBoolean());
+        }
+    }
+}
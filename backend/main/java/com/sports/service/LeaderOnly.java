@@ -0,0 +1,41 @@
+package com.sports.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a scheduled method on one node of the cluster only.
+ *
+ * The node that acquires the job's lease runs the method and renews the lease
+ * while it runs; the others skip it. If the leader stops renewing before the
+ * method completes, another node that has fired the same job takes it over.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LeaderOnly {
+
+    /**
+     * Lease name, unique per job
+     */
+    String value();
+
+    /**
+     * How long the lease survives without a heartbeat
+     */
+    long leaseSeconds() default 60;
+
+    /**
+     * Minimum time the lease is kept after completion, so nodes firing a little
+     * later (clock skew) do not run the same occurrence again
+     */
+    long holdAfterCompletionSeconds() default 300;
+
+    /**
+     * Whether another node re-runs the job when the leader dies mid-run
+     */
+    boolean takeOver() default true;
+}
@@ -0,0 +1,280 @@
+package com.sports.service;
+
+import com.sports.dto.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Leaderboard Index - Order-statistic skip list over entity ratings.
+ *
+ * Entries are ordered by rating (descending) and then id, and every forward
+ * link stores how many entries it skips, so rank-of, entry-at-rank and paging
+ * all run in O(log n). Reads share a read lock; rating changes take the write lock.
+ */
+public class LeaderboardIndex {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int level = 1;
+    private int length;
+
+    /**
+     * Insert an entity or move it to its new rating
+     */
+    public void put(String id, double rating) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodes.get(id);
+            if (existing != null) {
+                if (existing.rating == rating) {
+                    return;
+                }
+                nodes.remove(id);
+                unlink(existing);
+            }
+            nodes.put(id, insert(id, rating));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodes.remove(id);
+            if (existing != null) {
+                unlink(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            for (int i = 0; i < MAX_LEVEL; i++) {
+                head.next[i] = null;
+                head.span[i] = 0;
+            }
+            level = 1;
+            length = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 1-based rank of an entity, or -1 when it is not indexed
+     */
+    public int rankOf(String id) {
+        lock.readLock().lock();
+        try {
+            Node target = nodes.get(id);
+            return target == null ? -1 : rankOf(target);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LeaderboardEntry entryOf(String id) {
+        lock.readLock().lock();
+        try {
+            Node target = nodes.get(id);
+            return target == null ? null : new LeaderboardEntry(rankOf(target), target.id, target.rating);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entries ranked offset + 1 .. offset + limit
+     */
+    public List<LeaderboardEntry> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (offset < 0 || limit <= 0 || offset >= length) {
+                return Collections.emptyList();
+            }
+            Node node = nodeAt(offset + 1);
+            int count = Math.min(limit, length - offset);
+            List<LeaderboardEntry> entries = new ArrayList<>(count);
+            for (int rank = offset + 1; node != null && entries.size() < count; rank++) {
+                entries.add(new LeaderboardEntry(rank, node.id, node.rating));
+                node = node.next[0];
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The entity and up to {@code window} entries ranked directly above and below it,
+     * found in O(log n + window) regardless of the entity's position
+     */
+    public List<LeaderboardEntry> around(String id, int window) {
+        lock.readLock().lock();
+        try {
+            Node target = nodes.get(id);
+            if (target == null) {
+                return Collections.emptyList();
+            }
+            int rank = rankOf(target);
+            int first = Math.max(1, rank - window);
+            int last = Math.min(length, rank + window);
+            List<LeaderboardEntry> entries = new ArrayList<>(last - first + 1);
+            Node node = nodeAt(first);
+            for (int r = first; node != null && r <= last; r++) {
+                entries.add(new LeaderboardEntry(r, node.id, node.rating));
+                node = node.next[0];
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== Skip list internals ====================
+
+    private Node insert(String id, double rating) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && precedes(x.next[i], rating, id)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = length;
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(id, rating, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        length++;
+        return node;
+    }
+
+    private void unlink(Node target) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i] != target && precedes(x.next[i], target.rating, target.id)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+
+    private int rankOf(Node target) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == target || precedes(x.next[i], target.rating, target.id))) {
+                rank += x.span[i];
+                x = x.next[i];
+                if (x == target) {
+                    return rank;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private Node nodeAt(int rank) {
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * True when the node ranks ahead of (rating, id): higher rating first, then lower id
+     */
+    private static boolean precedes(Node node, double rating, String id) {
+        int byRating = Double.compare(node.rating, rating);
+        return byRating > 0 || (byRating == 0 && node.id.compareTo(id) < 0);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        private final String id;
+        private final double rating;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(String id, double rating, int level) {
+            this.id = id;
+            this.rating = rating;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.sports.service;
+
+import com.sports.dto.LeaderboardEntry;
+import com.sports.model.entity.PlayerProfile;
+import com.sports.model.entity.Team;
+import com.sports.model.enums.SportType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Leaderboard Service - Live in-memory leaderboards per sport for players and teams.
+ *
+ * Indexes are built once at startup from the stored ratings and then kept in step
+ * with every rating change, so rank lookups never wait for the nightly batch.
+ *
+ * The indexes are per node. After startup a node only sees the rating changes it
+ * makes itself: its own saves (AfterSaveEvent) and the rating services' direct
+ * updates. A change made on another node reaches this node's index only at its
+ * next rebuild (restart or rating replay). Until then, live ranks and pages can
+ * differ between nodes behind the load balancer. The stored ratings and the nightly
+ * Ranking rows stay the authoritative order.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<SportType, LeaderboardIndex> playerIndexes = createIndexes();
+    private final Map<SportType, LeaderboardIndex> teamIndexes = createIndexes();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Build every index from PlayerProfile and Team ratings once the app is up
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        playerIndexes.values().forEach(LeaderboardIndex::clear);
+        teamIndexes.values().forEach(LeaderboardIndex::clear);
+
+        Query playerQuery = new Query();
+        playerQuery.fields().include("sportType").include("rating");
+        try (Stream<PlayerProfile> players = mongoTemplate.stream(playerQuery, PlayerProfile.class)) {
+            players.forEach(player -> updatePlayer(player.getSportType(), player.getId(), player.getRating()));
+        }
+
+        Query teamQuery = new Query();
+        teamQuery.fields().include("sportType").include("rating");
+        try (Stream<Team> teams = mongoTemplate.stream(teamQuery, Team.class)) {
+            teams.forEach(team -> updateTeam(team.getSportType(), team.getId(), team.getRating()));
+        }
+
+        ready = true;
+        log.info("Leaderboards built in {} ms", System.currentTimeMillis() - started);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void updatePlayer(SportType sportType, String playerProfileId, Double rating) {
+        if (sportType != null && playerProfileId != null) {
+            playerIndexes.get(sportType).put(playerProfileId, rating == null ? 0.0 : rating);
+        }
+    }
+
+    public void updateTeam(SportType sportType, String teamId, Double rating) {
+        if (sportType != null && teamId != null) {
+            teamIndexes.get(sportType).put(teamId, rating == null ? 0.0 : rating);
+        }
+    }
+
+    public LeaderboardIndex index(String category, SportType sportType) {
+        return "TEAM".equalsIgnoreCase(category) ? teamIndexes.get(sportType) : playerIndexes.get(sportType);
+    }
+
+    public LeaderboardEntry getEntry(String category, SportType sportType, String entityId) {
+        return index(category, sportType).entryOf(entityId);
+    }
+
+    public List<LeaderboardEntry> getPage(String category, SportType sportType, int offset, int limit) {
+        if (!ready) {
+            return Collections.emptyList();
+        }
+        return index(category, sportType).page(offset, limit);
+    }
+
+    public List<LeaderboardEntry> getAround(String category, SportType sportType, String entityId, int window) {
+        if (!ready) {
+            return Collections.emptyList();
+        }
+        return index(category, sportType).around(entityId, window);
+    }
+    
+    /**
+     * Keep indexes in step with every PlayerProfile/Team save
+     */
+    @EventListener
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        if (event.getSource() instanceof PlayerProfile player) {
+            updatePlayer(player.getSportType(), player.getId(), player.getRating());
+        } else if (event.getSource() instanceof Team team) {
+            updateTeam(team.getSportType(), team.getId(), team.getRating());
+        }
+    }
+
+    @EventListener
+    public void onAfterDelete(AfterDeleteEvent<?> event) {
+        Object id = event.getSource().get("_id");
+        if (!(id instanceof String || id instanceof ObjectId)) {
+            return;
+        }
+        String entityId = id.toString();
+        Map<SportType, LeaderboardIndex> indexes = PlayerProfile.class.equals(event.getType()) ? playerIndexes
+                : Team.class.equals(event.getType()) ? teamIndexes : null;
+        if (indexes != null) {
+            indexes.values().forEach(index -> index.remove(entityId));
+        }
+    }
+
+    private static Map<SportType, LeaderboardIndex> createIndexes() {
+        Map<SportType, LeaderboardIndex> indexes = new EnumMap<>(SportType.class);
+        for (SportType sportType : SportType.values()) {
+            indexes.put(sportType, new LeaderboardIndex());
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,496 @@
+package com.sports.service;
+
+import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchEvent;
+import com.sports.model.enums.MatchStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Live Match Service - Holds in-play matches in memory, each owned by a single writer.
+ *
+ * Every live match has a mailbox; score updates and stored match events are applied by
+ * whichever pool thread drains it, one command at a time, so concurrent scorers never
+ * lose updates and no command waits on the database. After each command an immutable
+ * copy is published for reads. Snapshots go to the Match document on an interval and
+ * right after status transitions.
+ *
+ * Each node holds every in-play match. On a short interval every node re-reads the
+ * in-play documents: matches started on another node are registered, matches completed
+ * elsewhere are dropped, and score or status changes persisted by another node are
+ * taken over by matches without unpersisted changes of their own. Lists and reads on
+ * any node therefore trail the other nodes by at most snapshot-ms plus sync-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveMatchService {
+
+    private static final int DRAIN_LIMIT = 256;
+
+    private final MongoTemplate mongoTemplate;
+    private final MatchUpdateBroadcaster broadcaster;
+    private final MatchListCache matchListCache;
+
+    @Value("${live.state.enabled:true}")
+    private boolean enabled;
+
+    @Value("${live.state.workers:0}")
+    private int workers;
+
+    @Value("${live.state.snapshot-ms:1000}")
+    private long snapshotMs;
+
+    @Value("${live.state.command-timeout-ms:2000}")
+    private long commandTimeoutMs;
+
+    @Value("${live.state.sync-ms:2000}")
+    private long syncMs;
+
+    private final Map<String, LiveMatch> matches = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    private ExecutorService mailboxExecutor;
+    private ScheduledExecutorService snapshotExecutor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        mailboxExecutor = Executors.newFixedThreadPool(poolSize, task -> daemon(task, "live-match-" + threads.incrementAndGet()));
+        // One snapshot thread keeps the writes of a match in version order
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(task -> daemon(task, "live-match-snapshot"));
+        snapshotExecutor.scheduleWithFixedDelay(this::snapshotDirty, snapshotMs, snapshotMs, TimeUnit.MILLISECONDS);
+        snapshotExecutor.scheduleWithFixedDelay(this::syncWithDatabase, syncMs, syncMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        snapshotExecutor.submit(this::snapshotDirty);
+        snapshotExecutor.shutdown();
+        snapshotExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        mailboxExecutor.shutdownNow();
+    }
+
+    /**
+     * Load matches that were in play when the application stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLiveMatches() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Query query = Query.query(Criteria.where("isLive").is(true));
+            mongoTemplate.find(query, Match.class).forEach(this::register);
+            loaded = true;
+            log.info("Loaded {} live matches into memory", matches.size());
+        } catch (Exception e) {
+            // Live lists keep coming from the database until the next restart
+            log.warn("Could not load live matches into memory: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * True once reads of live matches can be served from memory
+     */
+    public boolean isServingReads() {
+        return enabled && loaded;
+    }
+
+    public void register(Match match) {
+        if (enabled && Boolean.TRUE.equals(match.getIsLive())) {
+            matches.computeIfAbsent(match.getId(), id -> new LiveMatch(match));
+        }
+    }
+
+    public Optional<Match> find(String matchId) {
+        LiveMatch live = matches.get(matchId);
+        return live == null ? Optional.empty() : Optional.of(live.published.match);
+    }
+
+    public List<Match> getLiveMatches() {
+        List<Match> live = new ArrayList<>(matches.size());
+        matches.values().forEach(match -> live.add(match.published.match));
+        live.sort(Comparator.comparing((Match match) -> match.getTotalViewers() == null ? 0 : match.getTotalViewers()).reversed());
+        return live;
+    }
+
+    /**
+     * Apply a score in memory when the match is live here
+     *
+     * @return the updated match, or empty when the caller should update the database
+     */
+    public Optional<Match> updateScore(String matchId, Integer team1Score, Integer team2Score) {
+        LiveMatch live = matches.get(matchId);
+        if (live == null) {
+            return Optional.empty();
+        }
+        return await(live.ask(state -> {
+            state.working.setTeam1Score(team1Score);
+            state.working.setTeam2Score(team2Score);
+            state.publish(false);
+            broadcaster.scoreChanged(state.published.match);
+            return state.published.match;
+        }));
+    }
+
+    /**
+     * Take a match out of memory before it is completed, writing its final state first
+     *
+     * @return the final in-memory state, or empty when the match was not live here
+     */
+    public Optional<Match> retire(String matchId) {
+        LiveMatch live = matches.get(matchId);
+        if (live == null) {
+            return Optional.empty();
+        }
+        Optional<Match> last = await(live.ask(state -> {
+            state.retired = true;
+            return state.published.match;
+        }));
+        try {
+            snapshotExecutor.submit(() -> persist(List.of(live))).get(commandTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Final snapshot of match {} failed: {}", matchId, e.getMessage());
+        }
+        matches.remove(matchId, live);
+        return last;
+    }
+
+    /**
+     * Apply stored timeline events to the matches that are live here
+     */
+    @EventListener
+    public void onMatchEventsStored(MatchEventsStoredEvent stored) {
+        for (MatchEvent event : stored.events()) {
+            LiveMatch live = matches.get(event.getMatchId());
+            if (live != null) {
+                live.post(state -> {
+                    state.apply(event);
+                    return null;
+                });
+            }
+        }
+    }
+
+    private Optional<Match> await(CompletableFuture<Match> result) {
+        try {
+            return Optional.ofNullable(result.get(commandTimeoutMs, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while updating live match");
+        } catch (Exception e) {
+            throw new RuntimeException("Live match update failed: " + e.getMessage());
+        }
+    }
+
+    private void snapshotDirty() {
+        List<LiveMatch> dirty = matches.values().stream()
+                .filter(live -> live.published.version > live.persistedVersion)
+                .toList();
+        if (!dirty.isEmpty()) {
+            persist(dirty);
+        }
+    }
+
+    /**
+     * Reconcile memory with the in-play documents, which every node snapshots to. Viewer
+     * counts are flushed to the documents by every node as well, so the live list also
+     * orders by current figures.
+     */
+    private void syncWithDatabase() {
+        if (!isServingReads()) {
+            return;
+        }
+        // Persisted versions before the read: a match whose state was all written by then
+        // can take the document's state over without losing anything of its own
+        Map<String, Long> persistedBefore = new HashMap<>();
+        matches.forEach((id, live) -> persistedBefore.put(id, live.persistedVersion));
+        List<Match> inPlay;
+        try {
+            inPlay = mongoTemplate.find(Query.query(Criteria.where("isLive").is(true)), Match.class);
+        } catch (Exception e) {
+            log.warn("Could not sync live matches with the database: {}", e.getMessage());
+            return;
+        }
+
+        boolean listChanged = false;
+        Set<String> live = new HashSet<>();
+        for (Match stored : inPlay) {
+            live.add(stored.getId());
+            LiveMatch local = matches.get(stored.getId());
+            if (local == null) {
+                // Started on another node
+                listChanged |= matches.putIfAbsent(stored.getId(), new LiveMatch(stored)) == null;
+                continue;
+            }
+            Long persisted = persistedBefore.get(stored.getId());
+            local.post(state -> {
+                state.takeOver(stored, persisted);
+                return null;
+            });
+        }
+        // Completed on another node; only matches known before the read, so one registered meanwhile stays
+        for (String matchId : persistedBefore.keySet()) {
+            LiveMatch local = matches.get(matchId);
+            if (!live.contains(matchId) && local != null && matches.remove(matchId, local)) {
+                local.post(state -> {
+                    state.retired = true;
+                    return null;
+                });
+                listChanged = true;
+            }
+        }
+        if (listChanged) {
+            matchListCache.invalidate(MatchListCache.MatchList.LIVE);
+        }
+    }
+
+    // Runs on the snapshot thread only
+    private void persist(List<LiveMatch> lives) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Match.class);
+        List<Published> written = new ArrayList<>(lives.size());
+        for (LiveMatch live : lives) {
+            Published published = live.published;
+            if (published.version <= live.persistedVersion) {
+                written.add(null);
+                continue;
+            }
+            Match match = published.match;
+            // Only in-play documents, so a late snapshot never reverts a completed match
+            ops.updateOne(Query.query(Criteria.where("id").is(match.getId()).and("isLive").is(true)), new Update()
+                    .set("team1Score", match.getTeam1Score())
+                    .set("team2Score", match.getTeam2Score())
+                    .set("status", match.getStatus())
+                    .set("updatedAt", LocalDateTime.now()));
+            written.add(published);
+        }
+        if (written.stream().allMatch(published -> published == null)) {
+            return;
+        }
+        try {
+            ops.execute();
+            for (int i = 0; i < lives.size(); i++) {
+                if (written.get(i) != null) {
+                    lives.get(i).persistedVersion = written.get(i).version;
+                }
+            }
+        } catch (Exception e) {
+            // Still dirty, so the next interval retries
+            log.warn("Live match snapshot of {} matches failed: {}", lives.size(), e.getMessage());
+        }
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static Match copyOf(Match match) {
+        Match copy = new Match();
+        BeanUtils.copyProperties(match, copy);
+        return copy;
+    }
+
+    private record Published(Match match, long version) {
+    }
+
+    /**
+     * One in-play match: a mailbox plus the state only its drainer touches
+     */
+    private final class LiveMatch implements Runnable {
+        private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Owned by the thread draining the mailbox
+        private final Match working;
+        private long version;
+        private long lastEventSequence;
+        private boolean retired;
+
+        private volatile Published published;
+        private volatile long persistedVersion;
+
+        private LiveMatch(Match match) {
+            working = copyOf(match);
+            published = new Published(copyOf(match), 0);
+        }
+
+        private <T> CompletableFuture<T> ask(Function<LiveMatch, T> command) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            mailbox.add(() -> {
+                if (retired) {
+                    // Completed meanwhile; the caller falls back to the database
+                    result.complete(null);
+                    return;
+                }
+                try {
+                    result.complete(command.apply(this));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            schedule();
+            return result;
+        }
+
+        private void post(Function<LiveMatch, ?> command) {
+            ask(command).whenComplete((ignored, e) -> {
+                if (e != null) {
+                    log.warn("Live match {} command failed: {}", working.getId(), e.getMessage());
+                }
+            });
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                mailboxExecutor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < DRAIN_LIMIT; i++) {
+                Runnable command = mailbox.poll();
+                if (command == null) {
+                    break;
+                }
+                command.run();
+            }
+            scheduled.set(false);
+            // Re-arm if commands arrived after the last poll or the drain limit was hit
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void publish(boolean transition) {
+            published = new Published(copyOf(working), ++version);
+            matchListCache.invalidate(MatchListCache.MatchList.LIVE);
+            if (transition) {
+                snapshotExecutor.execute(() -> persist(List.of(this)));
+            }
+        }
+
+        /**
+         * Take over viewer counts, and the score and status as well when everything this node
+         * changed was persisted before the document was read (another node may have moved
+         * them since). Nothing here is ours to snapshot, so the version stays.
+         */
+        private void takeOver(Match stored, Long persistedBefore) {
+            boolean changed = !Objects.equals(stored.getTotalViewers(), working.getTotalViewers())
+                    || !Objects.equals(stored.getCurrentViewers(), working.getCurrentViewers());
+            working.setTotalViewers(stored.getTotalViewers());
+            working.setCurrentViewers(stored.getCurrentViewers());
+
+            boolean settled = persistedBefore != null && version == persistedBefore;
+            boolean moved = !Objects.equals(stored.getTeam1Score(), working.getTeam1Score())
+                    || !Objects.equals(stored.getTeam2Score(), working.getTeam2Score())
+                    || stored.getStatus() != working.getStatus();
+            if (settled && moved) {
+                working.setTeam1Score(stored.getTeam1Score());
+                working.setTeam2Score(stored.getTeam2Score());
+                working.setStatus(stored.getStatus());
+                changed = true;
+            }
+            if (changed) {
+                published = new Published(copyOf(working), version);
+                matchListCache.invalidate(MatchListCache.MatchList.LIVE);
+            }
+        }
+
+        private void apply(MatchEvent event) {
+            if (event.getSequence() != null) {
+                if (event.getSequence() <= lastEventSequence) {
+                    return;
+                }
+                lastEventSequence = event.getSequence();
+            }
+
+            boolean scoreChanged = applyScore(event);
+            MatchStatus status = statusAfter(event.getEventType(), working.getStatus());
+            boolean transition = status != working.getStatus();
+            if (!scoreChanged && !transition) {
+                return;
+            }
+            working.setStatus(status);
+            publish(transition);
+            if (transition) {
+                broadcaster.statusChanged(published.match);
+            } else {
+                broadcaster.scoreChanged(published.match);
+            }
+        }
+
+        private boolean applyScore(MatchEvent event) {
+            int team1 = working.getTeam1Score() == null ? 0 : working.getTeam1Score();
+            int team2 = working.getTeam2Score() == null ? 0 : working.getTeam2Score();
+            if (event.getHomeScoreAfter() != null && event.getAwayScoreAfter() != null) {
+                team1 = event.getHomeScoreAfter();
+                team2 = event.getAwayScoreAfter();
+            } else if (event.getEventType() == MatchEvent.EventType.GOAL) {
+                Boolean home = MatchSides.isHome(event, working.getTeam1Id());
+                if (home == null) {
+                    return false;
+                }
+                // An own goal counts for the other side
+                if (home != Boolean.TRUE.equals(event.getIsOwnGoal())) {
+                    team1++;
+                } else {
+                    team2++;
+                }
+            } else {
+                return false;
+            }
+            boolean changed = working.getTeam1Score() == null || working.getTeam1Score() != team1
+                    || working.getTeam2Score() == null || working.getTeam2Score() != team2;
+            working.setTeam1Score(team1);
+            working.setTeam2Score(team2);
+            return changed;
+        }
+
+        private MatchStatus statusAfter(MatchEvent.EventType type, MatchStatus current) {
+            return switch (type) {
+                case HALF_TIME -> MatchStatus.HALF_TIME;
+                case FULL_TIME -> MatchStatus.FULL_TIME;
+                case KICK_OFF, EXTRA_TIME_START, PENALTY_SHOOTOUT -> MatchStatus.LIVE;
+                default -> current;
+            };
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.sports.service;
+
+import com.sports.dto.CommentaryPage;
+import com.sports.model.entity.MatchCommentary;
+import com.sports.model.entity.MatchCommentaryBucket;
+import com.sports.repository.MatchCommentaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Match Commentary Service - Appends commentary lines to bucketed documents and pages
+ * them back newest first.
+ *
+ * A line goes into the current bucket of its match with one conditional $push upsert.
+ * When that bucket is full or older than the bucket window, the upsert tries to create
+ * the bucket again, hits the unique (match, bucket) index and the line moves on to the
+ * next bucket. Appends never read a bucket back, so their cost does not grow with the
+ * length of the match, and no document grows past the bucket size.
+ */
+@Service
+@RequiredArgsConstructor
+public class MatchCommentaryService {
+
+    private static final int MAX_ROLLOVERS = 8;
+
+    private final MongoTemplate mongoTemplate;
+    private final MatchCommentaryRepository matchCommentaryRepository;
+
+    @Value("${live.commentary.bucket-size:50}")
+    private int bucketSize;
+
+    @Value("${live.commentary.bucket-minutes:5}")
+    private long bucketMinutes;
+
+    // matchId -> bucket this node appends to; other nodes may move ahead, the index keeps them apart
+    private final Map<String, AtomicLong> currentBuckets = new ConcurrentHashMap<>();
+
+    public MatchCommentary.CommentaryEntry append(String matchId, MatchCommentary.CommentaryEntry entry) {
+        if (entry.getText() == null || entry.getText().isBlank()) {
+            throw new RuntimeException("Commentary text is required");
+        }
+        if (entry.getTimestamp() == null) {
+            entry.setTimestamp(LocalDateTime.now());
+        }
+        AtomicLong current = currentBuckets.computeIfAbsent(matchId, id -> new AtomicLong(newestBucket(id)));
+
+        for (int attempt = 0; attempt < MAX_ROLLOVERS; attempt++) {
+            long bucket = current.get();
+            LocalDateTime now = LocalDateTime.now();
+            Query open = Query.query(Criteria.where("matchId").is(matchId)
+                    .and("bucket").is(bucket)
+                    .and("count").lt(bucketSize)
+                    .and("startedAt").gt(now.minusMinutes(bucketMinutes)));
+            Update push = new Update()
+                    .push("entries", entry)
+                    .inc("count", 1)
+                    .setOnInsert("startedAt", now)
+                    .setOnInsert("isActive", true);
+            try {
+                mongoTemplate.upsert(open, push, MatchCommentaryBucket.class);
+                return entry;
+            } catch (DuplicateKeyException closed) {
+                // The bucket exists but is full or expired; other nodes may already be further on
+                long next = Math.max(bucket + 1, newestBucket(matchId));
+                current.accumulateAndGet(next, Math::max);
+            }
+        }
+        throw new RuntimeException("Could not append commentary, too many concurrent bucket rollovers");
+    }
+
+    /**
+     * Commentary lines newest first, from the given number of buckets before beforeBucket
+     * (or the newest buckets when it is null)
+     */
+    public CommentaryPage getCommentary(String matchId, Long beforeBucket, int buckets) {
+        Criteria criteria = Criteria.where("matchId").is(matchId);
+        if (beforeBucket != null) {
+            criteria.and("bucket").lt(beforeBucket);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "bucket"))
+                .limit(Math.max(1, Math.min(buckets, 20)));
+        List<MatchCommentaryBucket> page = mongoTemplate.find(query, MatchCommentaryBucket.class);
+
+        if (page.isEmpty() && beforeBucket == null) {
+            return legacyCommentary(matchId);
+        }
+        List<MatchCommentary.CommentaryEntry> entries = new ArrayList<>();
+        for (MatchCommentaryBucket bucket : page) {
+            List<MatchCommentary.CommentaryEntry> lines = new ArrayList<>(bucket.getEntries());
+            Collections.reverse(lines);
+            entries.addAll(lines);
+        }
+        Long oldest = page.isEmpty() ? null : page.get(page.size() - 1).getBucket();
+        return CommentaryPage.builder()
+                .matchId(matchId)
+                .entries(entries)
+                .nextBefore(oldest == null || oldest == 0 ? null : oldest)
+                .build();
+    }
+
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent completed) {
+        currentBuckets.remove(completed.match().getId());
+    }
+
+    private long newestBucket(String matchId) {
+        Query newest = Query.query(Criteria.where("matchId").is(matchId))
+                .with(Sort.by(Sort.Direction.DESC, "bucket"))
+                .limit(1);
+        newest.fields().include("bucket");
+        MatchCommentaryBucket bucket = mongoTemplate.findOne(newest, MatchCommentaryBucket.class);
+        return bucket == null ? 0 : bucket.getBucket();
+    }
+
+    /**
+     * Matches commented before bucketing keep their lines in the embedded list
+     */
+    private CommentaryPage legacyCommentary(String matchId) {
+        List<MatchCommentary.CommentaryEntry> entries = matchCommentaryRepository.findByMatchId(matchId)
+                .filter(commentary -> commentary.getCommentaryEntries() != null)
+                .map(commentary -> new ArrayList<>(commentary.getCommentaryEntries()))
+                .orElseGet(ArrayList::new);
+        Collections.reverse(entries);
+        return CommentaryPage.builder()
+                .matchId(matchId)
+                .entries(entries)
+                .build();
+    }
+}
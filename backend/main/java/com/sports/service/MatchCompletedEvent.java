@@ -0,0 +1,9 @@
+package com.sports.service;
+
+import com.sports.model.entity.Match;
+
+/**
+ * Application event published once a match has been completed and its winner decided
+ */
+public record MatchCompletedEvent(Match match) {
+}
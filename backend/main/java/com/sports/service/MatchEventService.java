@@ -0,0 +1,388 @@
+package com.sports.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.sports.dto.MatchEventAck;
+import com.sports.model.entity.MatchEvent;
+import com.sports.repository.MatchEventRepository;
+import com.sports.repository.MatchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Match Event Service - Ingests match events from scorers and feeds.
+ *
+ * Events get their per-match sequence on arrival and wait in a bounded buffer; a single
+ * writer thread group-commits them to Mongo every few milliseconds or once a batch is
+ * full, and callers are answered when their batch is durable. Client event ids make
+ * retries safe. Batches are inserted in order, and a match whose event fails stores
+ * none of its later events until it is re-sequenced, so stored order is arrival order.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchEventService {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String SEQUENCE_INDEX = "match_sequence_unique_idx";
+
+    private final MongoTemplate mongoTemplate;
+    private final MatchRepository matchRepository;
+    private final MatchEventRepository matchEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${live.events.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    @Value("${live.events.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${live.events.flush-ms:5}")
+    private long flushMs;
+
+    @Value("${live.events.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+
+    @Value("${live.events.idle-evict-minutes:30}")
+    private long idleEvictMinutes;
+
+    private final Map<String, Timeline> timelines = new ConcurrentHashMap<>();
+    private BlockingQueue<Pending> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+        running = true;
+        writer = new Thread(this::writeLoop, "match-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The writer drains what is already buffered before it exits
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public MatchEventAck ingest(String matchId, MatchEvent event) {
+        return ingest(matchId, List.of(event)).get(0);
+    }
+
+    /**
+     * Append events to a match timeline in the order given and wait until they are stored
+     */
+    public List<MatchEventAck> ingest(String matchId, List<MatchEvent> events) {
+        if (events == null || events.isEmpty()) {
+            throw new RuntimeException("No events to ingest");
+        }
+        for (MatchEvent event : events) {
+            if (StringUtils.isBlank(event.getClientEventId())) {
+                throw new RuntimeException("clientEventId is required");
+            }
+            if (event.getEventType() == null) {
+                throw new RuntimeException("eventType is required");
+            }
+        }
+
+        Timeline timeline = timeline(matchId);
+        List<MatchEventAck> acks = new ArrayList<>(events.size());
+        List<Pending> enqueued = new ArrayList<>(events.size());
+
+        // Sequencing and enqueueing under one lock keeps buffer order equal to sequence order
+        synchronized (timeline) {
+            if (timeline.broken) {
+                throw new RuntimeException("Match timeline is being re-read after a failed write, retry");
+            }
+            timeline.touch();
+            for (MatchEvent event : events) {
+                Long existing = timeline.seen.get(event.getClientEventId());
+                if (existing != null) {
+                    acks.add(MatchEventAck.builder()
+                            .clientEventId(event.getClientEventId())
+                            .sequence(existing)
+                            .duplicate(true)
+                            .build());
+                    continue;
+                }
+
+                event.setId(new ObjectId().toHexString());
+                event.setMatchId(matchId);
+                event.setSequence(timeline.lastSequence + 1);
+                if (event.getEventTime() == null) {
+                    event.setEventTime(LocalDateTime.now());
+                }
+                Pending pending = new Pending(timeline, event, new CompletableFuture<>());
+                if (!buffer.offer(pending)) {
+                    // Events already buffered are still stored; a retry skips them by client id
+                    throw new RuntimeException("Event buffer is full, retry shortly");
+                }
+                timeline.lastSequence++;
+                timeline.inFlight++;
+                timeline.seen.put(event.getClientEventId(), event.getSequence());
+                enqueued.add(pending);
+                acks.add(null);
+            }
+        }
+
+        awaitCommit(enqueued);
+
+        int next = 0;
+        for (int i = 0; i < acks.size(); i++) {
+            if (acks.get(i) == null) {
+                Pending pending = enqueued.get(next++);
+                boolean inserted = pending.committed.join();
+                acks.set(i, MatchEventAck.builder()
+                        .clientEventId(pending.event.getClientEventId())
+                        .eventId(inserted ? pending.event.getId() : null)
+                        .sequence(inserted ? pending.event.getSequence() : null)
+                        .duplicate(!inserted)
+                        .build());
+            }
+        }
+        return acks;
+    }
+
+    /**
+     * Stored events of a match after the given sequence, oldest first
+     */
+    public List<MatchEvent> getEvents(String matchId, long afterSequence, int limit) {
+        return matchEventRepository.findByMatchIdAndSequenceGreaterThanOrderBySequenceAsc(
+                matchId, afterSequence, PageRequest.of(0, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * Forget the sequencing state of matches that stopped receiving events
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleTimelines() {
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleEvictMinutes);
+        timelines.values().removeIf(timeline -> {
+            synchronized (timeline) {
+                return timeline.inFlight == 0 && timeline.lastTouchedNanos - cutoff < 0;
+            }
+        });
+    }
+
+    private void awaitCommit(List<Pending> enqueued) {
+        if (enqueued.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] futures = enqueued.stream().map(Pending::committed).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Events accepted but not yet stored, retry to confirm");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Could not store events: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while storing events");
+        }
+    }
+
+    private Timeline timeline(String matchId) {
+        Timeline timeline = timelines.get(matchId);
+        if (timeline != null) {
+            return timeline;
+        }
+        if (!matchRepository.existsById(matchId)) {
+            throw new RuntimeException("Match not found");
+        }
+
+        // Seed sequence and client ids from what is stored, one projection read per match
+        Timeline seeded = new Timeline();
+        Query query = Query.query(Criteria.where("matchId").is(matchId));
+        query.fields().include("sequence").include("clientEventId");
+        try (Stream<MatchEvent> stored = mongoTemplate.stream(query, MatchEvent.class)) {
+            stored.forEach(event -> {
+                long sequence = event.getSequence() == null ? 0 : event.getSequence();
+                seeded.lastSequence = Math.max(seeded.lastSequence, sequence);
+                if (event.getClientEventId() != null) {
+                    seeded.seen.put(event.getClientEventId(), sequence);
+                }
+            });
+        }
+        Timeline existing = timelines.putIfAbsent(matchId, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Pending first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMs);
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown; the loop condition drains the rest of the buffer
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        List<MatchEvent> stored = new ArrayList<>(batch.size());
+        List<Pending> remaining = batch;
+        while (!remaining.isEmpty()) {
+            remaining = insertUntilError(remaining, stored);
+        }
+
+        if (!stored.isEmpty()) {
+            try {
+                eventPublisher.publishEvent(new MatchEventsStoredEvent(stored));
+            } catch (Exception e) {
+                log.warn("Match event listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Insert the events in buffer order with one ordered bulk, which stops at the first
+     * error. Events before it are stored, the failing one is settled, and the rest is
+     * returned for the next bulk. Once an event of a match fails, its later events are
+     * failed too, so what a match stores always follows arrival order.
+     */
+    private List<Pending> insertUntilError(List<Pending> batch, List<MatchEvent> stored) {
+        List<Pending> writable = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.timeline.broken) {
+                fail(pending, new RuntimeException("An earlier event of this match was not stored, retry"));
+            } else {
+                writable.add(pending);
+            }
+        }
+        if (writable.isEmpty()) {
+            return List.of();
+        }
+
+        BulkWriteError error = null;
+        try {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, MatchEvent.class);
+            ops.insert(writable.stream().map(Pending::event).toList());
+            ops.execute();
+        } catch (BulkOperationException e) {
+            error = e.getErrors().get(0);
+        } catch (Exception e) {
+            log.error("Could not store {} match events", writable.size(), e);
+            writable.forEach(pending -> fail(pending, e));
+            return List.of();
+        }
+
+        int failedIndex = error == null ? writable.size() : error.getIndex();
+        for (int i = 0; i < failedIndex; i++) {
+            Pending pending = writable.get(i);
+            settle(pending);
+            stored.add(pending.event);
+            pending.committed.complete(true);
+        }
+        if (error == null) {
+            return List.of();
+        }
+
+        Pending failed = writable.get(failedIndex);
+        if (isClientDuplicate(error)) {
+            // This client id was stored for the match before this node's timeline was seeded
+            settle(failed);
+            failed.committed.complete(false);
+        } else if (error.getCode() == DUPLICATE_KEY) {
+            // Another node sequenced this match meanwhile; re-seed from Mongo on the next ingest
+            fail(failed, new RuntimeException("Match timeline was extended by another writer, retry"));
+        } else {
+            fail(failed, new RuntimeException(error.getMessage()));
+        }
+        return writable.subList(failedIndex + 1, writable.size());
+    }
+
+    private static void settle(Pending pending) {
+        synchronized (pending.timeline) {
+            pending.timeline.inFlight--;
+        }
+    }
+
+    private void fail(Pending pending, Exception cause) {
+        Timeline timeline = pending.timeline;
+        synchronized (timeline) {
+            timeline.inFlight--;
+            // Let a retry with the same client id through; the sequence stays as a gap
+            timeline.seen.remove(pending.event.getClientEventId());
+            if (!timeline.broken) {
+                // Later events of the match are already sequenced after this one; they fail as well,
+                // and the next ingest re-seeds the timeline from what was stored
+                timeline.broken = true;
+                timelines.remove(pending.event.getMatchId(), timeline);
+            }
+        }
+        pending.committed.completeExceptionally(cause);
+    }
+
+    private static boolean isClientDuplicate(BulkWriteError error) {
+        return error.getCode() == DUPLICATE_KEY && !error.getMessage().contains(SEQUENCE_INDEX);
+    }
+
+    /**
+     * Sequencing state of one match, guarded by its own monitor
+     */
+    private static final class Timeline {
+        private final Map<String, Long> seen = new HashMap<>();
+        private volatile boolean broken; // an event failed; later ones are failed and the timeline re-seeded
+        private long lastSequence;
+        private int inFlight;
+        private long lastTouchedNanos = System.nanoTime();
+
+        private void touch() {
+            lastTouchedNanos = System.nanoTime();
+        }
+    }
+
+    private record Pending(Timeline timeline, MatchEvent event, CompletableFuture<Boolean> committed) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.sports.service;
+
+import com.sports.model.entity.MatchEvent;
+
+import java.util.List;
+
+/**
+ * Application event published by the match event writer after a batch is stored, in
+ * sequence order per match. Listeners run on the writer thread and must not block.
+ */
+public record MatchEventsStoredEvent(List<MatchEvent> events) {
+}
@@ -0,0 +1,172 @@
+package com.sports.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sports.dto.ApiResponse;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchListVersion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Match List Cache - Keeps the live and upcoming match lists as ready-to-send JSON bytes.
+ *
+ * A list is loaded and serialized on the first request after it was invalidated; every
+ * request after that gets the same bytes without a query or serialization. Match
+ * transitions (create, start, score, complete) invalidate the lists they change. An
+ * upcoming list also lapses when its first match's kick-off passes.
+ *
+ * Other nodes learn of a change through a shared version per list: invalidations are
+ * batched into one increment per list every version-check interval, and a cached copy
+ * is dropped once the stored version has moved past the one it was built at. Max-age
+ * remains as a backstop for when the version cannot be read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchListCache {
+
+    public enum MatchList { LIVE, UPCOMING }
+
+    private final ObjectMapper objectMapper;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${live.list-cache.max-age-ms:30000}")
+    private long maxAgeMs;
+
+    @Value("${live.list-cache.version-check-ms:1000}")
+    private long versionCheckMs;
+
+    private final Map<MatchList, Slot> slots = new EnumMap<>(Map.of(
+            MatchList.LIVE, new Slot(),
+            MatchList.UPCOMING, new Slot()));
+
+    /**
+     * The list as serialized ApiResponse JSON, loading it if it is not cached
+     */
+    public byte[] get(MatchList list, Supplier<List<Match>> loader) {
+        Slot slot = slots.get(list);
+        Cached cached = slot.cached;
+        if (cached != null && cached.isFresh() && isCurrent(list, slot, cached)) {
+            return cached.json;
+        }
+        synchronized (slot) {
+            cached = slot.cached;
+            if (cached != null && cached.isFresh() && cached.version == slot.knownVersion) {
+                return cached.json;
+            }
+            long generation = slot.generation.get();
+            // Read before loading, so a change made elsewhere during the load is caught by the next check
+            long version = readVersion(list, slot);
+            List<Match> matches = loader.get();
+            byte[] json = serialize(matches);
+            // An invalidation while loading may mean the list is already stale; serve it once but do not keep it
+            if (slot.generation.get() == generation) {
+                slot.cached = new Cached(json, expiry(list, matches), version);
+            }
+            return json;
+        }
+    }
+
+    public void invalidate(MatchList... lists) {
+        for (MatchList list : lists) {
+            Slot slot = slots.get(list);
+            slot.generation.incrementAndGet();
+            slot.cached = null;
+            slot.publishPending.set(true);
+        }
+    }
+
+    /**
+     * Bump the shared version of every list invalidated on this node since the last run
+     */
+    @Scheduled(fixedDelayString = "${live.list-cache.version-check-ms:1000}")
+    public void publishInvalidations() {
+        slots.forEach((list, slot) -> {
+            if (!slot.publishPending.getAndSet(false)) {
+                return;
+            }
+            try {
+                mongoTemplate.upsert(Query.query(Criteria.where("id").is(list.name())),
+                        new Update().inc("version", 1).setOnInsert("isActive", true), MatchListVersion.class);
+            } catch (Exception e) {
+                slot.publishPending.set(true);
+                log.warn("Could not publish the invalidation of the {} match list: {}", list, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Whether the stored version still matches the cached copy, read at most once per check interval
+     */
+    private boolean isCurrent(MatchList list, Slot slot, Cached cached) {
+        long now = System.currentTimeMillis();
+        long checkedAt = slot.checkedAt.get();
+        if (now - checkedAt >= versionCheckMs && slot.checkedAt.compareAndSet(checkedAt, now)) {
+            readVersion(list, slot);
+        }
+        return cached.version == slot.knownVersion;
+    }
+
+    private long readVersion(MatchList list, Slot slot) {
+        try {
+            MatchListVersion stored = mongoTemplate.findById(list.name(), MatchListVersion.class);
+            slot.knownVersion = stored == null || stored.getVersion() == null ? 0 : stored.getVersion();
+        } catch (Exception e) {
+            // Keep the last known version; max-age still bounds how stale the copy can get
+            log.warn("Could not read the version of the {} match list: {}", list, e.getMessage());
+        }
+        return slot.knownVersion;
+    }
+
+    private long expiry(MatchList list, List<Match> matches) {
+        long expiry = System.currentTimeMillis() + maxAgeMs;
+        if (list == MatchList.UPCOMING && !matches.isEmpty()) {
+            // Sorted by kick-off; the first one drops out of the list when it passes
+            LocalDateTime firstKickOff = matches.get(0).getScheduledTime();
+            if (firstKickOff != null) {
+                expiry = Math.min(expiry, firstKickOff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        return expiry;
+    }
+
+    private byte[] serialize(List<Match> matches) {
+        try {
+            return objectMapper.writeValueAsBytes(ApiResponse.success(matches));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize match list: " + e.getMessage());
+        }
+    }
+
+    private static final class Slot {
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicLong checkedAt = new AtomicLong();
+        private final AtomicBoolean publishPending = new AtomicBoolean();
+        private volatile long knownVersion;
+        private volatile Cached cached;
+    }
+
+    private record Cached(byte[] json, long expiresAt, long version) {
+
+        private boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+    }
+}
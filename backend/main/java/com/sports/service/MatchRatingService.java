@@ -0,0 +1,311 @@
+package com.sports.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sports.dto.LeaderboardEntry;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.PlayerProfile;
+import com.sports.model.entity.Ranking;
+import com.sports.model.entity.Team;
+import com.sports.model.enums.MatchStatus;
+import com.sports.model.enums.SportType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Match Rating Service - Applies Elo deltas as soon as a match completes.
+ *
+ * Ratings are moved with atomic $inc updates, and only the leaderboard window
+ * between each side's old and new position is re-ranked and written to history.
+ * Each match is claimed (ratingAppliedAt) before its result is applied; a failed
+ * update is marked (ratingFailedAt) and re-applied by a nightly retry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchRatingService {
+
+    private static final int WIN_POINTS = 100;
+    private static final int DRAW_POINTS = 50;
+    private static final int LOSS_POINTS = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaderboardService leaderboardService;
+    private final RankingHistoryWriter historyWriter;
+
+    private final Map<SportType, Object> sportLocks = createLocks();
+
+    @Value("${ranking.elo.k-factor:32}")
+    private double kFactor;
+
+    @Value("${ranking.rating-model:ELO}")
+    private String ratingModel;
+
+    @Async
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent event) {
+        Match match = event.match();
+        UpdateResult claimed = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(match.getId()).and("ratingAppliedAt").is(null)),
+                Update.update("ratingAppliedAt", LocalDateTime.now()), Match.class);
+        if (claimed.getModifiedCount() == 0) {
+            return;
+        }
+        applyOrMarkFailed(match);
+    }
+
+    /**
+     * Scheduled task to re-apply rating updates that failed, before the nightly ranking run
+     */
+    @LeaderOnly(value = "rating-retry", leaseSeconds = 120)
+    @Scheduled(cron = "${ranking.elo.retry-cron:0 30 1 * * *}")
+    public void retryFailedRatings() {
+        Query failed = Query.query(Criteria.where("ratingFailedAt").ne(null)
+                .and("status").is(MatchStatus.COMPLETED));
+        failed.fields().include("id");
+        int retried = 0;
+        for (Match candidate : mongoTemplate.find(failed, Match.class)) {
+            Match match = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("id").is(candidate.getId())
+                            .and("ratingFailedAt").ne(null)
+                            .and("ratingAppliedAt").is(null)),
+                    new Update().set("ratingAppliedAt", LocalDateTime.now()).unset("ratingFailedAt"),
+                    FindAndModifyOptions.options().returnNew(true),
+                    Match.class);
+            if (match != null && applyOrMarkFailed(match)) {
+                retried++;
+            }
+        }
+        if (retried > 0) {
+            log.info("Re-applied {} failed match rating updates", retried);
+        }
+    }
+
+    private boolean applyOrMarkFailed(Match match) {
+        try {
+            applyMatchResult(match);
+            return true;
+        } catch (Exception e) {
+            log.error("Rating update failed for match {}: {}", match.getId(), e.getMessage(), e);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(match.getId())),
+                    new Update().unset("ratingAppliedAt").set("ratingFailedAt", LocalDateTime.now()),
+                    Match.class);
+            return false;
+        }
+    }
+
+    /**
+     * Apply the result of a completed team or player match
+     */
+    public void applyMatchResult(Match match) {
+        if (match.getTeam1Score() == null || match.getTeam2Score() == null) {
+            return;
+        }
+        int comparison = Integer.compare(match.getTeam1Score(), match.getTeam2Score());
+        double firstScore = comparison > 0 ? 1.0 : comparison == 0 ? 0.5 : 0.0;
+
+        if (match.getTeam1Id() != null && match.getTeam2Id() != null) {
+            applyResult("TEAM", match.getTeam1Id(), match.getTeam2Id(), firstScore);
+        } else if (match.getPlayer1Id() != null && match.getPlayer2Id() != null) {
+            applyResult("PLAYER", match.getPlayer1Id(), match.getPlayer2Id(), firstScore);
+        }
+    }
+
+    /**
+     * Apply one Elo result between two players (PLAYER) or teams (TEAM)
+     *
+     * @param firstScore 1.0 when the first side won, 0.5 for a draw, 0.0 when it lost
+     */
+    public void applyResult(String category, String firstId, String secondId, double firstScore) {
+        Class<?> entityClass = entityClass(category);
+        Rated first = load(entityClass, firstId);
+        Rated second = load(entityClass, secondId);
+        if (first.sportType() != second.sportType()) {
+            throw new IllegalArgumentException("Cannot rate a result across different sports");
+        }
+        SportType sportType = first.sportType();
+
+        // Under GLICKO2 ratings move per rating period (RatingPeriodService); only the tallies move here
+        boolean elo = !"GLICKO2".equalsIgnoreCase(ratingModel);
+        double expectedFirst = 1.0 / (1.0 + Math.pow(10, (rating(second) - rating(first)) / 400.0));
+        double firstDelta = elo ? kFactor * (firstScore - expectedFirst) : 0.0;
+
+        synchronized (sportLocks.get(sportType)) {
+            LeaderboardIndex index = leaderboardService.index(category, sportType);
+            int firstOldRank = index.rankOf(firstId);
+            int secondOldRank = index.rankOf(secondId);
+
+            Double firstRating = applyDelta(entityClass, category, firstId, firstDelta, firstScore);
+            Double secondRating = applyDelta(entityClass, category, secondId, -firstDelta, 1.0 - firstScore);
+            if (!elo) {
+                return;
+            }
+            updateIndex(category, sportType, firstId, firstRating);
+            updateIndex(category, sportType, secondId, secondRating);
+
+            int lowest = min(firstOldRank, secondOldRank, index.rankOf(firstId), index.rankOf(secondId));
+            int highest = Math.max(Math.max(firstOldRank, secondOldRank),
+                    Math.max(index.rankOf(firstId), index.rankOf(secondId)));
+            writeShiftedRanks(category, sportType, index, lowest, highest, List.of(firstId, secondId));
+        }
+    }
+
+    private Double applyDelta(Class<?> entityClass, String category, String id, double delta, double score) {
+        Update update = new Update()
+                .inc("rating", delta)
+                .inc("matchesPlayed", 1)
+                .inc("totalPoints", score == 1.0 ? WIN_POINTS : score == 0.5 ? DRAW_POINTS : LOSS_POINTS);
+        if (score == 1.0) {
+            update.inc("matchesWon", 1);
+        } else if ("TEAM".equals(category)) {
+            update.inc(score == 0.5 ? "matchesDrawn" : "matchesLost", 1);
+        }
+
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("sportType").include("rating");
+        Object updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), entityClass);
+        return updated == null ? null : toRated(updated).rating();
+    }
+
+    private void updateIndex(String category, SportType sportType, String id, Double rating) {
+        if ("TEAM".equals(category)) {
+            leaderboardService.updateTeam(sportType, id, rating);
+        } else {
+            leaderboardService.updatePlayer(sportType, id, rating);
+        }
+    }
+
+    /**
+     * Persist ranks for the window [lowest, highest] (widened by one on each side)
+     * and append history rows only for entities whose stored rank moved
+     */
+    private void writeShiftedRanks(String category, SportType sportType, LeaderboardIndex index,
+                                   int lowest, int highest, List<String> participants) {
+        int from = Math.max(1, lowest - 1);
+        int to = Math.min(index.size(), highest + 1);
+        if (from > to) {
+            return;
+        }
+        List<LeaderboardEntry> window = index.page(from - 1, to - from + 1);
+        Map<String, Rated> stored = loadAll(entityClass(category),
+                window.stream().map(LeaderboardEntry::getEntityId).toList());
+
+        String rankField = rankField(category);
+        BulkOperations rankOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass(category));
+        List<Ranking> history = new ArrayList<>();
+        int pendingRankUpdates = 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        for (LeaderboardEntry entry : window) {
+            Rated current = stored.get(entry.getEntityId());
+            if (current == null) {
+                continue;
+            }
+            boolean moved = !Objects.equals(current.rank(), entry.getRank());
+            if (moved) {
+                rankOps.updateOne(Query.query(Criteria.where("id").is(entry.getEntityId())),
+                        Update.update(rankField, entry.getRank()));
+                pendingRankUpdates++;
+            }
+            if (moved || participants.contains(entry.getEntityId())) {
+                history.add(RankingService.historyRow(sportType, category, entry.getEntityId(), entry.getRank(),
+                        current.rank(), current.rating(), current.points(), now));
+            }
+        }
+
+        if (pendingRankUpdates > 0) {
+            rankOps.execute();
+        }
+        historyWriter.append(history);
+    }
+
+    private Rated load(Class<?> entityClass, String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("sportType").include("rating");
+        Object entity = mongoTemplate.findOne(query, entityClass);
+        if (entity == null) {
+            throw new RuntimeException(entityClass.getSimpleName() + " not found: " + id);
+        }
+        return toRated(entity);
+    }
+
+    private Map<String, Rated> loadAll(Class<?> entityClass, List<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("sportType").include("rating").include("totalPoints").include(rankField(entityClass));
+        Map<String, Rated> rated = new HashMap<>();
+        for (Object entity : mongoTemplate.find(query, entityClass)) {
+            Rated entry = toRated(entity);
+            rated.put(entry.id(), entry);
+        }
+        return rated;
+    }
+
+    private static Rated toRated(Object entity) {
+        if (entity instanceof Team team) {
+            return new Rated(team.getId(), team.getSportType(), team.getRating(),
+                    team.getCurrentRank(), team.getTotalPoints());
+        }
+        PlayerProfile player = (PlayerProfile) entity;
+        return new Rated(player.getId(), player.getSportType(), player.getRating(),
+                player.getGlobalRank(), player.getTotalPoints());
+    }
+
+    private static Class<?> entityClass(String category) {
+        return "TEAM".equals(category) ? Team.class : PlayerProfile.class;
+    }
+
+    private static String rankField(String category) {
+        return "TEAM".equals(category) ? "currentRank" : "globalRank";
+    }
+
+    private static String rankField(Class<?> entityClass) {
+        return Team.class.equals(entityClass) ? "currentRank" : "globalRank";
+    }
+
+    private static double rating(Rated rated) {
+        return rated.rating() == null ? 0.0 : rated.rating();
+    }
+
+    private static int min(int... ranks) {
+        int lowest = Integer.MAX_VALUE;
+        for (int rank : ranks) {
+            if (rank > 0) {
+                lowest = Math.min(lowest, rank);
+            }
+        }
+        return lowest;
+    }
+
+    private static Map<SportType, Object> createLocks() {
+        Map<SportType, Object> locks = new EnumMap<>(SportType.class);
+        for (SportType sportType : SportType.values()) {
+            locks.put(sportType, new Object());
+        }
+        return locks;
+    }
+
+    /**
+     * Rating-relevant projection of a player profile or team
+     */
+    private record Rated(String id, SportType sportType, Double rating, Integer rank, Integer points) {
+    }
+}
@@ -5,13 +5,20 @@ import com.sports.model.entity.Match;
 import com.sports.model.enums.MatchStatus;
 import com.sports.repository.MatchRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Match Service
@@ -21,22 +28,46 @@ import java.util.List;
 public class MatchService {
     
     private final MatchRepository matchRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MatchUpdateBroadcaster broadcaster;
+    private final LiveMatchService liveMatchService;
+    private final MatchListCache matchListCache;
+    private final BracketService bracketService;
+    private final VenueBookingService venueBookingService;
     
     @Transactional
     public Match createMatch(Match match) {
         match.setStatus(MatchStatus.SCHEDULED);
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        try {
+            venueBookingService.reserveMatch(saved);
+        } catch (RuntimeException e) {
+            matchRepository.delete(saved);
+            throw e;
+        }
+        matchListCache.invalidate(MatchListCache.MatchList.UPCOMING);
+        return saved;
     }
     
     @Transactional
     public Match updateMatchScore(String matchId, Integer team1Score, Integer team2Score) {
+        // Live matches are updated in memory by their single writer and snapshotted later
+        Optional<Match> live = liveMatchService.updateScore(matchId, team1Score, team2Score);
+        if (live.isPresent()) {
+            return live.get();
+        }
+        
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
         
         match.setTeam1Score(team1Score);
         match.setTeam2Score(team2Score);
         
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        matchListCache.invalidate(MatchListCache.MatchList.LIVE);
+        broadcaster.scoreChanged(saved);
+        return saved;
     }
     
     @Transactional
@@ -48,31 +79,69 @@ public class MatchService {
         match.setActualStartTime(LocalDateTime.now());
         match.setIsLive(true);
         
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        liveMatchService.register(saved);
+        matchListCache.invalidate(MatchListCache.MatchList.LIVE, MatchListCache.MatchList.UPCOMING);
+        broadcaster.matchStarted(saved);
+        return saved;
     }
     
     @Transactional
     public Match completeMatch(String matchId) {
+        Optional<Match> live = liveMatchService.retire(matchId);
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
+        live.ifPresent(last -> {
+            match.setTeam1Score(last.getTeam1Score());
+            match.setTeam2Score(last.getTeam2Score());
+        });
         
-        match.setStatus(MatchStatus.COMPLETED);
-        match.setActualEndTime(LocalDateTime.now());
-        match.setIsLive(false);
+        LocalDateTime now = LocalDateTime.now();
+        Update completion = new Update()
+                .set("status", MatchStatus.COMPLETED)
+                .set("actualEndTime", now)
+                .set("updatedAt", now)
+                .set("isLive", false)
+                .set("team1Score", match.getTeam1Score())
+                .set("team2Score", match.getTeam2Score());
         
         // Determine winner
         if (match.getTeam1Score() != null && match.getTeam2Score() != null) {
             if (match.getTeam1Score() > match.getTeam2Score()) {
-                match.setWinnerTeamId(match.getTeam1Id());
+                completion.set("winnerTeamId", match.getTeam1Id()).set("winnerPlayerId", match.getPlayer1Id());
             } else if (match.getTeam2Score() > match.getTeam1Score()) {
-                match.setWinnerTeamId(match.getTeam2Id());
+                completion.set("winnerTeamId", match.getTeam2Id()).set("winnerPlayerId", match.getPlayer2Id());
             }
         }
         
-        return matchRepository.save(match);
+        // Only the call that moves the match out of play completes it; repeats and races just read it back
+        Match saved = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(matchId).and("status").ne(MatchStatus.COMPLETED)),
+                completion,
+                FindAndModifyOptions.options().returnNew(true),
+                Match.class);
+        if (saved == null) {
+            Match completed = matchRepository.findById(matchId)
+                    .orElseThrow(() -> new RuntimeException("Match not found"));
+            // Advancing is idempotent, so completing again retries a bracket step that failed
+            bracketService.advance(completed);
+            return completed;
+        }
+        matchListCache.invalidate(MatchListCache.MatchList.LIVE);
+        
+        // Ratings and live ranks are updated asynchronously, once per match
+        eventPublisher.publishEvent(new MatchCompletedEvent(saved));
+        broadcaster.matchCompleted(saved);
+        bracketService.advance(saved);
+        
+        return saved;
     }
     
     public Match getMatchById(String matchId) {
+        Optional<Match> live = liveMatchService.find(matchId);
+        if (live.isPresent()) {
+            return live.get();
+        }
         return matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
     }
@@ -82,6 +151,9 @@ public class MatchService {
     }
     
     public List<Match> getLiveMatches() {
+        if (liveMatchService.isServingReads()) {
+            return liveMatchService.getLiveMatches();
+        }
         return matchRepository.findLiveMatches();
     }
     
@@ -89,6 +161,20 @@ public class MatchService {
         return matchRepository.findUpcomingMatches(LocalDateTime.now(), Pageable.ofSize(20));
     }
     
+    /**
+     * Live matches as a serialized ApiResponse, cached until the next live transition
+     */
+    public byte[] getLiveMatchesJson() {
+        return matchListCache.get(MatchListCache.MatchList.LIVE, this::getLiveMatches);
+    }
+    
+    /**
+     * Upcoming matches as a serialized ApiResponse, cached until the next scheduling change
+     */
+    public byte[] getUpcomingMatchesJson() {
+        return matchListCache.get(MatchListCache.MatchList.UPCOMING, this::getUpcomingMatches);
+    }
+    
     public List<Match> getMatchesByTeam(String teamId) {
         return matchRepository.findMatchesByTeam(teamId);
     }
@@ -0,0 +1,22 @@
+package com.sports.service;
+
+import com.sports.model.entity.MatchEvent;
+
+/**
+ * Resolves which side of a match an event belongs to; team 1 is the home side
+ */
+final class MatchSides {
+
+    private MatchSides() {
+    }
+
+    /**
+     * @return true for team 1, false for team 2, null when the event does not say
+     */
+    static Boolean isHome(MatchEvent event, String team1Id) {
+        if (event.getTeamId() != null) {
+            return event.getTeamId().equals(team1Id);
+        }
+        return event.getIsHomeTeam();
+    }
+}
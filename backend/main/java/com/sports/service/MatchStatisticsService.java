@@ -0,0 +1,367 @@
+package com.sports.service;
+
+import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchCommentary;
+import com.sports.model.entity.MatchEvent;
+import com.sports.repository.MatchCommentaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Match Statistics Service - Keeps per-match statistics up to date from the match event stream.
+ *
+ * The counters of a match are always a fold of its stored events in sequence order, not of
+ * the events this node happened to ingest: an event stored here is counted at once when it
+ * is the next in sequence, and every flush first reads the events other nodes stored since
+ * the last counted sequence. Dirty matches are then written to their MatchCommentary
+ * document with the sequence they count up to, and only over counts of an equal or lower
+ * sequence, so nodes never overwrite each other with partial counts. Counting, flushing
+ * and rebuilding all run on one thread, so the counters need no locking.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchStatisticsService {
+
+    // Counter slots; every statistic has a home (team 1) and an away (team 2) slot
+    private static final int SHOTS = 0;
+    private static final int SHOTS_ON_TARGET = 1;
+    private static final int PASSES = 2;
+    private static final int PASSES_COMPLETED = 3;
+    private static final int FOULS = 4;
+    private static final int YELLOW_CARDS = 5;
+    private static final int RED_CARDS = 6;
+    private static final int CORNERS = 7;
+    private static final int OFFSIDES = 8;
+    private static final int STAT_COUNT = 9;
+    private static final int CATCH_UP_CHUNK = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final MatchCommentaryRepository matchCommentaryRepository;
+
+    @Value("${live.stats.flush-ms:2000}")
+    private long flushMs;
+
+    @Value("${live.events.idle-evict-minutes:30}")
+    private long idleEvictMinutes;
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private ScheduledExecutorService statsExecutor;
+
+    @PostConstruct
+    void start() {
+        statsExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "match-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        statsExecutor.scheduleWithFixedDelay(this::catchUpAndFlush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        statsExecutor.submit(this::flushDirty);
+        statsExecutor.shutdown();
+        statsExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @EventListener
+    public void onMatchEventsStored(MatchEventsStoredEvent stored) {
+        try {
+            statsExecutor.execute(() -> stored.events().forEach(this::accept));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; a rebuild recovers the counts from the stored events
+        }
+    }
+
+    /**
+     * Write the final counts of a completed match and stop tracking it
+     */
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent completed) {
+        String matchId = completed.match().getId();
+        try {
+            statsExecutor.execute(() -> {
+                Counters finished = counters.remove(matchId);
+                if (finished != null) {
+                    try {
+                        catchUp(List.of(finished));
+                    } catch (Exception e) {
+                        log.warn("Could not read final events of match {}: {}", matchId, e.getMessage());
+                    }
+                    if (finished.dirty) {
+                        flush(List.of(finished));
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the final flush writes it
+        }
+    }
+
+    public MatchCommentary.MatchStatistics getStatistics(String matchId) {
+        Counters tracked = counters.get(matchId);
+        if (tracked != null) {
+            return tracked.toStatistics();
+        }
+        return matchCommentaryRepository.findByMatchId(matchId)
+                .map(MatchCommentary::getMatchStatistics)
+                .orElseThrow(() -> new RuntimeException("No statistics recorded for this match"));
+    }
+
+    /**
+     * Recount a match from its stored events and write the result
+     */
+    public MatchCommentary.MatchStatistics rebuild(String matchId) {
+        try {
+            return statsExecutor.submit(() -> {
+                Counters rebuilt = fold(matchId);
+                counters.replace(matchId, rebuilt);
+                flush(List.of(rebuilt));
+                return rebuilt.toStatistics();
+            }).get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Statistics rebuild failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while rebuilding statistics");
+        }
+    }
+
+    private void accept(MatchEvent event) {
+        Counters tracked = counters.get(event.getMatchId());
+        if (tracked != null) {
+            // Out of sequence means another node stored events in between; the next catch-up counts them in order
+            if (event.getSequence() == null || event.getSequence() == tracked.lastSequence + 1) {
+                tracked.apply(event);
+            }
+            return;
+        }
+        try {
+            // First event seen here; the fold already includes it and any earlier ones
+            counters.put(event.getMatchId(), fold(event.getMatchId()));
+        } catch (Exception e) {
+            log.warn("Could not start statistics for match {}: {}", event.getMatchId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stream the stored events of a match once, in sequence order, into fresh counters
+     */
+    private Counters fold(String matchId) {
+        Query matchQuery = Query.query(Criteria.where("id").is(matchId));
+        matchQuery.fields().include("team1Id");
+        Match match = mongoTemplate.findOne(matchQuery, Match.class);
+        if (match == null) {
+            throw new RuntimeException("Match not found");
+        }
+
+        Counters folded = new Counters(matchId, match.getTeam1Id());
+        Query eventQuery = Query.query(Criteria.where("matchId").is(matchId))
+                .with(Sort.by(Sort.Direction.ASC, "sequence"));
+        eventQuery.fields().include("sequence").include("eventType").include("teamId")
+                .include("isHomeTeam").include("isOwnGoal").include("cardType");
+        try (Stream<MatchEvent> events = mongoTemplate.stream(eventQuery, MatchEvent.class)) {
+            events.forEach(folded::apply);
+        }
+        folded.dirty = true;
+        return folded;
+    }
+
+    private void catchUpAndFlush() {
+        long idleCutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleEvictMinutes);
+        // Matches that stopped changing (completed on another node, say) are read from the document again
+        counters.values().removeIf(tracked -> !tracked.dirty && tracked.lastChangedNanos - idleCutoff < 0);
+        if (counters.isEmpty()) {
+            return;
+        }
+        try {
+            catchUp(List.copyOf(counters.values()));
+        } catch (Exception e) {
+            log.warn("Could not read new events of {} matches: {}", counters.size(), e.getMessage());
+        }
+        flushDirty();
+    }
+
+    /**
+     * Count the events stored after each match's last counted sequence, by any node
+     */
+    private void catchUp(List<Counters> tracked) {
+        for (int from = 0; from < tracked.size(); from += CATCH_UP_CHUNK) {
+            List<Counters> chunk = tracked.subList(from, Math.min(tracked.size(), from + CATCH_UP_CHUNK));
+            Map<String, Counters> byMatch = new HashMap<>();
+            chunk.forEach(counts -> byMatch.put(counts.matchId, counts));
+            Criteria[] newer = chunk.stream()
+                    .map(counts -> Criteria.where("matchId").is(counts.matchId).and("sequence").gt(counts.lastSequence))
+                    .toArray(Criteria[]::new);
+            Query eventQuery = Query.query(new Criteria().orOperator(newer))
+                    .with(Sort.by(Sort.Direction.ASC, "matchId", "sequence"));
+            eventQuery.fields().include("matchId").include("sequence").include("eventType").include("teamId")
+                    .include("isHomeTeam").include("isOwnGoal").include("cardType");
+            try (Stream<MatchEvent> events = mongoTemplate.stream(eventQuery, MatchEvent.class)) {
+                events.forEach(event -> {
+                    Counters counts = byMatch.get(event.getMatchId());
+                    if (counts != null) {
+                        counts.apply(event);
+                    }
+                });
+            }
+        }
+    }
+
+    private void flushDirty() {
+        List<Counters> dirty = counters.values().stream().filter(tracked -> tracked.dirty).toList();
+        if (!dirty.isEmpty()) {
+            flush(dirty);
+        }
+    }
+
+    private void flush(List<Counters> dirty) {
+        try {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, MatchCommentary.class);
+            for (Counters tracked : dirty) {
+                ops.upsert(Query.query(Criteria.where("matchId").is(tracked.matchId)),
+                        new Update().setOnInsert("isActive", true));
+                // A node that has counted further wins; equal sequences carry equal counts
+                ops.updateOne(Query.query(Criteria.where("matchId").is(tracked.matchId)
+                                .and("statisticsSequence").not().gt(tracked.lastSequence)), new Update()
+                        .set("matchStatistics", tracked.toStatistics())
+                        .set("statisticsSequence", tracked.lastSequence));
+            }
+            ops.execute();
+            dirty.forEach(tracked -> tracked.dirty = false);
+        } catch (Exception e) {
+            // Still dirty, so the next flush retries
+            log.warn("Could not flush statistics of {} matches: {}", dirty.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Counters of one match, written only by the stats thread
+     */
+    private static final class Counters {
+        private final String matchId;
+        private final String team1Id;
+        private final int[] values = new int[STAT_COUNT * 2];
+        private long lastSequence;
+        private boolean dirty;
+        private long lastChangedNanos = System.nanoTime();
+        // Written after every counted event so readers on other threads see the counts
+        private volatile int version;
+
+        private Counters(String matchId, String team1Id) {
+            this.matchId = matchId;
+            this.team1Id = team1Id;
+        }
+
+        private void apply(MatchEvent event) {
+            if (event.getSequence() != null) {
+                if (event.getSequence() <= lastSequence) {
+                    return;
+                }
+                lastSequence = event.getSequence();
+                // The sequence counted up to moves even for events that count nothing
+                dirty = true;
+                lastChangedNanos = System.nanoTime();
+            }
+            Boolean home = MatchSides.isHome(event, team1Id);
+            if (home == null || event.getEventType() == null) {
+                return;
+            }
+            int side = home ? 0 : 1;
+            switch (event.getEventType()) {
+                case SHOT -> values[SHOTS * 2 + side]++;
+                case SHOT_ON_TARGET -> {
+                    values[SHOTS * 2 + side]++;
+                    values[SHOTS_ON_TARGET * 2 + side]++;
+                }
+                case GOAL -> {
+                    if (Boolean.TRUE.equals(event.getIsOwnGoal())) {
+                        return;
+                    }
+                    values[SHOTS * 2 + side]++;
+                    values[SHOTS_ON_TARGET * 2 + side]++;
+                }
+                case PASS -> {
+                    values[PASSES * 2 + side]++;
+                    values[PASSES_COMPLETED * 2 + side]++;
+                }
+                case PASS_MISSED -> values[PASSES * 2 + side]++;
+                case FOUL -> values[FOULS * 2 + side]++;
+                case YELLOW_CARD -> {
+                    values[YELLOW_CARDS * 2 + side]++;
+                    if (event.getCardType() == MatchEvent.CardType.SECOND_YELLOW) {
+                        values[RED_CARDS * 2 + side]++;
+                    }
+                }
+                case RED_CARD -> values[RED_CARDS * 2 + side]++;
+                case CORNER -> values[CORNERS * 2 + side]++;
+                case OFFSIDE -> values[OFFSIDES * 2 + side]++;
+                default -> {
+                    return;
+                }
+            }
+            dirty = true;
+            version++;
+        }
+
+        private MatchCommentary.MatchStatistics toStatistics() {
+            // Reading the volatile version first makes every count made before it visible
+            int[] values = version == 0 ? new int[STAT_COUNT * 2] : this.values.clone();
+            int homePasses = values[PASSES * 2];
+            int awayPasses = values[PASSES * 2 + 1];
+            int totalPasses = homePasses + awayPasses;
+            // Possession is approximated by share of passes
+            Integer homePossession = totalPasses == 0 ? null : (int) Math.round(homePasses * 100.0 / totalPasses);
+
+            return MatchCommentary.MatchStatistics.builder()
+                    .homePossession(homePossession)
+                    .awayPossession(homePossession == null ? null : 100 - homePossession)
+                    .homeShots(values[SHOTS * 2])
+                    .awayShots(values[SHOTS * 2 + 1])
+                    .homeShotsOnTarget(values[SHOTS_ON_TARGET * 2])
+                    .awayShotsOnTarget(values[SHOTS_ON_TARGET * 2 + 1])
+                    .homePasses(homePasses)
+                    .awayPasses(awayPasses)
+                    .homePassAccuracy(accuracy(values[PASSES_COMPLETED * 2], homePasses))
+                    .awayPassAccuracy(accuracy(values[PASSES_COMPLETED * 2 + 1], awayPasses))
+                    .homeFouls(values[FOULS * 2])
+                    .awayFouls(values[FOULS * 2 + 1])
+                    .homeYellowCards(values[YELLOW_CARDS * 2])
+                    .awayYellowCards(values[YELLOW_CARDS * 2 + 1])
+                    .homeRedCards(values[RED_CARDS * 2])
+                    .awayRedCards(values[RED_CARDS * 2 + 1])
+                    .homeCorners(values[CORNERS * 2])
+                    .awayCorners(values[CORNERS * 2 + 1])
+                    .homeOffsides(values[OFFSIDES * 2])
+                    .awayOffsides(values[OFFSIDES * 2 + 1])
+                    .build();
+        }
+
+        private static Double accuracy(int completed, int attempted) {
+            return attempted == 0 ? null : Math.round(completed * 1000.0 / attempted) / 10.0;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.sports.service;
+
+import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Match Timeline Service - Streams the ordered event timeline of a match to replay viewers
+ * and late joiners, as Server-Sent Events or NDJSON.
+ *
+ * History is read from a Mongo cursor and written as it is read, so nothing is held in
+ * memory beyond one cursor batch. Streams of a live match are registered for new events
+ * before the history is read and then follow the live tail; the event sequence removes
+ * the overlap. A stream that falls too far behind drops its live buffer and catches up
+ * from Mongo again instead of buffering without bound.
+ *
+ * Events stored on this node are handed over at once. Events and completions from other
+ * nodes are picked up by polling Mongo by sequence for the followed matches; a sequence gap
+ * between the two paths is filled from Mongo before the next event is sent. Every draining
+ * stream gets its own thread, so a client with a full socket buffer holds up only itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchTimelineService {
+
+    public enum Format { SSE, NDJSON }
+
+    private static final String EVENT_NAME = "match-event";
+    private static final int POLL_CHUNK = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final MatchService matchService;
+
+    @Value("${live.timeline.max-stream-threads:1000}")
+    private int maxStreamThreads;
+
+    @Value("${live.timeline.buffer-capacity:1024}")
+    private int bufferCapacity;
+
+    @Value("${live.timeline.cursor-batch-size:500}")
+    private int cursorBatchSize;
+
+    @Value("${live.timeline.timeout-minutes:180}")
+    private long timeoutMinutes;
+
+    @Value("${live.timeline.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${live.timeline.poll-ms:1000}")
+    private long pollMs;
+
+    private final Map<String, Set<TimelineStream>> liveStreams = new ConcurrentHashMap<>();
+    // Highest event sequence handed to the streams of each followed match
+    private final Map<String, Long> liveTails = new ConcurrentHashMap<>();
+    private ExecutorService streamExecutor;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        // No queue: a stream that cannot get a thread right away is closed, and its client resumes by sequence
+        streamExecutor = new ThreadPoolExecutor(0, maxStreamThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "match-timeline-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "match-timeline-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::pollLiveTails, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        liveStreams.values().forEach(streams -> streams.forEach(TimelineStream::complete));
+        streamExecutor.shutdownNow();
+    }
+
+    /**
+     * Open a timeline stream of the events after the given sequence. It ends after the
+     * history unless the match is live, in which case it follows the match until completion.
+     */
+    public ResponseBodyEmitter openTimeline(String matchId, long afterSequence, Format format) {
+        Match match = matchService.getMatchById(matchId);
+        long timeout = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        ResponseBodyEmitter emitter = format == Format.SSE ? new SseEmitter(timeout) : new ResponseBodyEmitter(timeout);
+        boolean follow = Boolean.TRUE.equals(match.getIsLive());
+        TimelineStream stream = new TimelineStream(matchId, afterSequence, format, emitter, follow);
+
+        emitter.onCompletion(() -> unregister(stream));
+        emitter.onTimeout(stream::complete);
+        emitter.onError(error -> unregister(stream));
+        if (follow) {
+            liveStreams.computeIfAbsent(matchId, id -> ConcurrentHashMap.newKeySet()).add(stream);
+            // The match may have completed before the stream was registered
+            if (!Boolean.TRUE.equals(matchService.getMatchById(matchId).getIsLive())) {
+                stream.finishing = true;
+            }
+        }
+        stream.schedule();
+        return emitter;
+    }
+
+    /**
+     * Runs on the event writer thread, so it only queues and schedules
+     */
+    @EventListener
+    public void onMatchEventsStored(MatchEventsStoredEvent stored) {
+        stored.events().forEach(this::offerLive);
+    }
+
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent completed) {
+        finishStreams(completed.match().getId());
+    }
+
+    private void offerLive(MatchEvent event) {
+        Set<TimelineStream> streams = liveStreams.get(event.getMatchId());
+        if (streams == null || event.getSequence() == null) {
+            return;
+        }
+        liveTails.merge(event.getMatchId(), event.getSequence(), Math::max);
+        streams.forEach(stream -> stream.offer(event));
+    }
+
+    private void finishStreams(String matchId) {
+        Set<TimelineStream> streams = liveStreams.remove(matchId);
+        liveTails.remove(matchId);
+        if (streams != null) {
+            streams.forEach(TimelineStream::finish);
+        }
+    }
+
+    private void unregister(TimelineStream stream) {
+        stream.closed = true;
+        liveStreams.computeIfPresent(stream.matchId, (id, streams) -> {
+            streams.remove(stream);
+            if (streams.isEmpty()) {
+                liveTails.remove(id);
+                return null;
+            }
+            return streams;
+        });
+    }
+
+    /**
+     * Follow what other nodes store: new events of the followed matches, and their completion
+     */
+    private void pollLiveTails() {
+        if (liveStreams.isEmpty()) {
+            return;
+        }
+        List<String> followed = List.copyOf(liveStreams.keySet());
+        try {
+            for (int from = 0; from < followed.size(); from += POLL_CHUNK) {
+                List<String> chunk = followed.subList(from, Math.min(followed.size(), from + POLL_CHUNK));
+                pollEvents(chunk);
+                pollCompleted(chunk);
+            }
+        } catch (Exception e) {
+            log.warn("Could not poll the live tail of {} matches: {}", followed.size(), e.getMessage());
+        }
+    }
+
+    private void pollEvents(List<String> matchIds) {
+        // A match followed for the first time starts at its newest event; its streams read the rest themselves
+        matchIds.forEach(matchId -> {
+            if (!liveTails.containsKey(matchId)) {
+                liveTails.putIfAbsent(matchId, lastStoredSequence(matchId));
+            }
+        });
+        Criteria[] newer = matchIds.stream()
+                .map(matchId -> Criteria.where("matchId").is(matchId)
+                        .and("sequence").gt(liveTails.getOrDefault(matchId, 0L)))
+                .toArray(Criteria[]::new);
+        Query query = Query.query(new Criteria().orOperator(newer))
+                .with(Sort.by(Sort.Direction.ASC, "matchId", "sequence"))
+                .cursorBatchSize(cursorBatchSize);
+        try (Stream<MatchEvent> events = mongoTemplate.stream(query, MatchEvent.class)) {
+            events.forEach(this::offerLive);
+        }
+    }
+
+    private void pollCompleted(List<String> matchIds) {
+        Query query = Query.query(Criteria.where("id").in(matchIds).and("isLive").ne(true));
+        query.fields().include("id");
+        mongoTemplate.find(query, Match.class).forEach(match -> finishStreams(match.getId()));
+    }
+
+    private long lastStoredSequence(String matchId) {
+        Query query = Query.query(Criteria.where("matchId").is(matchId))
+                .with(Sort.by(Sort.Direction.DESC, "sequence"))
+                .limit(1);
+        query.fields().include("sequence");
+        MatchEvent last = mongoTemplate.findOne(query, MatchEvent.class);
+        return last != null && last.getSequence() != null ? last.getSequence() : 0L;
+    }
+
+    private void sendHeartbeats() {
+        liveStreams.values().forEach(streams -> streams.forEach(TimelineStream::heartbeat));
+    }
+
+    /**
+     * One client's stream. All writes happen in drain(), which runs on one stream thread
+     * at a time; the writer thread, the poller and the heartbeat only queue and schedule.
+     */
+    private final class TimelineStream {
+        private final String matchId;
+        private final Format format;
+        private final ResponseBodyEmitter emitter;
+        private final BlockingQueue<MatchEvent> live;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Set when the stream has to (re)read from Mongo: at start and after a live buffer overflow
+        private volatile boolean catchUp = true;
+        private final boolean following;
+        private volatile boolean finishing;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+        private long lastSequence;
+
+        private TimelineStream(String matchId, long afterSequence, Format format, ResponseBodyEmitter emitter,
+                               boolean following) {
+            this.matchId = matchId;
+            this.format = format;
+            this.emitter = emitter;
+            this.following = following;
+            this.lastSequence = afterSequence;
+            this.live = new ArrayBlockingQueue<>(following ? bufferCapacity : 1);
+        }
+
+        private void offer(MatchEvent event) {
+            if (!live.offer(event)) {
+                catchUp = true;
+            }
+            schedule();
+        }
+
+        private void finish() {
+            finishing = true;
+            schedule();
+        }
+
+        private void heartbeat() {
+            if (format == Format.SSE) {
+                heartbeatDue = true;
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                streamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    if (catchUp) {
+                        catchUp = false;
+                        live.clear();
+                        streamHistory();
+                    }
+                    for (MatchEvent event; !closed && (event = live.poll()) != null; ) {
+                        if (event.getSequence() != null && event.getSequence() > lastSequence + 1) {
+                            // Local and polled events can arrive out of order; Mongo has everything before this one
+                            streamHistory();
+                        }
+                        send(event);
+                    }
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        ((SseEmitter) emitter).send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    if (!following || finishing) {
+                        if (following) {
+                            // Pick up anything stored between the last live event and completion
+                            streamHistory();
+                        }
+                        complete();
+                        return;
+                    }
+                    scheduled.set(false);
+                } while (!closed && (catchUp || finishing || heartbeatDue || !live.isEmpty())
+                        && scheduled.compareAndSet(false, true));
+            } catch (Exception e) {
+                // Client went away or Mongo failed; either way this stream is over
+                log.debug("Timeline stream of match {} closed: {}", matchId, e.getMessage());
+                closed = true;
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void streamHistory() throws IOException {
+            Query query = Query.query(Criteria.where("matchId").is(matchId).and("sequence").gt(lastSequence))
+                    .with(Sort.by(Sort.Direction.ASC, "sequence"))
+                    .cursorBatchSize(cursorBatchSize);
+            try (Stream<MatchEvent> events = mongoTemplate.stream(query, MatchEvent.class)) {
+                var iterator = events.iterator();
+                while (!closed && iterator.hasNext()) {
+                    send(iterator.next());
+                }
+            }
+        }
+
+        private void send(MatchEvent event) throws IOException {
+            if (event.getSequence() == null || event.getSequence() <= lastSequence) {
+                return;
+            }
+            if (format == Format.SSE) {
+                ((SseEmitter) emitter).send(SseEmitter.event()
+                        .id(String.valueOf(event.getSequence()))
+                        .name(EVENT_NAME)
+                        .data(event, MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send(event, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            }
+            lastSequence = event.getSequence();
+        }
+
+        private void complete() {
+            closed = true;
+            emitter.complete();
+        }
+    }
+}
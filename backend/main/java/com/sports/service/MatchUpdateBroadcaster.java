@@ -0,0 +1,227 @@
+package com.sports.service;
+
+import com.sports.dto.MatchDelta;
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchBroadcastSequence;
+import com.sports.model.enums.SportType;
+import com.sports.repository.EventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match Update Broadcaster - Pushes live match deltas over STOMP so clients stop polling.
+ *
+ * Every message goes to /topic/matches/{matchId} and /topic/sports/{sportType}/matches.
+ * Score changes are coalesced for a short window and only the latest score is sent;
+ * status transitions are sent at once, after any pending score. The seq of each message
+ * is taken from a per-match counter document, so it stays one sequence per match across
+ * restarts, idle eviction and nodes publishing to the same relayed topic.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchUpdateBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final EventRepository eventRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${live.broadcast.coalesce-ms:100}")
+    private long coalesceMs;
+
+    @Value("${live.broadcast.idle-evict-minutes:30}")
+    private long idleEvictMinutes;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Map<String, SportType> eventSports = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "match-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::evictIdleChannels, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+    }
+
+    public void scoreChanged(Match match) {
+        Channel channel = channel(match);
+        synchronized (channel) {
+            channel.pendingTeam1Score = match.getTeam1Score();
+            channel.pendingTeam2Score = match.getTeam2Score();
+            channel.pending = true;
+            channel.touch();
+            if (coalesceMs <= 0) {
+                publishPendingScore(channel);
+            } else if (!channel.flushScheduled) {
+                channel.flushScheduled = true;
+                flusher.schedule(() -> flush(channel), coalesceMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public void matchStarted(Match match) {
+        transition(match, MatchDelta.Type.STARTED);
+    }
+
+    /**
+     * In-play status change such as half time or full time
+     */
+    public void statusChanged(Match match) {
+        transition(match, MatchDelta.Type.STATUS);
+    }
+
+    public void matchCompleted(Match match) {
+        transition(match, MatchDelta.Type.COMPLETED);
+    }
+
+    private void transition(Match match, MatchDelta.Type type) {
+        Channel channel = channel(match);
+        synchronized (channel) {
+            channel.touch();
+            // The transition carries the current score, so a pending one is superseded
+            channel.pending = false;
+            publish(channel, MatchDelta.builder()
+                    .type(type)
+                    .status(match.getStatus())
+                    .team1Score(match.getTeam1Score())
+                    .team2Score(match.getTeam2Score())
+                    .winnerTeamId(match.getWinnerTeamId())
+                    .winnerPlayerId(match.getWinnerPlayerId()));
+        }
+    }
+
+    private void flush(Channel channel) {
+        synchronized (channel) {
+            channel.flushScheduled = false;
+            publishPendingScore(channel);
+        }
+    }
+
+    private void publishPendingScore(Channel channel) {
+        if (!channel.pending) {
+            return;
+        }
+        channel.pending = false;
+        publish(channel, MatchDelta.builder()
+                .type(MatchDelta.Type.SCORE)
+                .team1Score(channel.pendingTeam1Score)
+                .team2Score(channel.pendingTeam2Score));
+    }
+
+    // Called with the channel lock held, which keeps seq and delivery order in step on this node
+    private void publish(Channel channel, MatchDelta.MatchDeltaBuilder delta) {
+        MatchDelta message = delta
+                .matchId(channel.matchId)
+                .sportType(channel.sportType)
+                .timestamp(System.currentTimeMillis())
+                .build();
+        try {
+            message.setSeq(nextSeq(channel.matchId));
+        } catch (Exception e) {
+            // Without a shared seq the message could collide with another node's; clients catch up on the next one
+            log.warn("Could not sequence {} for match {}: {}", message.getType(), channel.matchId, e.getMessage());
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend("/topic/matches/" + channel.matchId, message);
+            if (channel.sportType != null) {
+                messagingTemplate.convertAndSend("/topic/sports/" + channel.sportType + "/matches", message);
+            }
+        } catch (Exception e) {
+            // Clients see the sequence gap and re-read the match
+            log.warn("Could not broadcast {} for match {}: {}", message.getType(), channel.matchId, e.getMessage());
+        }
+    }
+
+    private long nextSeq(String matchId) {
+        MatchBroadcastSequence sequence = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(matchId)),
+                new Update().inc("seq", 1),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                MatchBroadcastSequence.class);
+        return sequence.getSeq();
+    }
+
+    private Channel channel(Match match) {
+        Channel channel = channels.get(match.getId());
+        if (channel != null) {
+            return channel;
+        }
+        SportType sportType = sportOf(match.getEventId());
+        return channels.computeIfAbsent(match.getId(), id -> new Channel(id, sportType));
+    }
+
+    private SportType sportOf(String eventId) {
+        if (eventId == null) {
+            return null;
+        }
+        SportType cached = eventSports.get(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        SportType sportType = eventRepository.findById(eventId).map(Event::getSportType).orElse(null);
+        if (sportType != null) {
+            eventSports.put(eventId, sportType);
+        }
+        return sportType;
+    }
+
+    /**
+     * Drop channels of matches that went quiet; the sequence lives on the match, so it continues if they resume
+     */
+    private void evictIdleChannels() {
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleEvictMinutes);
+        channels.values().removeIf(channel -> {
+            synchronized (channel) {
+                return !channel.pending && channel.lastTouchedNanos - cutoff < 0;
+            }
+        });
+    }
+
+    /**
+     * Broadcast state of one match, guarded by its own monitor
+     */
+    private static final class Channel {
+        private final String matchId;
+        private final SportType sportType;
+        private boolean pending;
+        private boolean flushScheduled;
+        private Integer pendingTeam1Score;
+        private Integer pendingTeam2Score;
+        private long lastTouchedNanos = System.nanoTime();
+
+        private Channel(String matchId, SportType sportType) {
+            this.matchId = matchId;
+            this.sportType = sportType;
+        }
+
+        private void touch() {
+            lastTouchedNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.sports.service;
+
+import com.sports.dto.PlayerStatisticsRebuildStats;
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.MatchEvent;
+import com.sports.model.entity.PlayerStatistics;
+import com.sports.model.enums.MatchStatus;
+import com.sports.model.enums.SportType;
+import com.sports.repository.EventRepository;
+import com.sports.repository.PlayerStatisticsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Player Statistics Service - Keeps per-season PlayerStatistics documents up to date.
+ *
+ * Each completed match is counted once: its events are folded per player and added with
+ * one bulk $inc upsert. A full rebuild streams a season's events once, folds them on
+ * parallel workers that each own a partition of the players, and overwrites the season.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlayerStatisticsService {
+
+    // Counted PlayerStatistics fields; the index of each is its counter slot
+    private static final String[] FIELDS = {
+            "matchesPlayed", "goals", "assists", "shots", "shotsOnTarget", "penaltiesScored",
+            "penaltiesMissed", "hatTricks", "tackles", "interceptions", "blocks", "clearances",
+            "saves", "penaltiesSaved", "yellowCards", "redCards", "foulsCommitted", "foulsDrawn",
+            "passesCompleted", "passesAttempted", "crosses"
+    };
+    private static final int MATCHES_PLAYED = 0;
+    private static final int GOALS = 1;
+    private static final int ASSISTS = 2;
+    private static final int SHOTS = 3;
+    private static final int SHOTS_ON_TARGET = 4;
+    private static final int PENALTIES_SCORED = 5;
+    private static final int PENALTIES_MISSED = 6;
+    private static final int HAT_TRICKS = 7;
+    private static final int TACKLES = 8;
+    private static final int INTERCEPTIONS = 9;
+    private static final int BLOCKS = 10;
+    private static final int CLEARANCES = 11;
+    private static final int SAVES = 12;
+    private static final int PENALTIES_SAVED = 13;
+    private static final int YELLOW_CARDS = 14;
+    private static final int RED_CARDS = 15;
+    private static final int FOULS_COMMITTED = 16;
+    private static final int FOULS_DRAWN = 17;
+    private static final int PASSES_COMPLETED = 18;
+    private static final int PASSES_ATTEMPTED = 19;
+    private static final int CROSSES = 20;
+
+    private static final List<Tally> END_OF_STREAM = new ArrayList<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final EventRepository eventRepository;
+    private final PlayerStatisticsRepository playerStatisticsRepository;
+
+    @Value("${stats.season-start-month:7}")
+    private int seasonStartMonth;
+
+    @Value("${stats.rebuild.partitions:0}")
+    private int partitions;
+
+    @Value("${ranking.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    // A rebuild overwrites whole seasons, so match applications wait for it (per node)
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private ExecutorService rebuildExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        rebuildExecutor = Executors.newFixedThreadPool(partitionCount(), task -> {
+            Thread thread = new Thread(task, "player-stats-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public List<PlayerStatistics> getPlayerStatistics(String playerId) {
+        return playerStatisticsRepository.findByPlayerIdOrderBySeasonDesc(playerId);
+    }
+
+    public PlayerStatistics getPlayerStatistics(String playerId, SportType sportType, String season) {
+        return playerStatisticsRepository.findByPlayerIdAndSportTypeAndSeason(playerId, sportType, season)
+                .orElseThrow(() -> new RuntimeException("No statistics for this player and season"));
+    }
+
+    /**
+     * Season label of a date, e.g. "2024-2025", or "2024" when seasons start in January
+     */
+    public String seasonOf(LocalDateTime time) {
+        if (seasonStartMonth <= 1) {
+            return String.valueOf(time.getYear());
+        }
+        int startYear = time.getMonthValue() >= seasonStartMonth ? time.getYear() : time.getYear() - 1;
+        return startYear + "-" + (startYear + 1);
+    }
+
+    @Async
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent completed) {
+        try {
+            applyMatch(completed.match());
+        } catch (Exception e) {
+            log.error("Could not count player statistics of match {}", completed.match().getId(), e);
+        }
+    }
+
+    /**
+     * Add a completed match's events to its players' season statistics, once
+     *
+     * @return false when the match had already been counted
+     */
+    public boolean applyMatch(Match match) {
+        SportType sportType = match.getEventId() == null ? null
+                : eventRepository.findById(match.getEventId()).map(Event::getSportType).orElse(null);
+        if (sportType == null) {
+            log.warn("Match {} has no sport, player statistics skipped", match.getId());
+            return false;
+        }
+
+        rebuildLock.readLock().lock();
+        try {
+            // Claim first so a repeated completion never counts the match twice; a rebuild repairs a failed write
+            Match claimed = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("id").is(match.getId()).and("statsAppliedAt").is(null)),
+                    new Update().set("statsAppliedAt", LocalDateTime.now()),
+                    Match.class);
+            if (claimed == null) {
+                return false;
+            }
+
+            MatchFold fold = new MatchFold();
+            try (Stream<MatchEvent> events = mongoTemplate.stream(eventQuery(Criteria.where("matchId").is(match.getId())), MatchEvent.class)) {
+                events.forEach(fold::apply);
+            }
+            Collection<Tally> players = fold.finish();
+            if (players.isEmpty()) {
+                return true;
+            }
+
+            String season = seasonOf(completedAt(match));
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations statsOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerStatistics.class);
+            for (Tally player : players) {
+                Update update = new Update().set("updatedAt", now).setOnInsert("isActive", true);
+                for (int i = 0; i < FIELDS.length; i++) {
+                    if (player.counts[i] != 0) {
+                        update.inc(FIELDS[i], player.counts[i]);
+                    }
+                }
+                if (player.teamId != null) {
+                    update.set("teamId", player.teamId);
+                }
+                statsOps.upsert(seasonKey(player.playerId, sportType, season), update);
+            }
+            statsOps.execute();
+            log.debug("Counted match {} into {} player season statistics", match.getId(), players.size());
+            return true;
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recount one season of a sport from scratch and overwrite its statistics
+     */
+    public PlayerStatisticsRebuildStats rebuildSeason(SportType sportType, String season) {
+        LocalDateTime from = seasonStart(season);
+        LocalDateTime to = from.plusYears(1);
+        long started = System.currentTimeMillis();
+
+        rebuildLock.writeLock().lock();
+        try {
+            LocalDateTime runStart = LocalDateTime.now();
+            List<String> matchIds = completedMatchIds(sportType, from, to);
+
+            int partitionCount = partitionCount();
+            AtomicBoolean aborted = new AtomicBoolean();
+            List<BlockingQueue<List<Tally>>> queues = new ArrayList<>(partitionCount);
+            List<Future<Integer>> workers = new ArrayList<>(partitionCount);
+            for (int i = 0; i < partitionCount; i++) {
+                BlockingQueue<List<Tally>> queue = new ArrayBlockingQueue<>(64);
+                queues.add(queue);
+                workers.add(rebuildExecutor.submit(() -> foldPartition(queue, aborted, sportType, season, runStart)));
+            }
+
+            long eventCount = 0;
+            try {
+                // Sorted by match so every match's events arrive together and fold on their own
+                Query query = eventQuery(Criteria.where("matchId").in(matchIds))
+                        .with(Sort.by(Sort.Direction.ASC, "matchId", "sequence"));
+                try (Stream<MatchEvent> events = mongoTemplate.stream(query, MatchEvent.class)) {
+                    String currentMatch = null;
+                    MatchFold fold = new MatchFold();
+                    for (MatchEvent event : (Iterable<MatchEvent>) events::iterator) {
+                        if (!event.getMatchId().equals(currentMatch)) {
+                            dispatch(fold.finish(), queues);
+                            fold = new MatchFold();
+                            currentMatch = event.getMatchId();
+                        }
+                        fold.apply(event);
+                        eventCount++;
+                    }
+                    dispatch(fold.finish(), queues);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted.set(true);
+                throw new RuntimeException("Player statistics rebuild interrupted");
+            } catch (RuntimeException e) {
+                aborted.set(true);
+                throw e;
+            } finally {
+                for (BlockingQueue<List<Tally>> queue : queues) {
+                    queue.put(END_OF_STREAM);
+                }
+            }
+
+            int players = 0;
+            for (Future<Integer> worker : workers) {
+                players += worker.get();
+            }
+
+            // Players that no longer have events this season drop back to zero
+            Update reset = new Update().set("updatedAt", runStart);
+            for (String field : FIELDS) {
+                reset.set(field, 0);
+            }
+            mongoTemplate.updateMulti(Query.query(Criteria.where("sportType").is(sportType)
+                    .and("season").is(season)
+                    .and("updatedAt").lt(runStart)), reset, PlayerStatistics.class);
+            mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(matchIds).and("statsAppliedAt").is(null)),
+                    new Update().set("statsAppliedAt", runStart), Match.class);
+
+            long durationMs = System.currentTimeMillis() - started;
+            log.info("Rebuilt {} {} player statistics for {} from {} events of {} matches in {} ms",
+                    players, sportType, season, eventCount, matchIds.size(), durationMs);
+            return PlayerStatisticsRebuildStats.builder()
+                    .sportType(sportType)
+                    .season(season)
+                    .matches(matchIds.size())
+                    .events(eventCount)
+                    .players(players)
+                    .partitions(partitionCount)
+                    .durationMs(durationMs)
+                    .build();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Player statistics rebuild failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Player statistics rebuild interrupted");
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sum the match tallies of one player partition, then overwrite their season documents
+     */
+    private int foldPartition(BlockingQueue<List<Tally>> queue, AtomicBoolean aborted,
+                              SportType sportType, String season, LocalDateTime runStart) throws InterruptedException {
+        Map<String, Tally> totals = new HashMap<>();
+        for (List<Tally> batch = queue.take(); batch != END_OF_STREAM; batch = queue.take()) {
+            for (Tally tally : batch) {
+                totals.computeIfAbsent(tally.playerId, Tally::new).add(tally);
+            }
+        }
+        if (aborted.get() || totals.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations statsOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerStatistics.class);
+        int pending = 0;
+        for (Tally player : totals.values()) {
+            Update update = new Update().set("updatedAt", runStart).setOnInsert("isActive", true);
+            for (int i = 0; i < FIELDS.length; i++) {
+                update.set(FIELDS[i], player.counts[i]);
+            }
+            if (player.teamId != null) {
+                update.set("teamId", player.teamId);
+            }
+            statsOps.upsert(seasonKey(player.playerId, sportType, season), update);
+            if (++pending == chunkSize) {
+                statsOps.execute();
+                statsOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerStatistics.class);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            statsOps.execute();
+        }
+        return totals.size();
+    }
+
+    private void dispatch(Collection<Tally> matchTallies, List<BlockingQueue<List<Tally>>> queues) throws InterruptedException {
+        if (matchTallies.isEmpty()) {
+            return;
+        }
+        List<List<Tally>> byPartition = new ArrayList<>(queues.size());
+        for (int i = 0; i < queues.size(); i++) {
+            byPartition.add(new ArrayList<>());
+        }
+        for (Tally tally : matchTallies) {
+            byPartition.get(Math.floorMod(tally.playerId.hashCode(), queues.size())).add(tally);
+        }
+        for (int i = 0; i < queues.size(); i++) {
+            if (!byPartition.get(i).isEmpty()) {
+                queues.get(i).put(byPartition.get(i));
+            }
+        }
+    }
+
+    private List<String> completedMatchIds(SportType sportType, LocalDateTime from, LocalDateTime to) {
+        Query eventQuery = Query.query(Criteria.where("sportType").is(sportType));
+        eventQuery.fields().include("id");
+        List<String> eventIds = mongoTemplate.find(eventQuery, Event.class).stream().map(Event::getId).toList();
+
+        Query matchQuery = Query.query(Criteria.where("eventId").in(eventIds)
+                .and("status").is(MatchStatus.COMPLETED)
+                .and("actualEndTime").gte(from).lt(to));
+        matchQuery.fields().include("id");
+        return mongoTemplate.find(matchQuery, Match.class).stream().map(Match::getId).toList();
+    }
+
+    private Query eventQuery(Criteria criteria) {
+        Query query = Query.query(criteria);
+        query.fields().include("matchId").include("sequence").include("eventType").include("playerId")
+                .include("secondaryPlayerId").include("teamId").include("isPenalty").include("isOwnGoal")
+                .include("cardType");
+        return query;
+    }
+
+    private Query seasonKey(String playerId, SportType sportType, String season) {
+        return Query.query(Criteria.where("playerId").is(playerId)
+                .and("sportType").is(sportType)
+                .and("season").is(season));
+    }
+
+    private LocalDateTime seasonStart(String season) {
+        try {
+            int startYear = Integer.parseInt(season.split("-")[0].trim());
+            return LocalDateTime.of(startYear, Math.max(1, seasonStartMonth), 1, 0, 0);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid season: " + season);
+        }
+    }
+
+    private static LocalDateTime completedAt(Match match) {
+        if (match.getActualEndTime() != null) {
+            return match.getActualEndTime();
+        }
+        return match.getScheduledTime() != null ? match.getScheduledTime() : LocalDateTime.now();
+    }
+
+    private int partitionCount() {
+        return partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Counters of one player, for one match or summed over a season
+     */
+    private static final class Tally {
+        private final String playerId;
+        private final int[] counts = new int[FIELDS.length];
+        private String teamId;
+
+        private Tally(String playerId) {
+            this.playerId = playerId;
+        }
+
+        private void add(Tally other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            if (other.teamId != null) {
+                teamId = other.teamId;
+            }
+        }
+    }
+
+    /**
+     * Folds the events of a single match into per-player tallies
+     */
+    private static final class MatchFold {
+        private final Map<String, Tally> players = new HashMap<>();
+
+        private void apply(MatchEvent event) {
+            if (event.getEventType() == null) {
+                return;
+            }
+            Tally player = tally(event.getPlayerId());
+            Tally secondary = tally(event.getSecondaryPlayerId());
+            if (player != null && event.getTeamId() != null) {
+                player.teamId = event.getTeamId();
+            }
+
+            switch (event.getEventType()) {
+                case GOAL -> {
+                    // An own goal is not credited to the scorer
+                    if (player != null && !Boolean.TRUE.equals(event.getIsOwnGoal())) {
+                        bump(player, GOALS, SHOTS, SHOTS_ON_TARGET);
+                        if (Boolean.TRUE.equals(event.getIsPenalty())) {
+                            bump(player, PENALTIES_SCORED);
+                        }
+                        // Feeds report an assist either on the goal or as its own event
+                        bump(secondary, ASSISTS);
+                    }
+                }
+                case ASSIST -> bump(player, ASSISTS);
+                case SHOT -> bump(player, SHOTS);
+                case SHOT_ON_TARGET -> bump(player, SHOTS, SHOTS_ON_TARGET);
+                case PENALTY_MISSED -> bump(player, PENALTIES_MISSED, SHOTS);
+                case PENALTY_SAVED -> {
+                    bump(player, PENALTIES_MISSED, SHOTS, SHOTS_ON_TARGET);
+                    bump(secondary, PENALTIES_SAVED, SAVES);
+                }
+                case SAVE -> bump(player, SAVES);
+                case YELLOW_CARD -> {
+                    bump(player, YELLOW_CARDS);
+                    if (event.getCardType() == MatchEvent.CardType.SECOND_YELLOW) {
+                        bump(player, RED_CARDS);
+                    }
+                }
+                case RED_CARD -> bump(player, RED_CARDS);
+                case FOUL -> {
+                    bump(player, FOULS_COMMITTED);
+                    bump(secondary, FOULS_DRAWN);
+                }
+                case PASS -> bump(player, PASSES_ATTEMPTED, PASSES_COMPLETED);
+                case PASS_MISSED -> bump(player, PASSES_ATTEMPTED);
+                case CROSS -> bump(player, CROSSES);
+                case TACKLE -> bump(player, TACKLES);
+                case INTERCEPTION -> bump(player, INTERCEPTIONS);
+                case BLOCK -> bump(player, BLOCKS);
+                case CLEARANCE -> bump(player, CLEARANCES);
+                default -> {
+                    // Other events (substitutions, injuries) only record an appearance
+                }
+            }
+        }
+
+        /**
+         * Every player named in the match's events counts as having played it
+         */
+        private Collection<Tally> finish() {
+            for (Tally player : players.values()) {
+                player.counts[MATCHES_PLAYED] = 1;
+                if (player.counts[GOALS] >= 3) {
+                    player.counts[HAT_TRICKS] = 1;
+                }
+            }
+            return players.values();
+        }
+
+        private Tally tally(String playerId) {
+            return playerId == null ? null : players.computeIfAbsent(playerId, Tally::new);
+        }
+
+        private static void bump(Tally player, int... slots) {
+            if (player == null) {
+                return;
+            }
+            for (int slot : slots) {
+                player.counts[slot]++;
+            }
+        }
+    }
+}
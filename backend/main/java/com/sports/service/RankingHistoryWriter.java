@@ -0,0 +1,539 @@
+package com.sports.service;
+
+import com.sports.model.entity.Ranking;
+import com.sports.model.entity.RankingHistoryBucket;
+import com.sports.model.entity.RankingSnapshot;
+import com.sports.model.enums.SportType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ranking History Writer - Persists ranking history either as one Ranking row per
+ * entity (ROWS) or as compact per-day snapshot documents (SNAPSHOT). A ranking run
+ * writes nothing else in either mode.
+ *
+ * SNAPSHOT mode keeps a per-entity monthly history index for history reads. The
+ * nightly rollup builds it from the snapshots written since its last pass, so the
+ * index trails the latest run until the rollup has run. ROWS mode needs no index:
+ * history reads and rollups use the Ranking rows themselves.
+ */
+@Service
+@RequiredArgsConstructor
+public class RankingHistoryWriter {
+
+    static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final int INDEX_CHUNK = 1000;
+
+    public enum Mode {
+        ROWS,
+        SNAPSHOT
+    }
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${ranking.storage.mode:ROWS}")
+    private Mode mode;
+
+    @Value("${ranking.storage.snapshot-chunk-size:50000}")
+    private int snapshotChunkSize;
+
+    @Value("${ranking.storage.compress:false}")
+    private boolean compress;
+
+    public boolean isSnapshotMode() {
+        return mode == Mode.SNAPSHOT;
+    }
+
+    /**
+     * Start writing one ranking run for a sport and category
+     *
+     * @param runToken fencing token of the leased run, stamped on ROWS-mode rows; null outside a lease
+     */
+    public Batch open(SportType sportType, String category, LocalDateTime rankingDate, Long runToken) {
+        return new Batch(sportType, category, rankingDate, runToken);
+    }
+
+    /**
+     * Remove the ROWS-mode rows that runs abandoned by their leader wrote for a sport, i.e.
+     * rows stamped with a token in (completedToken, token). SNAPSHOT chunks need no cleanup:
+     * a re-run replaces the day's chunks.
+     *
+     * @return number of rows removed
+     */
+    public long discardAbandonedRuns(SportType sportType, long completedToken, long token) {
+        if (isSnapshotMode() || token - completedToken < 2) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("runToken").gt(completedToken).lt(token)
+                .and("sportType").is(sportType));
+        return mongoTemplate.remove(query, Ranking.class).getDeletedCount();
+    }
+
+    /**
+     * Record rows produced outside a full run (e.g. incremental rank shifts). SNAPSHOT mode
+     * has no snapshot to put them in, so they go straight into the history index.
+     */
+    public void append(List<Ranking> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (isSnapshotMode()) {
+            indexHistory(rows);
+        } else {
+            mongoTemplate.insert(rows, Ranking.class);
+        }
+    }
+
+    // ==================== Reads ====================
+
+    /**
+     * History points of one entity, oldest first
+     */
+    public List<Ranking> readHistory(String entityId, String category) {
+        return readHistory(entityId, category, null, null);
+    }
+
+    /**
+     * History points of one entity within the months [fromMonth, toMonth] (yyyy-MM, inclusive)
+     */
+    public List<Ranking> readHistory(String entityId, String category, String fromMonth, String toMonth) {
+        if (!isSnapshotMode()) {
+            return readRows(entityId, category, fromMonth, toMonth);
+        }
+        Criteria criteria = Criteria.where("entityId").is(entityId).and("rankingCategory").is(category);
+        if (fromMonth != null && toMonth != null) {
+            criteria.and("month").gte(fromMonth).lte(toMonth);
+        }
+        Query query = Query.query(criteria).with(Sort.by("month"));
+        List<Ranking> history = new ArrayList<>();
+        for (RankingHistoryBucket bucket : mongoTemplate.find(query, RankingHistoryBucket.class)) {
+            for (RankingHistoryBucket.HistoryPoint point : bucket.getPoints()) {
+                Ranking row = RankingService.historyRow(bucket.getSportType(), category, entityId, point.getRank(),
+                        point.getPreviousRank(), point.getRating(), null, point.getRankingDate());
+                row.setPoints(point.getPoints());
+                row.setRankingType(point.getRankingType());
+                row.setGeographicScope(point.getGeographicScope());
+                history.add(row);
+            }
+        }
+        return history;
+    }
+
+    private List<Ranking> readRows(String entityId, String category, String fromMonth, String toMonth) {
+        Criteria criteria = Criteria.where("TEAM".equals(category) ? "teamId" : "playerProfileId").is(entityId);
+        if (fromMonth != null && toMonth != null) {
+            criteria.and("rankingDate")
+                    .gte(YearMonth.parse(fromMonth, MONTH_FORMAT).atDay(1).atStartOfDay())
+                    .lt(YearMonth.parse(toMonth, MONTH_FORMAT).plusMonths(1).atDay(1).atStartOfDay());
+        }
+        return mongoTemplate.find(Query.query(criteria).with(Sort.by("rankingDate")), Ranking.class);
+    }
+
+    /**
+     * History points of every entity from the given day on, one entity at a time, for the
+     * rollups. The stream holds a cursor and must be closed.
+     */
+    public Stream<EntityHistory> streamHistories(LocalDate since) {
+        if (isSnapshotMode()) {
+            // Month buckets before the one holding the first day have no points on or after it
+            Query query = Query.query(Criteria.where("month").gte(since.format(MONTH_FORMAT)))
+                    .with(Sort.by("entityId", "rankingCategory", "month"));
+            query.cursorBatchSize(500);
+            return groupByEntity(mongoTemplate.stream(query, RankingHistoryBucket.class),
+                    bucket -> bucket.getRankingCategory() + "|" + bucket.getEntityId(),
+                    buckets -> new EntityHistory(buckets.get(0).getEntityId(), buckets.get(0).getRankingCategory(),
+                            buckets.get(0).getSportType(),
+                            buckets.stream().flatMap(bucket -> bucket.getPoints().stream()).toList()));
+        }
+        Query query = Query.query(Criteria.where("rankingDate").gte(since.atStartOfDay()))
+                .with(Sort.by("rankingCategory", "playerProfileId", "teamId", "rankingDate"))
+                .allowDiskUse(true);
+        query.cursorBatchSize(1000);
+        return groupByEntity(mongoTemplate.stream(query, Ranking.class),
+                row -> row.getRankingCategory() + "|" + entityId(row),
+                rows -> new EntityHistory(entityId(rows.get(0)), rows.get(0).getRankingCategory(),
+                        rows.get(0).getSportType(), rows.stream().map(RankingHistoryWriter::toPoint).toList()));
+    }
+
+    /**
+     * Turn a sorted stream into one element per run of equal keys
+     */
+    private static <T> Stream<EntityHistory> groupByEntity(Stream<T> source, Function<T, String> key,
+                                                           Function<List<T>, EntityHistory> toHistory) {
+        Iterator<T> items = source.iterator();
+        Iterator<EntityHistory> groups = new Iterator<>() {
+            private T pending = items.hasNext() ? items.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public EntityHistory next() {
+                if (pending == null) {
+                    throw new NoSuchElementException();
+                }
+                String groupKey = key.apply(pending);
+                List<T> group = new ArrayList<>();
+                do {
+                    group.add(pending);
+                    pending = items.hasNext() ? items.next() : null;
+                } while (pending != null && groupKey.equals(key.apply(pending)));
+                return toHistory.apply(group);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(groups, Spliterator.ORDERED), false)
+                .onClose(source::close);
+    }
+
+    /**
+     * Top entries of the most recent snapshot of a sport and ranking type
+     */
+    public List<Ranking> readLatestSnapshot(SportType sportType, String rankingType, int limit) {
+        Query latest = Query.query(Criteria.where("sportType").is(sportType).and("rankingType").is(rankingType))
+                .with(Sort.by(Sort.Direction.DESC, "snapshotDate"))
+                .limit(1);
+        RankingSnapshot newest = mongoTemplate.findOne(latest, RankingSnapshot.class);
+        if (newest == null) {
+            return new ArrayList<>();
+        }
+
+        Query firstChunks = Query.query(Criteria.where("sportType").is(sportType)
+                .and("rankingType").is(rankingType)
+                .and("snapshotDate").is(newest.getSnapshotDate())
+                .and("chunkIndex").is(0));
+        List<Ranking> rankings = new ArrayList<>();
+        for (RankingSnapshot snapshot : mongoTemplate.find(firstChunks, RankingSnapshot.class)) {
+            rankings.addAll(decode(snapshot, limit));
+        }
+        rankings.sort(Comparator.comparing(Ranking::getRank));
+        return rankings.size() > limit ? new ArrayList<>(rankings.subList(0, limit)) : rankings;
+    }
+
+    private List<Ranking> decode(RankingSnapshot snapshot, int limit) {
+        SnapshotBuffer buffer = Boolean.TRUE.equals(snapshot.getCompressed())
+                ? SnapshotBuffer.unpack(snapshot.getPayload())
+                : SnapshotBuffer.of(snapshot);
+        int count = Math.min(limit, buffer.size);
+        List<Ranking> rankings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Ranking row = RankingService.historyRow(snapshot.getSportType(), snapshot.getRankingCategory(),
+                    buffer.entityIds[i], buffer.ranks[i], nullable(buffer.previousRanks[i]),
+                    buffer.ratings[i], null, snapshot.getRankingDate());
+            row.setPoints(Double.isNaN(buffer.points[i]) ? null : buffer.points[i]);
+            row.setRankingType(snapshot.getRankingType());
+            row.setGeographicScope(buffer.scopes[i]);
+            rankings.add(row);
+        }
+        return rankings;
+    }
+
+    // ==================== Per-entity history index ====================
+
+    /**
+     * Add the snapshots written since the last call to the per-entity history index
+     * (SNAPSHOT mode only). Each snapshot is marked once indexed; adding is idempotent,
+     * so a pass that fails halfway is completed by the next one.
+     *
+     * @return number of history points indexed
+     */
+    public long indexSnapshots() {
+        if (!isSnapshotMode()) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("indexedAt").exists(false)).with(Sort.by("rankingDate", "chunkIndex"));
+        query.cursorBatchSize(1);
+        long indexed = 0;
+        try (Stream<RankingSnapshot> snapshots = mongoTemplate.stream(query, RankingSnapshot.class)) {
+            Iterator<RankingSnapshot> iterator = snapshots.iterator();
+            while (iterator.hasNext()) {
+                RankingSnapshot snapshot = iterator.next();
+                List<Ranking> rows = decode(snapshot, Integer.MAX_VALUE);
+                for (int from = 0; from < rows.size(); from += INDEX_CHUNK) {
+                    indexHistory(rows.subList(from, Math.min(rows.size(), from + INDEX_CHUNK)));
+                }
+                mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(snapshot.getId())),
+                        Update.update("indexedAt", LocalDateTime.now()), RankingSnapshot.class);
+                indexed += rows.size();
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * One upsert per entity per month bucket, adding all of its new points at once
+     */
+    private void indexHistory(List<Ranking> rows) {
+        Map<String, List<Ranking>> byBucket = new LinkedHashMap<>();
+        for (Ranking row : rows) {
+            String entityId = entityId(row);
+            String key = row.getRankingCategory() + "|" + entityId + "|" + row.getRankingDate().format(MONTH_FORMAT);
+            byBucket.computeIfAbsent(key, k -> new ArrayList<>(4)).add(row);
+        }
+
+        BulkOperations bucketOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RankingHistoryBucket.class);
+        for (List<Ranking> entityRows : byBucket.values()) {
+            Ranking first = entityRows.get(0);
+            Query query = Query.query(Criteria.where("entityId").is(entityId(first))
+                    .and("rankingCategory").is(first.getRankingCategory())
+                    .and("month").is(first.getRankingDate().format(MONTH_FORMAT)));
+            Update update = new Update()
+                    .setOnInsert("sportType", first.getSportType())
+                    .setOnInsert("isActive", true)
+                    .addToSet("points").each(entityRows.stream().map(RankingHistoryWriter::toPoint).toArray());
+            bucketOps.upsert(query, update);
+        }
+        bucketOps.execute();
+    }
+
+    private static RankingHistoryBucket.HistoryPoint toPoint(Ranking row) {
+        return RankingHistoryBucket.HistoryPoint.builder()
+                .rankingDate(row.getRankingDate())
+                .rankingType(row.getRankingType())
+                .rank(row.getRank())
+                .previousRank(row.getPreviousRank())
+                .rating(row.getRating())
+                .points(row.getPoints())
+                .geographicScope(row.getGeographicScope())
+                .build();
+    }
+
+    private static String entityId(Ranking row) {
+        return row.getPlayerProfileId() != null ? row.getPlayerProfileId() : row.getTeamId();
+    }
+
+    private static Integer nullable(int rank) {
+        return rank < 0 ? null : rank;
+    }
+
+    /**
+     * History points of one entity, as handed to the rollups
+     */
+    public record EntityHistory(String entityId, String rankingCategory, SportType sportType,
+                                List<RankingHistoryBucket.HistoryPoint> points) {
+    }
+
+    /**
+     * One ranking run. ROWS mode inserts rows per chunk; SNAPSHOT mode buffers
+     * entries per ranking type and writes a snapshot document every
+     * snapshot-chunk-size entries.
+     */
+    public final class Batch {
+        private final SportType sportType;
+        private final String category;
+        private final LocalDateTime rankingDate;
+        private final Long runToken;
+        private final Map<String, SnapshotBuffer> buffers = new LinkedHashMap<>();
+        private final Map<String, Integer> chunkIndexes = new LinkedHashMap<>();
+
+        private Batch(SportType sportType, String category, LocalDateTime rankingDate, Long runToken) {
+            this.sportType = sportType;
+            this.category = category;
+            this.rankingDate = rankingDate;
+            this.runToken = runToken;
+        }
+
+        public void write(List<Ranking> rows) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            if (!isSnapshotMode()) {
+                rows.forEach(row -> row.setRunToken(runToken));
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ranking.class)
+                        .insert(rows)
+                        .execute();
+                return;
+            }
+
+            for (Ranking row : rows) {
+                SnapshotBuffer buffer = buffers.computeIfAbsent(row.getRankingType(),
+                        type -> new SnapshotBuffer(Math.min(snapshotChunkSize, 1024)));
+                buffer.add(entityId(row), row.getRank(), row.getPreviousRank(), row.getRating(),
+                        row.getPoints(), row.getGeographicScope());
+                if (buffer.size >= snapshotChunkSize) {
+                    writeSnapshot(row.getRankingType(), buffer);
+                    buffers.remove(row.getRankingType());
+                }
+            }
+        }
+
+        public void close() {
+            buffers.forEach(this::writeSnapshot);
+            buffers.clear();
+        }
+
+        private void writeSnapshot(String rankingType, SnapshotBuffer buffer) {
+            int chunkIndex = chunkIndexes.merge(rankingType, 1, Integer::sum) - 1;
+            RankingSnapshot.RankingSnapshotBuilder snapshot = RankingSnapshot.builder()
+                    .sportType(sportType)
+                    .rankingType(rankingType)
+                    .rankingCategory(category)
+                    .snapshotDate(rankingDate.toLocalDate())
+                    .rankingDate(rankingDate)
+                    .chunkIndex(chunkIndex)
+                    .entryCount(buffer.size)
+                    .compressed(compress);
+
+            if (compress) {
+                snapshot.payload(buffer.pack());
+            } else {
+                buffer.copyInto(snapshot);
+            }
+            Query query = Query.query(Criteria.where("sportType").is(sportType)
+                    .and("rankingType").is(rankingType)
+                    .and("rankingCategory").is(category)
+                    .and("snapshotDate").is(rankingDate.toLocalDate())
+                    .and("chunkIndex").is(chunkIndex));
+            // Re-running a day's job replaces that day's chunk instead of duplicating it
+            mongoTemplate.findAndReplace(query, snapshot.build(), FindAndReplaceOptions.options().upsert());
+        }
+    }
+
+    /**
+     * Growable primitive arrays holding one snapshot chunk
+     */
+    private static final class SnapshotBuffer {
+        private String[] entityIds;
+        private int[] ranks;
+        private int[] previousRanks;
+        private double[] ratings;
+        private double[] points;
+        private String[] scopes;
+        private int size;
+
+        private SnapshotBuffer(int capacity) {
+            entityIds = new String[capacity];
+            ranks = new int[capacity];
+            previousRanks = new int[capacity];
+            ratings = new double[capacity];
+            points = new double[capacity];
+            scopes = new String[capacity];
+        }
+
+        private void add(String entityId, Integer rank, Integer previousRank, Double rating,
+                         Double entryPoints, String scope) {
+            if (size == entityIds.length) {
+                int capacity = Math.max(16, size * 2);
+                entityIds = Arrays.copyOf(entityIds, capacity);
+                ranks = Arrays.copyOf(ranks, capacity);
+                previousRanks = Arrays.copyOf(previousRanks, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                points = Arrays.copyOf(points, capacity);
+                scopes = Arrays.copyOf(scopes, capacity);
+            }
+            entityIds[size] = entityId;
+            ranks[size] = rank == null ? -1 : rank;
+            previousRanks[size] = previousRank == null ? -1 : previousRank;
+            ratings[size] = rating == null ? 0.0 : rating;
+            points[size] = entryPoints == null ? Double.NaN : entryPoints;
+            scopes[size] = scope;
+            size++;
+        }
+
+        private void copyInto(RankingSnapshot.RankingSnapshotBuilder snapshot) {
+            List<Integer> rankList = new ArrayList<>(size);
+            List<Integer> previousList = new ArrayList<>(size);
+            List<Double> ratingList = new ArrayList<>(size);
+            List<Double> pointList = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                rankList.add(ranks[i]);
+                previousList.add(previousRanks[i]);
+                ratingList.add(ratings[i]);
+                pointList.add(Double.isNaN(points[i]) ? null : points[i]);
+            }
+            snapshot.entityIds(Arrays.asList(Arrays.copyOf(entityIds, size)))
+                    .ranks(rankList)
+                    .previousRanks(previousList)
+                    .ratings(ratingList)
+                    .points(pointList);
+            if (Arrays.stream(scopes, 0, size).anyMatch(scope -> scope != null)) {
+                snapshot.geographicScopes(Arrays.asList(Arrays.copyOf(scopes, size)));
+            }
+        }
+
+        private static SnapshotBuffer of(RankingSnapshot snapshot) {
+            int count = snapshot.getEntityIds() == null ? 0 : snapshot.getEntityIds().size();
+            SnapshotBuffer buffer = new SnapshotBuffer(Math.max(1, count));
+            for (int i = 0; i < count; i++) {
+                Double entryPoints = snapshot.getPoints() == null ? null : snapshot.getPoints().get(i);
+                String scope = snapshot.getGeographicScopes() == null ? null : snapshot.getGeographicScopes().get(i);
+                buffer.add(snapshot.getEntityIds().get(i), snapshot.getRanks().get(i),
+                        nullable(snapshot.getPreviousRanks().get(i)), snapshot.getRatings().get(i), entryPoints, scope);
+            }
+            return buffer;
+        }
+
+        private byte[] pack() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+                out.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    out.writeUTF(entityIds[i]);
+                    out.writeInt(ranks[i]);
+                    out.writeInt(previousRanks[i]);
+                    out.writeDouble(ratings[i]);
+                    out.writeDouble(points[i]);
+                    out.writeUTF(scopes[i] == null ? "" : scopes[i]);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static SnapshotBuffer unpack(byte[] payload) {
+            try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+                int count = in.readInt();
+                SnapshotBuffer buffer = new SnapshotBuffer(Math.max(1, count));
+                for (int i = 0; i < count; i++) {
+                    String entityId = in.readUTF();
+                    int rank = in.readInt();
+                    int previousRank = in.readInt();
+                    double rating = in.readDouble();
+                    double entryPoints = in.readDouble();
+                    String scope = in.readUTF();
+                    buffer.add(entityId, rank, nullable(previousRank), rating,
+                            Double.isNaN(entryPoints) ? null : entryPoints, scope.isEmpty() ? null : scope);
+                }
+                return buffer;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.sports.service;
+
+import com.sports.dto.RankingJobProgress;
+import com.sports.dto.RankingRunStats;
+import com.sports.model.entity.PlayerProfile;
+import com.sports.model.entity.RankingJobRun;
+import com.sports.model.entity.Team;
+import com.sports.model.enums.RankingJobStatus;
+import com.sports.model.enums.SportType;
+import com.sports.repository.RankingJobRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ranking Job Coordinator - Runs the per-sport ranking recalculations concurrently
+ * on a bounded pool, tracks their live progress and records every run.
+ *
+ * A scheduled run checks its lease before every chunk it writes and stamps its history
+ * rows with the fencing token. A run that took over from a stalled leader removes that
+ * leader's rows once its own sport completed, since it has rewritten all of them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankingJobCoordinator {
+
+    private final RankingService rankingService;
+    private final RankingHistoryWriter historyWriter;
+    private final JobLeaseService leaseService;
+    private final RankingJobRunRepository runRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${ranking.job.parallelism:4}")
+    private int parallelism;
+
+    private final Map<SportType, SportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism), task -> {
+            Thread thread = new Thread(task, "ranking-job-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Scheduled task to recalculate rankings daily. Only the lease holder runs it,
+     * and it waits for the sports so the lease is held for the whole run.
+     */
+    @LeaderOnly(value = "ranking-nightly", leaseSeconds = 120)
+    @Scheduled(cron = "0 0 2 * * *") // Run at 2 AM daily
+    public void scheduledRankingUpdate() throws InterruptedException {
+        JobLeaseService.Lease lease = JobLeaseService.currentLease();
+        List<SportJob> submitted = new ArrayList<>();
+        for (SportType sportType : SportType.values()) {
+            submitted.add(submitJob(sportType, "SCHEDULED", lease));
+        }
+        for (SportJob job : submitted) {
+            try {
+                job.future.get();
+            } catch (ExecutionException | CancellationException e) {
+                // Outcome is recorded by the job itself
+            }
+        }
+    }
+
+    /**
+     * Queue a run for every sport; sports that are already running are left alone
+     */
+    public List<RankingJobProgress> runAll(String trigger) {
+        for (SportType sportType : SportType.values()) {
+            submit(sportType, trigger);
+        }
+        return getProgress();
+    }
+
+    /**
+     * Queue a run for one sport unless one is already queued or running
+     */
+    public RankingJobProgress submit(SportType sportType, String trigger) {
+        return submitJob(sportType, trigger, null).toProgress();
+    }
+
+    private SportJob submitJob(SportType sportType, String trigger, JobLeaseService.Lease lease) {
+        return jobs.compute(sportType, (sport, current) -> {
+            if (current != null && current.isActive()) {
+                return current;
+            }
+            SportJob job = new SportJob(sport, trigger, lease);
+            job.future = executor.submit(() -> run(job));
+            return job;
+        });
+    }
+
+    public RankingJobProgress cancel(SportType sportType) {
+        SportJob job = jobs.get(sportType);
+        if (job == null || !job.isActive()) {
+            throw new RuntimeException("No ranking job is running for " + sportType);
+        }
+        job.cancelled = true;
+        // A job still in the queue never runs, so record its outcome here; a running job
+        // sees the flag at its next progress report and records the outcome itself
+        if (job.claimed.compareAndSet(false, true)) {
+            job.future.cancel(false);
+            finish(job, RankingJobStatus.CANCELLED, null);
+        }
+        return job.toProgress();
+    }
+
+    public RankingJobProgress retry(SportType sportType) {
+        SportJob job = jobs.get(sportType);
+        if (job != null && job.isActive()) {
+            throw new RuntimeException("Ranking job for " + sportType + " is still " + job.status);
+        }
+        return submit(sportType, "RETRY");
+    }
+
+    public List<RankingJobProgress> getProgress() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(job -> job.sportType))
+                .map(SportJob::toProgress)
+                .toList();
+    }
+
+    public List<RankingJobRun> getRunHistory(SportType sportType, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, 500)));
+        return sportType == null
+                ? runRepository.findAllByOrderByStartedAtDesc(page)
+                : runRepository.findBySportTypeOrderByStartedAtDesc(sportType, page);
+    }
+
+    private void run(SportJob job) {
+        if (!job.claimed.compareAndSet(false, true)) {
+            return; // Cancelled while queued
+        }
+        long rankChanges = 0;
+        RankingProgressListener listener = new RankingProgressListener() {
+            @Override
+            public void chunkWritten(long processed) {
+                job.advance(processed);
+            }
+
+            @Override
+            public void beforeChunk() {
+                // Another node took over the lease; stop before writing with a stale fencing token
+                if (job.lease != null && !leaseService.holds(job.lease)) {
+                    throw new CancellationException("Ranking lease lost, " + job.sportType + " handed over");
+                }
+            }
+
+            @Override
+            public Long fencingToken() {
+                return job.lease == null ? null : job.lease.getFencingToken();
+            }
+        };
+        try {
+            job.start(countRanked(job.sportType));
+            RankingRunStats players = rankingService.streamGeographicPlayerRankings(job.sportType, listener);
+            job.completedPhases += players.getProcessed();
+            rankChanges += players.getRankChanges();
+
+            RankingRunStats teams = rankingService.aggregateTeamRankings(job.sportType, listener);
+            job.completedPhases += teams.getProcessed();
+            rankChanges += teams.getRankChanges();
+
+            job.rankChanges = rankChanges;
+            discardAbandonedRuns(job);
+            finish(job, RankingJobStatus.COMPLETED, null);
+        } catch (CancellationException e) {
+            log.warn("Ranking job for {} cancelled after {} of {} entities", job.sportType, job.processed, job.total);
+            finish(job, RankingJobStatus.CANCELLED, null);
+        } catch (Exception e) {
+            log.error("Ranking job for {} failed", job.sportType, e);
+            finish(job, RankingJobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * After a take-over, drop the rows the stalled leader wrote for this sport. A failure
+     * only leaves those rows in place, so it does not fail the run.
+     */
+    private void discardAbandonedRuns(SportJob job) {
+        if (job.lease == null || !job.lease.isTakeOver()) {
+            return;
+        }
+        try {
+            long removed = historyWriter.discardAbandonedRuns(job.sportType,
+                    job.lease.getCompletedToken(), job.lease.getFencingToken());
+            if (removed > 0) {
+                log.info("Removed {} {} ranking rows of abandoned runs", removed, job.sportType);
+            }
+        } catch (Exception e) {
+            log.warn("Could not remove {} ranking rows of abandoned runs: {}", job.sportType, e.getMessage());
+        }
+    }
+
+    private long countRanked(SportType sportType) {
+        Query query = Query.query(Criteria.where("sportType").is(sportType));
+        return mongoTemplate.count(query, PlayerProfile.class) + mongoTemplate.count(query, Team.class);
+    }
+
+    private void finish(SportJob job, RankingJobStatus status, String error) {
+        job.endNanos = System.nanoTime();
+        job.status = status;
+        job.error = error;
+        job.finishedAt = LocalDateTime.now();
+        try {
+            RankingJobProgress progress = job.toProgress();
+            RankingJobRun run = RankingJobRun.builder()
+                    .sportType(job.sportType)
+                    .trigger(job.trigger)
+                    .status(status)
+                    .startedAt(job.startedAt != null ? job.startedAt : job.finishedAt)
+                    .finishedAt(job.finishedAt)
+                    .total(job.total)
+                    .processed(job.processed)
+                    .rankChanges(job.rankChanges)
+                    .durationMs(job.elapsedMs())
+                    .docsPerSecond(progress.getDocsPerSecond())
+                    .error(error)
+                    .build();
+            job.runId = runRepository.save(run).getId();
+        } catch (Exception e) {
+            log.warn("Could not record ranking job run for {}: {}", job.sportType, e.getMessage());
+        }
+    }
+
+    /**
+     * Live state of one sport's run, written by its worker thread and read by the admin endpoints
+     */
+    private static final class SportJob {
+        private final SportType sportType;
+        private final String trigger;
+        private final JobLeaseService.Lease lease;
+        private volatile RankingJobStatus status = RankingJobStatus.QUEUED;
+        private volatile boolean cancelled;
+        // Taken by whichever comes first: the worker starting the run or a cancel while queued
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile long total;
+        private volatile long processed;
+        private volatile long completedPhases;
+        private volatile long rankChanges;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile String runId;
+        private Future<?> future;
+
+        private SportJob(SportType sportType, String trigger, JobLeaseService.Lease lease) {
+            this.sportType = sportType;
+            this.trigger = trigger;
+            this.lease = lease;
+        }
+
+        private void start(long total) {
+            this.total = total;
+            this.startNanos = System.nanoTime();
+            this.startedAt = LocalDateTime.now();
+            this.status = RankingJobStatus.RUNNING;
+        }
+
+        private void advance(long processedInPhase) {
+            processed = completedPhases + processedInPhase;
+            if (cancelled) {
+                throw new CancellationException("Ranking job for " + sportType + " cancelled");
+            }
+            // The heartbeat saw another node take over the lease
+            if (lease != null && lease.isLost()) {
+                throw new CancellationException("Ranking lease lost, " + sportType + " handed over");
+            }
+        }
+
+        private boolean isActive() {
+            return status == RankingJobStatus.QUEUED || status == RankingJobStatus.RUNNING;
+        }
+
+        private long elapsedMs() {
+            if (startNanos == 0) {
+                return 0;
+            }
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            return Math.max(1, (end - startNanos) / 1_000_000);
+        }
+
+        private RankingJobProgress toProgress() {
+            long elapsedMs = elapsedMs();
+            long done = processed;
+            long expected = Math.max(total, done);
+            double docsPerSecond = elapsedMs == 0 ? 0 : done * 1000.0 / elapsedMs;
+            Long etaSeconds = status != RankingJobStatus.RUNNING || done == 0 ? null
+                    : Math.round((expected - done) / docsPerSecond);
+
+            return RankingJobProgress.builder()
+                    .runId(runId)
+                    .sportType(sportType)
+                    .trigger(trigger)
+                    .status(status)
+                    .processed(done)
+                    .total(expected)
+                    .percent(expected == 0 ? (isActive() ? 0 : 100) : done * 100.0 / expected)
+                    .etaSeconds(etaSeconds)
+                    .docsPerSecond(docsPerSecond)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sports.service;
+
+/**
+ * Callback invoked by streaming ranking runs before and after every written chunk.
+ * Throwing from it aborts the run between chunks.
+ */
+@FunctionalInterface
+public interface RankingProgressListener {
+
+    RankingProgressListener NONE = processed -> { };
+
+    /**
+     * @param processed entities ranked so far in the current run
+     */
+    void chunkWritten(long processed);
+
+    /**
+     * Called right before each chunk is written; throwing skips the write
+     */
+    default void beforeChunk() {
+    }
+
+    /**
+     * Fencing token of the job lease the run holds, stamped on its history rows; null outside a leased run
+     */
+    default Long fencingToken() {
+        return null;
+    }
+}
@@ -0,0 +1,288 @@
+package com.sports.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.sports.dto.RankingHistoryPoint;
+import com.sports.model.entity.Ranking;
+import com.sports.model.entity.RankingHistoryBucket;
+import com.sports.model.entity.RankingRollup;
+import com.sports.model.enums.HistoryResolution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Ranking Rollup Service - Maintains weekly/monthly rollups of the daily ranking
+ * history, compacts old daily points of the history index, and serves downsampled
+ * history series. In SNAPSHOT mode it also brings the history index up to date first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankingRollupService {
+
+    private final MongoTemplate mongoTemplate;
+    private final RankingHistoryWriter historyWriter;
+
+    @Value("${ranking.rollup.daily-retention-days:90}")
+    private int dailyRetentionDays;
+
+    @Value("${ranking.rollup.weekly-retention-days:730}")
+    private int weeklyRetentionDays;
+
+    @Value("${ranking.rollup.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Scheduled task to roll up and compact ranking history after the nightly ranking run
+     */
+    @LeaderOnly(value = "ranking-rollup", leaseSeconds = 120)
+    @Scheduled(cron = "${ranking.rollup.cron:0 30 4 * * *}")
+    public void scheduledRollup() {
+        rollUp();
+    }
+
+    /**
+     * Recompute every weekly/monthly period that is still fully covered by daily
+     * points, then drop daily points older than the retention window
+     *
+     * @return number of rollup documents written
+     */
+    public long rollUp() {
+        long started = System.currentTimeMillis();
+        LocalDate cutoff = LocalDate.now().minusDays(dailyRetentionDays);
+        long written = 0;
+
+        long indexed = historyWriter.indexSnapshots();
+        if (indexed > 0) {
+            log.info("Indexed {} snapshot history points", indexed);
+        }
+
+        try (Stream<RankingHistoryWriter.EntityHistory> histories = historyWriter.streamHistories(cutoff)) {
+            Iterator<RankingHistoryWriter.EntityHistory> iterator = histories.iterator();
+            BulkOperations rollupOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RankingRollup.class);
+            int pending = 0;
+
+            while (iterator.hasNext()) {
+                pending += upsertRollups(rollupOps, iterator.next(), cutoff);
+
+                if (pending >= 1000) {
+                    rollupOps.execute();
+                    written += pending;
+                    rollupOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RankingRollup.class);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                rollupOps.execute();
+                written += pending;
+            }
+        }
+
+        compact(cutoff);
+        log.info("Ranking rollup wrote {} periods in {} ms", written, System.currentTimeMillis() - started);
+        return written;
+    }
+
+    private int upsertRollups(BulkOperations rollupOps, RankingHistoryWriter.EntityHistory history, LocalDate cutoff) {
+        Map<String, Accumulator> periods = new LinkedHashMap<>();
+
+        for (RankingHistoryBucket.HistoryPoint point : history.points()) {
+            if (point.getRankingDate() == null || point.getRank() == null) {
+                continue;
+            }
+            LocalDate date = point.getRankingDate().toLocalDate();
+            LocalDate week = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            LocalDate month = date.withDayOfMonth(1);
+            // Periods starting before the cutoff were finalised while still fully retained
+            if (!week.isBefore(cutoff)) {
+                periods.computeIfAbsent(point.getRankingType() + "|W|" + week,
+                        key -> new Accumulator(point.getRankingType(), HistoryResolution.WEEKLY, week)).add(point);
+            }
+            if (!month.isBefore(cutoff)) {
+                periods.computeIfAbsent(point.getRankingType() + "|M|" + month,
+                        key -> new Accumulator(point.getRankingType(), HistoryResolution.MONTHLY, month)).add(point);
+            }
+        }
+
+        for (Accumulator period : periods.values()) {
+            Query query = Query.query(Criteria.where("entityId").is(history.entityId())
+                    .and("rankingCategory").is(history.rankingCategory())
+                    .and("rankingType").is(period.rankingType)
+                    .and("resolution").is(period.resolution)
+                    .and("periodStart").is(period.periodStart));
+            Update update = new Update()
+                    .set("sportType", history.sportType())
+                    .set("lastRank", period.lastRank)
+                    .set("bestRank", period.bestRank)
+                    .set("worstRank", period.worstRank)
+                    .set("averageRank", period.rankSum / period.samples)
+                    .set("lastRating", period.lastRating)
+                    .set("samples", period.samples)
+                    .setOnInsert("isActive", true);
+            rollupOps.upsert(query, update);
+        }
+        return periods.size();
+    }
+
+    /**
+     * Drop daily points older than the cutoff and weekly rollups past their retention
+     */
+    private void compact(LocalDate cutoff) {
+        Date cutoffDate = Date.from(cutoff.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        String cutoffMonth = cutoff.format(RankingHistoryWriter.MONTH_FORMAT);
+        String collection = mongoTemplate.getCollectionName(RankingHistoryBucket.class);
+
+        mongoTemplate.getCollection(collection).updateMany(
+                Filters.lte("month", cutoffMonth),
+                Updates.pull("points", Filters.lt("ranking_date", cutoffDate)));
+        mongoTemplate.getCollection(collection).deleteMany(Filters.size("points", 0));
+
+        mongoTemplate.remove(Query.query(Criteria.where("resolution").is(HistoryResolution.WEEKLY)
+                .and("periodStart").lt(LocalDate.now().minusDays(weeklyRetentionDays))), RankingRollup.class);
+    }
+
+    // ==================== Reads ====================
+
+    /**
+     * Ranking history of a player (PLAYER) or team (TEAM) between two dates at the
+     * requested resolution; when no resolution is given one is picked so the series
+     * stays small regardless of the range
+     */
+    public Page<RankingHistoryPoint> getHistorySeries(String category, String entityId, String rankingType,
+                                                      LocalDate from, LocalDate to, HistoryResolution resolution,
+                                                      int page, int size) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusYears(1) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        HistoryResolution effective = resolution != null ? resolution : autoResolution(start, end);
+        Pageable pageable = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, maxPageSize)));
+
+        if (effective == HistoryResolution.DAILY) {
+            return dailySeries(category, entityId, rankingType, start, end, pageable);
+        }
+
+        Query query = Query.query(Criteria.where("entityId").is(entityId)
+                .and("rankingCategory").is(category)
+                .and("rankingType").is(rankingType)
+                .and("resolution").is(effective)
+                .and("periodStart").gte(start).lte(end));
+        long total = mongoTemplate.count(query, RankingRollup.class);
+        List<RankingHistoryPoint> points = mongoTemplate.find(query.with(Sort.by("periodStart")).with(pageable),
+                        RankingRollup.class).stream()
+                .map(rollup -> RankingHistoryPoint.builder()
+                        .periodStart(rollup.getPeriodStart())
+                        .resolution(rollup.getResolution())
+                        .rankingType(rollup.getRankingType())
+                        .rank(rollup.getLastRank())
+                        .bestRank(rollup.getBestRank())
+                        .worstRank(rollup.getWorstRank())
+                        .averageRank(rollup.getAverageRank())
+                        .rating(rollup.getLastRating())
+                        .samples(rollup.getSamples() == null ? 0 : rollup.getSamples())
+                        .build())
+                .toList();
+        return new PageImpl<>(points, pageable, total);
+    }
+
+    private Page<RankingHistoryPoint> dailySeries(String category, String entityId, String rankingType,
+                                                  LocalDate start, LocalDate end, Pageable pageable) {
+        List<RankingHistoryPoint> points = historyWriter.readHistory(entityId, category,
+                        start.format(RankingHistoryWriter.MONTH_FORMAT), end.format(RankingHistoryWriter.MONTH_FORMAT))
+                .stream()
+                .filter(row -> rankingType.equals(row.getRankingType()))
+                .filter(row -> {
+                    LocalDate date = row.getRankingDate().toLocalDate();
+                    return !date.isBefore(start) && !date.isAfter(end);
+                })
+                .map(RankingRollupService::dailyPoint)
+                .toList();
+
+        int from = (int) Math.min(pageable.getOffset(), points.size());
+        int to = Math.min(from + pageable.getPageSize(), points.size());
+        return new PageImpl<>(points.subList(from, to), pageable, points.size());
+    }
+
+    private static RankingHistoryPoint dailyPoint(Ranking row) {
+        return RankingHistoryPoint.builder()
+                .periodStart(row.getRankingDate().toLocalDate())
+                .resolution(HistoryResolution.DAILY)
+                .rankingType(row.getRankingType())
+                .rank(row.getRank())
+                .bestRank(row.getRank())
+                .worstRank(row.getRank())
+                .averageRank(row.getRank().doubleValue())
+                .rating(row.getRating())
+                .samples(1)
+                .build();
+    }
+
+    private HistoryResolution autoResolution(LocalDate start, LocalDate end) {
+        long days = ChronoUnit.DAYS.between(start, end);
+        if (days <= dailyRetentionDays && !start.isBefore(LocalDate.now().minusDays(dailyRetentionDays))) {
+            return HistoryResolution.DAILY;
+        }
+        return days <= weeklyRetentionDays ? HistoryResolution.WEEKLY : HistoryResolution.MONTHLY;
+    }
+
+    /**
+     * Running aggregate of one rollup period
+     */
+    private static final class Accumulator {
+        private final String rankingType;
+        private final HistoryResolution resolution;
+        private final LocalDate periodStart;
+        private java.time.LocalDateTime lastDate;
+        private Integer lastRank;
+        private Double lastRating;
+        private int bestRank = Integer.MAX_VALUE;
+        private int worstRank = Integer.MIN_VALUE;
+        private double rankSum;
+        private int samples;
+
+        private Accumulator(String rankingType, HistoryResolution resolution, LocalDate periodStart) {
+            this.rankingType = rankingType;
+            this.resolution = resolution;
+            this.periodStart = periodStart;
+        }
+
+        private void add(RankingHistoryBucket.HistoryPoint point) {
+            int rank = point.getRank();
+            bestRank = Math.min(bestRank, rank);
+            worstRank = Math.max(worstRank, rank);
+            rankSum += rank;
+            samples++;
+            if (lastDate == null || !point.getRankingDate().isBefore(lastDate)) {
+                lastDate = point.getRankingDate();
+                lastRank = rank;
+                lastRating = point.getRating();
+            }
+        }
+    }
+}
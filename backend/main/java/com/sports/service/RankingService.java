@@ -1,26 +1,48 @@
 package com.sports.service;
 
 
+import com.mongodb.client.MongoCollection;
+import com.sports.dto.LeaderboardEntry;
+import com.sports.dto.RankingRunStats;
 import com.sports.model.entity.PlayerProfile;
 import com.sports.model.entity.Ranking;
 import com.sports.model.entity.Team;
+import com.sports.model.entity.User;
 import com.sports.model.enums.SportType;
 import com.sports.repository.PlayerProfileRepository;
 import com.sports.repository.RankingRepository;
 import com.sports.repository.TeamRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Ranking Service - Calculates and updates rankings
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RankingService {
@@ -28,6 +50,15 @@ public class RankingService {
     private final RankingRepository rankingRepository;
     private final PlayerProfileRepository playerProfileRepository;
     private final TeamRepository teamRepository;
+    private final MongoTemplate mongoTemplate;
+    private final LeaderboardService leaderboardService;
+    private final MatchRatingService matchRatingService;
+    private final RankingHistoryWriter historyWriter;
+    
+    @Value("${ranking.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+    
+    private volatile Boolean windowFieldsSupported;
     
     /**
      * Calculate player rankings for a specific sport
@@ -104,53 +135,458 @@ public class RankingService {
     }
     
     /**
-     * Update player rating after a match (ELO-like system)
+     * Calculate player rankings by streaming profiles already sorted by rating
+     * and writing rank updates and history rows in unordered bulk chunks
      */
-    @Transactional
-    public void updatePlayerRating(String winnerId, String loserId, SportType sportType) {
-        PlayerProfile winner = playerProfileRepository.findById(winnerId)
-                .orElseThrow(() -> new RuntimeException("Winner profile not found"));
-        PlayerProfile loser = playerProfileRepository.findById(loserId)
-                .orElseThrow(() -> new RuntimeException("Loser profile not found"));
+    public RankingRunStats streamPlayerRankings(SportType sportType) {
+        return streamPlayerRankings(sportType, RankingProgressListener.NONE);
+    }
+    
+    public RankingRunStats streamPlayerRankings(SportType sportType, RankingProgressListener listener) {
+        Query query = rankedQuery(sportType, "globalRank", "totalPoints");
+        
+        try (Stream<PlayerProfile> players = mongoTemplate.stream(query, PlayerProfile.class)) {
+            return writeRankings(sportType, "PLAYER", PlayerProfile.class, "globalRank", listener,
+                    players.map(player -> new RankedEntry(
+                            player.getId(), player.getGlobalRank(), player.getRating(), player.getTotalPoints())));
+        }
+    }
+    
+    /**
+     * Calculate team rankings by streaming teams already sorted by rating
+     * and writing rank updates and history rows in unordered bulk chunks
+     */
+    public RankingRunStats streamTeamRankings(SportType sportType) {
+        return streamTeamRankings(sportType, RankingProgressListener.NONE);
+    }
+    
+    public RankingRunStats streamTeamRankings(SportType sportType, RankingProgressListener listener) {
+        Query query = rankedQuery(sportType, "currentRank", "totalPoints");
+        
+        try (Stream<Team> teams = mongoTemplate.stream(query, Team.class)) {
+            return writeRankings(sportType, "TEAM", Team.class, "currentRank", listener,
+                    teams.map(team -> new RankedEntry(
+                            team.getId(), team.getCurrentRank(), team.getRating(), team.getTotalPoints())));
+        }
+    }
+    
+    /**
+     * Calculate team ranks inside Mongo: a $setWindowFields stage numbers the
+     * sport's teams by rating and $merge writes the ranks back, so only the
+     * id, rating and points projection used for history reaches the JVM.
+     * Servers older than 5.0 fall back to {@link #streamTeamRankings}.
+     */
+    public RankingRunStats aggregateTeamRankings(SportType sportType) {
+        return aggregateTeamRankings(sportType, RankingProgressListener.NONE);
+    }
+    
+    public RankingRunStats aggregateTeamRankings(SportType sportType, RankingProgressListener listener) {
+        if (!supportsWindowFields()) {
+            return streamTeamRankings(sportType, listener);
+        }
+        RunMeter meter = new RunMeter(listener);
+        MongoCollection<Document> teams = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Team.class));
+        listener.beforeChunk();
+        
+        // $documentNumber over (rating desc, _id asc) gives the same distinct ranks as the streaming path
+        teams.aggregate(List.of(
+                new Document("$match", new Document("sport_type", sportType.name())),
+                new Document("$setWindowFields", new Document("sortBy", new Document("rating", -1).append("_id", 1))
+                        .append("output", new Document("rank", new Document("$documentNumber", new Document())))),
+                new Document("$project", new Document("previous_rank", "$current_rank").append("current_rank", "$rank")),
+                new Document("$merge", new Document("into", teams.getNamespace().getCollectionName())
+                        .append("on", "_id")
+                        .append("whenMatched", "merge")
+                        .append("whenNotMatched", "discard"))))
+                .allowDiskUse(true)
+                .toCollection();
+        
+        LocalDateTime now = LocalDateTime.now();
+        RankingHistoryWriter.Batch batch = historyWriter.open(sportType, "TEAM", now, listener.fencingToken());
+        List<Ranking> history = new ArrayList<>(bulkChunkSize);
+        Query query = rankedQuery(sportType, "currentRank", "previousRank", "totalPoints");
+        
+        try (Stream<Team> ranked = mongoTemplate.stream(query, Team.class)) {
+            Iterator<Team> iterator = ranked.iterator();
+            while (iterator.hasNext()) {
+                Team team = iterator.next();
+                meter.processed++;
+                if (!Objects.equals(team.getPreviousRank(), team.getCurrentRank())) {
+                    meter.rankChanges++;
+                }
+                history.add(historyRow(sportType, "TEAM", team.getId(), team.getCurrentRank(),
+                        team.getPreviousRank(), team.getRating(), team.getTotalPoints(), now));
+                
+                if (history.size() >= bulkChunkSize) {
+                    listener.beforeChunk();
+                    batch.write(history);
+                    meter.chunkWritten();
+                    history = new ArrayList<>(bulkChunkSize);
+                }
+            }
+        }
+        if (!history.isEmpty()) {
+            listener.beforeChunk();
+            batch.write(history);
+            meter.chunkWritten();
+        }
+        batch.close();
+        return meter.finish(sportType, "TEAM");
+    }
+    
+    /**
+     * $setWindowFields needs MongoDB 5.0; the answer is cached after the first check
+     */
+    private boolean supportsWindowFields() {
+        Boolean supported = windowFieldsSupported;
+        if (supported == null) {
+            try {
+                String version = mongoTemplate.executeCommand(new Document("buildInfo", 1)).getString("version");
+                supported = Integer.parseInt(version.substring(0, version.indexOf('.'))) >= 5;
+            } catch (Exception e) {
+                log.warn("Could not read MongoDB version, using in-JVM team rankings: {}", e.getMessage());
+                supported = false;
+            }
+            windowFieldsSupported = supported;
+            if (!supported) {
+                log.info("MongoDB older than 5.0, team rankings are computed in the JVM");
+            }
+        }
+        return supported;
+    }
+    
+    private Query rankedQuery(SportType sportType, String... fields) {
+        Query query = new Query(Criteria.where("sportType").is(sportType))
+                .with(Sort.by(Sort.Order.desc("rating"), Sort.Order.asc("id")));
+        query.fields().include("rating").include(fields);
+        query.cursorBatchSize(bulkChunkSize);
+        return query;
+    }
+    
+    private RankingRunStats writeRankings(SportType sportType, String category, Class<?> entityClass,
+                                          String rankField, RankingProgressListener listener,
+                                          Stream<RankedEntry> entries) {
+        RunMeter meter = new RunMeter(listener);
+        LocalDateTime now = LocalDateTime.now();
+        RankingHistoryWriter.Batch batch = historyWriter.open(sportType, category, now, listener.fencingToken());
+        
+        BulkOperations rankOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+        List<Ranking> history = new ArrayList<>(bulkChunkSize);
+        int pendingRankUpdates = 0;
+        
+        Iterator<RankedEntry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            RankedEntry entry = iterator.next();
+            int rank = (int) ++meter.processed;
+            
+            // Unchanged ranks need no write, only a history row
+            if (!Objects.equals(entry.previousRank(), rank)) {
+                rankOps.updateOne(Query.query(Criteria.where("id").is(entry.id())), Update.update(rankField, rank));
+                pendingRankUpdates++;
+                meter.rankChanges++;
+            }
+            history.add(historyRow(sportType, category, entry, rank, now));
+            
+            if (history.size() >= bulkChunkSize) {
+                listener.beforeChunk();
+                flushChunk(rankOps, pendingRankUpdates, history, batch);
+                meter.chunkWritten();
+                rankOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+                history = new ArrayList<>(bulkChunkSize);
+                pendingRankUpdates = 0;
+            }
+        }
         
-        final double K = 32; // K-factor for rating calculation
+        if (!history.isEmpty()) {
+            listener.beforeChunk();
+            flushChunk(rankOps, pendingRankUpdates, history, batch);
+            meter.chunkWritten();
+        }
+        batch.close();
+        return meter.finish(sportType, category);
+    }
+    
+    /**
+     * Calculate GLOBAL, NATIONAL, STATE and CITY player rankings in one pass.
+     *
+     * Profiles arrive from the rating-sorted cursor, so every geographic bucket
+     * sees its members in rank order and its rank is a running counter. Each
+     * chunk is joined with its users' country/state/city in one query, and all
+     * four rank levels are written in the same bulk batch.
+     */
+    public RankingRunStats streamGeographicPlayerRankings(SportType sportType) {
+        return streamGeographicPlayerRankings(sportType, RankingProgressListener.NONE);
+    }
+    
+    public RankingRunStats streamGeographicPlayerRankings(SportType sportType, RankingProgressListener listener) {
+        Query query = rankedQuery(sportType, "userId", "globalRank", "nationalRank",
+                "stateRank", "cityRank", "totalPoints");
+        RunMeter meter = new RunMeter(listener);
+        Map<String, int[]> bucketCounters = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        RankingHistoryWriter.Batch batch = historyWriter.open(sportType, "PLAYER", now, listener.fencingToken());
         
-        double expectedWinner = 1.0 / (1.0 + Math.pow(10, (loser.getRating() - winner.getRating()) / 400.0));
-        double expectedLoser = 1.0 / (1.0 + Math.pow(10, (winner.getRating() - loser.getRating()) / 400.0));
+        try (Stream<PlayerProfile> players = mongoTemplate.stream(query, PlayerProfile.class)) {
+            Iterator<PlayerProfile> iterator = players.iterator();
+            List<PlayerProfile> chunk = new ArrayList<>(bulkChunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= bulkChunkSize) {
+                    writeGeographicChunk(sportType, chunk, bucketCounters, meter, listener, now, batch);
+                    chunk = new ArrayList<>(bulkChunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeGeographicChunk(sportType, chunk, bucketCounters, meter, listener, now, batch);
+            }
+        }
+        batch.close();
+        return meter.finish(sportType, "PLAYER");
+    }
+    
+    private void writeGeographicChunk(SportType sportType, List<PlayerProfile> chunk,
+                                      Map<String, int[]> bucketCounters, RunMeter meter,
+                                      RankingProgressListener listener, LocalDateTime now,
+                                      RankingHistoryWriter.Batch batch) {
+        Map<String, User> locations = loadLocations(chunk);
+        BulkOperations rankOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerProfile.class);
+        List<Ranking> history = new ArrayList<>(chunk.size() * 4);
+        int pendingRankUpdates = 0;
+        
+        for (PlayerProfile player : chunk) {
+            User user = locations.get(player.getUserId());
+            String country = user == null ? null : StringUtils.trimToNull(user.getCountry());
+            String state = user == null ? null : StringUtils.trimToNull(user.getState());
+            String city = user == null ? null : StringUtils.trimToNull(user.getCity());
+            
+            int globalRank = (int) ++meter.processed;
+            Integer nationalRank = country == null ? null
+                    : nextRank(bucketCounters, "N|" + country);
+            Integer stateRank = country == null || state == null ? null
+                    : nextRank(bucketCounters, "S|" + country + "|" + state);
+            Integer cityRank = country == null || city == null ? null
+                    : nextRank(bucketCounters, "C|" + country + "|" + Objects.toString(state, "") + "|" + city);
+            
+            Update update = new Update();
+            boolean changed = setIfChanged(update, "globalRank", player.getGlobalRank(), globalRank);
+            changed |= setIfChanged(update, "nationalRank", player.getNationalRank(), nationalRank);
+            changed |= setIfChanged(update, "stateRank", player.getStateRank(), stateRank);
+            changed |= setIfChanged(update, "cityRank", player.getCityRank(), cityRank);
+            if (changed) {
+                rankOps.updateOne(Query.query(Criteria.where("id").is(player.getId())), update);
+                pendingRankUpdates++;
+                meter.rankChanges++;
+            }
+            
+            history.add(historyRow(sportType, "PLAYER", player.getId(), globalRank, player.getGlobalRank(),
+                    player.getRating(), player.getTotalPoints(), now));
+            addGeographicRow(history, sportType, "NATIONAL", country, nationalRank, player.getNationalRank(), player, now);
+            addGeographicRow(history, sportType, "STATE", state, stateRank, player.getStateRank(), player, now);
+            addGeographicRow(history, sportType, "CITY", city, cityRank, player.getCityRank(), player, now);
+        }
         
-        winner.setRating(winner.getRating() + K * (1 - expectedWinner));
-        winner.setMatchesWon(winner.getMatchesWon() + 1);
-        winner.setMatchesPlayed(winner.getMatchesPlayed() + 1);
-        winner.setTotalPoints(winner.getTotalPoints() + 100);
+        listener.beforeChunk();
+        flushChunk(rankOps, pendingRankUpdates, history, batch);
+        meter.chunkWritten();
+    }
+    
+    private Map<String, User> loadLocations(List<PlayerProfile> chunk) {
+        List<String> userIds = chunk.stream()
+                .map(PlayerProfile::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Query query = Query.query(Criteria.where("id").in(userIds));
+        query.fields().include("country").include("state").include("city");
         
-        loser.setRating(loser.getRating() + K * (0 - expectedLoser));
-        loser.setMatchesPlayed(loser.getMatchesPlayed() + 1);
-        loser.setTotalPoints(loser.getTotalPoints() + 10);
+        Map<String, User> locations = new HashMap<>();
+        mongoTemplate.find(query, User.class).forEach(user -> locations.put(user.getId(), user));
+        return locations;
+    }
+    
+    private void addGeographicRow(List<Ranking> history, SportType sportType, String rankingType, String scope,
+                                  Integer rank, Integer previousRank, PlayerProfile player, LocalDateTime now) {
+        if (rank == null) {
+            return;
+        }
+        // The chunk query does not project sportType, so take it from the run
+        Ranking row = historyRow(sportType, "PLAYER", player.getId(), rank, previousRank,
+                player.getRating(), player.getTotalPoints(), now);
+        row.setRankingType(rankingType);
+        row.setGeographicScope(scope);
+        history.add(row);
+    }
+    
+    private static int nextRank(Map<String, int[]> bucketCounters, String bucket) {
+        return ++bucketCounters.computeIfAbsent(bucket, key -> new int[1])[0];
+    }
+    
+    private static boolean setIfChanged(Update update, String field, Integer previous, Integer current) {
+        if (Objects.equals(previous, current)) {
+            return false;
+        }
+        update.set(field, current);
+        return true;
+    }
+    
+    private void flushChunk(BulkOperations rankOps, int pendingRankUpdates, List<Ranking> history,
+                            RankingHistoryWriter.Batch batch) {
+        if (pendingRankUpdates > 0) {
+            rankOps.execute();
+        }
+        batch.write(history);
+    }
+    
+    private Ranking historyRow(SportType sportType, String category, RankedEntry entry, int rank, LocalDateTime now) {
+        return historyRow(sportType, category, entry.id(), rank, entry.previousRank(),
+                entry.rating(), entry.points(), now);
+    }
+    
+    /**
+     * Build a GLOBAL ranking history row for a player or team
+     */
+    static Ranking historyRow(SportType sportType, String category, String entityId, int rank,
+                              Integer previousRank, Double rating, Integer points, LocalDateTime rankingDate) {
+        Ranking.RankingBuilder ranking = Ranking.builder()
+                .sportType(sportType)
+                .rankingType("GLOBAL")
+                .rankingCategory(category)
+                .rank(rank)
+                .previousRank(previousRank)
+                .points(points == null ? null : points.doubleValue())
+                .rating(rating)
+                .rankingDate(rankingDate);
         
-        playerProfileRepository.save(winner);
-        playerProfileRepository.save(loser);
+        if ("TEAM".equals(category)) {
+            ranking.teamId(entityId);
+        } else {
+            ranking.playerProfileId(entityId);
+        }
+        return ranking.build();
+    }
+    
+    /**
+     * Update player rating after a match (ELO-like system)
+     */
+    public void updatePlayerRating(String winnerId, String loserId, SportType sportType) {
+        matchRatingService.applyResult("PLAYER", winnerId, loserId, 1.0);
     }
     
     public List<Ranking> getLatestRankings(SportType sportType, String rankingType) {
+        if (historyWriter.isSnapshotMode()) {
+            return historyWriter.readLatestSnapshot(sportType, rankingType, 100);
+        }
         return rankingRepository.findLatestRankings(sportType, rankingType, org.springframework.data.domain.Pageable.ofSize(100));
     }
     
+    /**
+     * Live GLOBAL rankings served from the in-memory leaderboard
+     */
+    public List<Ranking> getLiveRankings(SportType sportType, String category, int offset, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return leaderboardService.getPage(category, sportType, offset, limit).stream()
+                .map(entry -> liveRanking(sportType, category, entry, now))
+                .toList();
+    }
+    
+    public LeaderboardEntry getLiveRank(SportType sportType, String category, String entityId) {
+        LeaderboardEntry entry = leaderboardService.getEntry(category, sportType, entityId);
+        if (entry == null) {
+            throw new RuntimeException("Entity is not ranked for " + sportType);
+        }
+        return entry;
+    }
+    
+    /**
+     * Entries ranked directly above and below a player or team, from the in-memory leaderboard
+     */
+    public List<LeaderboardEntry> getRankingsAround(SportType sportType, String category, String entityId, int window) {
+        if (!leaderboardService.isReady()) {
+            throw new RuntimeException("Leaderboard is still loading, try again shortly");
+        }
+        List<LeaderboardEntry> entries = leaderboardService.getAround(category, sportType, entityId, window);
+        if (entries.isEmpty()) {
+            throw new RuntimeException("Entity is not ranked for " + sportType);
+        }
+        return entries;
+    }
+    
+    private Ranking liveRanking(SportType sportType, String category, LeaderboardEntry entry, LocalDateTime now) {
+        Ranking.RankingBuilder ranking = Ranking.builder()
+                .sportType(sportType)
+                .rankingType("GLOBAL")
+                .rankingCategory(category)
+                .rank(entry.getRank())
+                .rating(entry.getRating())
+                .rankingDate(now);
+        
+        if ("TEAM".equals(category)) {
+            ranking.teamId(entry.getEntityId());
+        } else {
+            ranking.playerProfileId(entry.getEntityId());
+        }
+        return ranking.build();
+    }
+    
     public List<Ranking> getPlayerRankingHistory(String playerProfileId) {
+        if (historyWriter.isSnapshotMode()) {
+            return historyWriter.readHistory(playerProfileId, "PLAYER");
+        }
         return rankingRepository.findByPlayerProfileId(playerProfileId);
     }
     
     public List<Ranking> getTeamRankingHistory(String teamId) {
+        if (historyWriter.isSnapshotMode()) {
+            return historyWriter.readHistory(teamId, "TEAM");
+        }
         return rankingRepository.findByTeamId(teamId);
     }
     
     /**
-     * Scheduled task to recalculate rankings daily
+     * Throughput and peak heap bookkeeping for one ranking run
      */
-    @Scheduled(cron = "0 0 2 * * *") // Run at 2 AM daily
-    public void scheduledRankingUpdate() {
-        for (SportType sportType : SportType.values()) {
-            calculatePlayerRankings(sportType);
-            calculateTeamRankings(sportType);
+    private static final class RunMeter {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long started = System.nanoTime();
+        private final RankingProgressListener listener;
+        private long peakHeap = memory.getHeapMemoryUsage().getUsed();
+        private long processed;
+        private long rankChanges;
+        private int chunks;
+        
+        private RunMeter(RankingProgressListener listener) {
+            this.listener = listener;
         }
+        
+        private void chunkWritten() {
+            chunks++;
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+            listener.chunkWritten(processed);
+        }
+        
+        private RankingRunStats finish(SportType sportType, String category) {
+            long durationMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            RankingRunStats stats = RankingRunStats.builder()
+                    .sportType(sportType)
+                    .rankingCategory(category)
+                    .processed(processed)
+                    .rankChanges(rankChanges)
+                    .chunks(chunks)
+                    .durationMs(durationMs)
+                    .docsPerSecond(processed * 1000.0 / durationMs)
+                    .peakHeapBytes(peakHeap)
+                    .build();
+            
+            log.info("{} rankings for {}: {} docs in {} ms ({} docs/sec, {} rank changes, peak heap {} MB)",
+                    category, sportType, processed, durationMs, Math.round(stats.getDocsPerSecond()),
+                    rankChanges, peakHeap / (1024 * 1024));
+            return stats;
+        }
+    }
+    
+    /**
+     * Projection of a ranked entity as read from the rating-sorted cursor
+     */
+    private record RankedEntry(String id, Integer previousRank, Double rating, Integer points) {
     }
 }
@@ -0,0 +1,26 @@
+package com.sports.service;
+
+/**
+ * Rating model applied to one result during a rating replay.
+ * Ratings are addressed by dense entity index and updated in place.
+ */
+@FunctionalInterface
+public interface RatingFunction {
+
+    /**
+     * @param firstScore 1.0 when the first side won, 0.5 for a draw, 0.0 when it lost
+     */
+    void apply(double[] ratings, int first, int second, double firstScore);
+
+    /**
+     * Classic Elo with a fixed K-factor, as applied live by MatchRatingService
+     */
+    static RatingFunction elo(double kFactor) {
+        return (ratings, first, second, firstScore) -> {
+            double expectedFirst = 1.0 / (1.0 + Math.pow(10, (ratings[second] - ratings[first]) / 400.0));
+            double delta = kFactor * (firstScore - expectedFirst);
+            ratings[first] += delta;
+            ratings[second] -= delta;
+        };
+    }
+}
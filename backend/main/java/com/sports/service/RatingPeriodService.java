@@ -0,0 +1,368 @@
+package com.sports.service;
+
+import com.sports.dto.RatingPeriodStats;
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.PlayerProfile;
+import com.sports.model.entity.Team;
+import com.sports.model.enums.MatchStatus;
+import com.sports.model.enums.SportType;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Rating Period Service - Rates every completed match of an event (or of a sport
+ * over a date range) as one Glicko-2 rating period.
+ *
+ * Results and participant ratings are held in primitive arrays indexed by
+ * participant, so the period is two flat passes: one over the matches to
+ * accumulate variance and improvement, one over the participants to apply them.
+ *
+ * Matches are claimed for a run with one conditional update before anything is
+ * read, so concurrent periods never rate the same match twice. Periods only run
+ * under the GLICKO2 rating model; under ELO every match already moved ratings
+ * when it completed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingPeriodService {
+
+    private static final double SCALE = 173.7178;
+    private static final double DEFAULT_DEVIATION = 350.0;
+    private static final double DEFAULT_VOLATILITY = 0.06;
+    private static final double CONVERGENCE_TOLERANCE = 0.000001;
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaderboardService leaderboardService;
+
+    @Value("${ranking.rating-model:ELO}")
+    private String ratingModel;
+
+    @Value("${ranking.glicko.tau:0.5}")
+    private double tau;
+
+    @Value("${ranking.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    /**
+     * Rate all not yet rated completed matches of an event
+     */
+    public RatingPeriodStats rateEvent(String eventId) {
+        Query eventQuery = Query.query(Criteria.where("id").is(eventId));
+        eventQuery.fields().include("sportType");
+        Event event = mongoTemplate.findOne(eventQuery, Event.class);
+        if (event == null) {
+            throw new RuntimeException("Event not found");
+        }
+        return ratePeriod(event.getSportType(), eventId, Query.query(Criteria.where("eventId").is(eventId)));
+    }
+
+    /**
+     * Rate all not yet rated completed matches of a sport that ended in [from, to)
+     */
+    public RatingPeriodStats ratePeriod(SportType sportType, LocalDateTime from, LocalDateTime to) {
+        Query eventQuery = Query.query(Criteria.where("sportType").is(sportType));
+        eventQuery.fields().include("id");
+        List<String> eventIds = mongoTemplate.find(eventQuery, Event.class).stream().map(Event::getId).toList();
+
+        return ratePeriod(sportType, null, Query.query(Criteria.where("eventId").in(eventIds)
+                .and("actualEndTime").gte(from).lt(to)));
+    }
+
+    private RatingPeriodStats ratePeriod(SportType sportType, String eventId, Query matchQuery) {
+        if (!"GLICKO2".equalsIgnoreCase(ratingModel)) {
+            throw new RuntimeException("Rating periods only apply when ranking.rating-model is GLICKO2");
+        }
+        long started = System.currentTimeMillis();
+        String runId = new ObjectId().toHexString();
+        claim(matchQuery, runId);
+
+        PeriodResults teams = new PeriodResults();
+        PeriodResults players = new PeriodResults();
+        List<String> matchIds = new ArrayList<>();
+        try {
+            collect(runId, teams, players, matchIds);
+        } catch (RuntimeException e) {
+            release(runId);
+            throw e;
+        }
+        // Once ratings start moving the claim stays, so a failed period is never applied on top of itself
+        rate("TEAM", sportType, teams);
+        rate("PLAYER", sportType, players);
+
+        RatingPeriodStats stats = RatingPeriodStats.builder()
+                .sportType(sportType)
+                .eventId(eventId)
+                .matches(matchIds.size())
+                .players(players.ids.size())
+                .teams(teams.ids.size())
+                .durationMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Glicko-2 period for {} {}: {} matches, {} players, {} teams in {} ms", sportType,
+                eventId == null ? "" : "event " + eventId, stats.getMatches(), stats.getPlayers(),
+                stats.getTeams(), stats.getDurationMs());
+        return stats;
+    }
+
+    /**
+     * Stamp every unrated, scored completed match of the period with this run's id
+     */
+    private void claim(Query matchQuery, String runId) {
+        matchQuery.addCriteria(Criteria.where("status").is(MatchStatus.COMPLETED));
+        matchQuery.addCriteria(Criteria.where("ratingPeriodAt").is(null));
+        matchQuery.addCriteria(Criteria.where("team1Score").ne(null));
+        matchQuery.addCriteria(Criteria.where("team2Score").ne(null));
+        mongoTemplate.updateMulti(matchQuery, new Update()
+                .set("ratingPeriodAt", LocalDateTime.now())
+                .set("ratingPeriodRun", runId), Match.class);
+    }
+
+    private void release(String runId) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("ratingPeriodRun").is(runId)),
+                new Update().unset("ratingPeriodAt").unset("ratingPeriodRun"), Match.class);
+    }
+
+    private void collect(String runId, PeriodResults teams, PeriodResults players, List<String> matchIds) {
+        Query matchQuery = Query.query(Criteria.where("ratingPeriodRun").is(runId));
+        matchQuery.fields().include("team1Id").include("team2Id").include("player1Id").include("player2Id")
+                .include("team1Score").include("team2Score");
+        matchQuery.cursorBatchSize(bulkChunkSize);
+
+        try (Stream<Match> matches = mongoTemplate.stream(matchQuery, Match.class)) {
+            matches.forEach(match -> {
+                if (match.getTeam1Score() == null || match.getTeam2Score() == null) {
+                    return;
+                }
+                int comparison = Integer.compare(match.getTeam1Score(), match.getTeam2Score());
+                double firstScore = comparison > 0 ? 1.0 : comparison == 0 ? 0.5 : 0.0;
+
+                if (match.getTeam1Id() != null && match.getTeam2Id() != null) {
+                    teams.add(match.getTeam1Id(), match.getTeam2Id(), firstScore);
+                } else if (match.getPlayer1Id() != null && match.getPlayer2Id() != null) {
+                    players.add(match.getPlayer1Id(), match.getPlayer2Id(), firstScore);
+                } else {
+                    return;
+                }
+                matchIds.add(match.getId());
+            });
+        }
+    }
+
+    private void rate(String category, SportType sportType, PeriodResults results) {
+        int n = results.ids.size();
+        if (n == 0) {
+            return;
+        }
+        Class<?> entityClass = "TEAM".equals(category) ? Team.class : PlayerProfile.class;
+        double[] mu = new double[n];
+        double[] phi = new double[n];
+        double[] sigma = new double[n];
+        boolean[] found = loadRatings(entityClass, results.ids, mu, phi, sigma);
+
+        // Pass 1: accumulate 1/v and the score improvement against pre-period ratings
+        double[] varianceInverse = new double[n];
+        double[] improvement = new double[n];
+        for (int m = 0; m < results.size; m++) {
+            int a = results.first[m];
+            int b = results.second[m];
+            double score = results.score[m];
+            double gA = g(phi[a]);
+            double gB = g(phi[b]);
+            double expectedA = expected(mu[a], mu[b], gB);
+            double expectedB = expected(mu[b], mu[a], gA);
+
+            varianceInverse[a] += gB * gB * expectedA * (1 - expectedA);
+            improvement[a] += gB * (score - expectedA);
+            varianceInverse[b] += gA * gA * expectedB * (1 - expectedB);
+            improvement[b] += gA * ((1 - score) - expectedB);
+        }
+
+        // Pass 2: new volatility, deviation and rating per participant
+        for (int i = 0; i < n; i++) {
+            if (varianceInverse[i] == 0) {
+                phi[i] = Math.sqrt(phi[i] * phi[i] + sigma[i] * sigma[i]);
+                continue;
+            }
+            double variance = 1 / varianceInverse[i];
+            double delta = variance * improvement[i];
+            sigma[i] = newVolatility(phi[i], sigma[i], variance, delta);
+            double preRating = Math.sqrt(phi[i] * phi[i] + sigma[i] * sigma[i]);
+            phi[i] = 1 / Math.sqrt(1 / (preRating * preRating) + varianceInverse[i]);
+            mu[i] += phi[i] * phi[i] * improvement[i];
+        }
+
+        persist(category, sportType, entityClass, results.ids, found, mu, phi, sigma);
+    }
+
+    /**
+     * Illinois-method solution for the new volatility (Glicko-2 step 5)
+     */
+    private double newVolatility(double phi, double sigma, double variance, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phiSquared = phi * phi;
+        double deltaSquared = delta * delta;
+
+        double lower = a;
+        double upper;
+        if (deltaSquared > phiSquared + variance) {
+            upper = Math.log(deltaSquared - phiSquared - variance);
+        } else {
+            int k = 1;
+            while (volatilityFunction(a - k * tau, a, phiSquared, variance, deltaSquared) < 0) {
+                k++;
+            }
+            upper = a - k * tau;
+        }
+
+        double fLower = volatilityFunction(lower, a, phiSquared, variance, deltaSquared);
+        double fUpper = volatilityFunction(upper, a, phiSquared, variance, deltaSquared);
+        while (Math.abs(upper - lower) > CONVERGENCE_TOLERANCE) {
+            double next = lower + (lower - upper) * fLower / (fUpper - fLower);
+            double fNext = volatilityFunction(next, a, phiSquared, variance, deltaSquared);
+            if (fNext * fUpper <= 0) {
+                lower = upper;
+                fLower = fUpper;
+            } else {
+                fLower /= 2;
+            }
+            upper = next;
+            fUpper = fNext;
+        }
+        return Math.exp(lower / 2);
+    }
+
+    private double volatilityFunction(double x, double a, double phiSquared, double variance, double deltaSquared) {
+        double ex = Math.exp(x);
+        double denominator = phiSquared + variance + ex;
+        return ex * (deltaSquared - phiSquared - variance - ex) / (2 * denominator * denominator)
+                - (x - a) / (tau * tau);
+    }
+
+    private static double g(double phi) {
+        return 1 / Math.sqrt(1 + 3 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    private static double expected(double mu, double opponentMu, double opponentG) {
+        return 1 / (1 + Math.exp(-opponentG * (mu - opponentMu)));
+    }
+
+    private boolean[] loadRatings(Class<?> entityClass, List<String> ids,
+                                  double[] mu, double[] phi, double[] sigma) {
+        Map<String, Integer> indexOf = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            indexOf.put(ids.get(i), i);
+        }
+        Arrays.fill(phi, DEFAULT_DEVIATION / SCALE);
+        Arrays.fill(sigma, DEFAULT_VOLATILITY);
+        boolean[] found = new boolean[ids.size()];
+
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            Query query = Query.query(Criteria.where("id").in(ids.subList(from, Math.min(ids.size(), from + bulkChunkSize))));
+            query.fields().include("rating").include("ratingDeviation").include("volatility");
+            for (Object entity : mongoTemplate.find(query, entityClass)) {
+                Glicko rating = toGlicko(entity);
+                int i = indexOf.get(rating.id());
+                found[i] = true;
+                mu[i] = rating.rating() == null ? 0.0 : rating.rating() / SCALE;
+                if (rating.deviation() != null) {
+                    phi[i] = rating.deviation() / SCALE;
+                }
+                if (rating.volatility() != null) {
+                    sigma[i] = rating.volatility();
+                }
+            }
+        }
+        return found;
+    }
+
+    private void persist(String category, SportType sportType, Class<?> entityClass, List<String> ids,
+                         boolean[] found, double[] mu, double[] phi, double[] sigma) {
+        BulkOperations ratingOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+        int pending = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            if (!found[i]) {
+                continue;
+            }
+            double rating = mu[i] * SCALE;
+            ratingOps.updateOne(Query.query(Criteria.where("id").is(ids.get(i))), new Update()
+                    .set("rating", rating)
+                    .set("ratingDeviation", phi[i] * SCALE)
+                    .set("volatility", sigma[i]));
+            if ("TEAM".equals(category)) {
+                leaderboardService.updateTeam(sportType, ids.get(i), rating);
+            } else {
+                leaderboardService.updatePlayer(sportType, ids.get(i), rating);
+            }
+            if (++pending >= bulkChunkSize) {
+                ratingOps.execute();
+                ratingOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            ratingOps.execute();
+        }
+    }
+
+    private static Glicko toGlicko(Object entity) {
+        if (entity instanceof Team team) {
+            return new Glicko(team.getId(), team.getRating(), team.getRatingDeviation(), team.getVolatility());
+        }
+        PlayerProfile player = (PlayerProfile) entity;
+        return new Glicko(player.getId(), player.getRating(), player.getRatingDeviation(), player.getVolatility());
+    }
+
+    /**
+     * Results of one category in a rating period, as parallel primitive arrays
+     */
+    private static final class PeriodResults {
+        private final Map<String, Integer> indexOf = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private int[] first = new int[64];
+        private int[] second = new int[64];
+        private double[] score = new double[64];
+        private int size;
+
+        private void add(String firstId, String secondId, double firstScore) {
+            if (size == first.length) {
+                first = Arrays.copyOf(first, size * 2);
+                second = Arrays.copyOf(second, size * 2);
+                score = Arrays.copyOf(score, size * 2);
+            }
+            first[size] = indexOf(firstId);
+            second[size] = indexOf(secondId);
+            score[size] = firstScore;
+            size++;
+        }
+
+        private int indexOf(String id) {
+            return indexOf.computeIfAbsent(id, key -> {
+                ids.add(key);
+                return ids.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Stored Glicko-2 state of a player or team, on the display scale
+     */
+    private record Glicko(String id, Double rating, Double deviation, Double volatility) {
+    }
+}
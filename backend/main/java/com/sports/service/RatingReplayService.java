@@ -0,0 +1,351 @@
+package com.sports.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.sports.dto.RatingDifference;
+import com.sports.dto.RatingReplayComparison;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.PlayerProfile;
+import com.sports.model.entity.RatingReplay;
+import com.sports.model.entity.RatingReplayEntry;
+import com.sports.model.entity.Team;
+import com.sports.model.enums.MatchStatus;
+import com.sports.model.enums.RankingJobStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Rating Replay Service - Recomputes every rating from the full match history.
+ *
+ * Completed matches are streamed in completion order straight from the driver
+ * and fed to a {@link RatingFunction} over primitive rating arrays, so a replay
+ * holds only one double and one int per rated entity. Results go to a shadow
+ * collection that can be compared with, and then swapped in for, live ratings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingReplayService {
+
+    private final MongoTemplate mongoTemplate;
+    private final LeaderboardService leaderboardService;
+
+    @Value("${ranking.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    @Value("${ranking.replay.cursor-batch-size:10000}")
+    private int cursorBatchSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startExecutor() {
+        // One replay at a time; further requests queue behind it
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "rating-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a replay of the full match history
+     *
+     * @param model rating model; only ELO is built in
+     */
+    public RatingReplay startReplay(String model, double kFactor, double initialRating) {
+        RatingFunction function = switch (model.toUpperCase()) {
+            case "ELO" -> RatingFunction.elo(kFactor);
+            default -> throw new IllegalArgumentException("Unsupported rating model: " + model);
+        };
+
+        RatingReplay replay = mongoTemplate.insert(RatingReplay.builder()
+                .model(model.toUpperCase())
+                .kFactor(kFactor)
+                .initialRating(initialRating)
+                .status(RankingJobStatus.QUEUED)
+                .build());
+        executor.execute(() -> run(replay, function));
+        return replay;
+    }
+
+    public RatingReplay getReplay(String replayId) {
+        RatingReplay replay = mongoTemplate.findById(replayId, RatingReplay.class);
+        if (replay == null) {
+            throw new RuntimeException("Rating replay not found");
+        }
+        return replay;
+    }
+
+    private void run(RatingReplay replay, RatingFunction function) {
+        long started = System.nanoTime();
+        replay.setStatus(RankingJobStatus.RUNNING);
+        replay.setStartedAt(LocalDateTime.now());
+        mongoTemplate.save(replay);
+
+        try {
+            ReplayState players = new ReplayState(replay.getInitialRating());
+            ReplayState teams = new ReplayState(replay.getInitialRating());
+            long matches = replayMatches(function, players, teams);
+
+            writeEntries(replay.getId(), "PLAYER", players);
+            writeEntries(replay.getId(), "TEAM", teams);
+
+            long durationMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            replay.setMatches(matches);
+            replay.setPlayers(players.ids.size());
+            replay.setTeams(teams.ids.size());
+            replay.setDurationMs(durationMs);
+            replay.setMatchesPerSecond(matches * 1000.0 / durationMs);
+            replay.setStatus(RankingJobStatus.COMPLETED);
+            log.info("Rating replay {}: {} matches, {} players, {} teams in {} ms", replay.getId(), matches,
+                    players.ids.size(), teams.ids.size(), durationMs);
+        } catch (Exception e) {
+            log.error("Rating replay {} failed", replay.getId(), e);
+            replay.setStatus(RankingJobStatus.FAILED);
+            replay.setError(e.getMessage());
+        }
+        replay.setFinishedAt(LocalDateTime.now());
+        mongoTemplate.save(replay);
+    }
+
+    private long replayMatches(RatingFunction function, ReplayState players, ReplayState teams) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Match.class));
+        long matches = 0;
+
+        try (MongoCursor<Document> cursor = collection.find(Filters.eq("status", MatchStatus.COMPLETED.name()))
+                .projection(Projections.include("team1_id", "team2_id", "player1_id", "player2_id",
+                        "team1_score", "team2_score"))
+                .sort(Sorts.ascending("actual_end_time", "_id"))
+                .allowDiskUse(true)
+                .batchSize(cursorBatchSize)
+                .cursor()) {
+            while (cursor.hasNext()) {
+                Document match = cursor.next();
+                Integer firstScore = match.getInteger("team1_score");
+                Integer secondScore = match.getInteger("team2_score");
+                if (firstScore == null || secondScore == null) {
+                    continue;
+                }
+                int comparison = Integer.compare(firstScore, secondScore);
+                double score = comparison > 0 ? 1.0 : comparison == 0 ? 0.5 : 0.0;
+
+                String team1 = match.getString("team1_id");
+                String team2 = match.getString("team2_id");
+                String player1 = match.getString("player1_id");
+                String player2 = match.getString("player2_id");
+                if (team1 != null && team2 != null) {
+                    teams.apply(function, team1, team2, score);
+                } else if (player1 != null && player2 != null) {
+                    players.apply(function, player1, player2, score);
+                } else {
+                    continue;
+                }
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private void writeEntries(String replayId, String category, ReplayState state) {
+        MongoCollection<Document> collection =
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(RatingReplayEntry.class));
+        List<Document> chunk = new ArrayList<>(bulkChunkSize);
+        for (int i = 0; i < state.ids.size(); i++) {
+            chunk.add(new Document("replay_id", replayId)
+                    .append("ranking_category", category)
+                    .append("entity_id", state.ids.idAt(i))
+                    .append("rating", state.ratings[i])
+                    .append("matches_played", state.played[i]));
+            if (chunk.size() >= bulkChunkSize) {
+                collection.insertMany(chunk, new InsertManyOptions().ordered(false));
+                chunk = new ArrayList<>(bulkChunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            collection.insertMany(chunk, new InsertManyOptions().ordered(false));
+        }
+    }
+
+    /**
+     * Compare a replay's ratings with the live ratings of one category
+     */
+    public RatingReplayComparison compare(String replayId, String category, int limit) {
+        getReplay(replayId);
+        Class<?> entityClass = entityClass(category);
+        PriorityQueue<RatingDifference> largest = new PriorityQueue<>(
+                Comparator.comparingDouble(difference -> Math.abs(difference.getDifference())));
+        long[] counts = new long[2]; // compared, missing
+        double[] totals = new double[2]; // sum of |difference|, max |difference|
+
+        forEachEntryChunk(replayId, category, chunk -> {
+            Map<String, Double> live = liveRatings(entityClass, chunk);
+            for (RatingReplayEntry entry : chunk) {
+                if (!live.containsKey(entry.getEntityId())) {
+                    counts[1]++;
+                    continue;
+                }
+                Double liveRating = live.get(entry.getEntityId());
+                double difference = entry.getRating() - (liveRating == null ? 0.0 : liveRating);
+                counts[0]++;
+                totals[0] += Math.abs(difference);
+                totals[1] = Math.max(totals[1], Math.abs(difference));
+
+                if (largest.size() < limit) {
+                    largest.add(new RatingDifference(entry.getEntityId(), liveRating, entry.getRating(), difference));
+                } else if (!largest.isEmpty() && Math.abs(difference) > Math.abs(largest.peek().getDifference())) {
+                    largest.poll();
+                    largest.add(new RatingDifference(entry.getEntityId(), liveRating, entry.getRating(), difference));
+                }
+            }
+        });
+
+        List<RatingDifference> differences = new ArrayList<>(largest);
+        differences.sort(Comparator.comparingDouble((RatingDifference difference) ->
+                Math.abs(difference.getDifference())).reversed());
+        return RatingReplayComparison.builder()
+                .replayId(replayId)
+                .rankingCategory(category)
+                .compared(counts[0])
+                .missing(counts[1])
+                .meanAbsoluteDifference(counts[0] == 0 ? 0 : totals[0] / counts[0])
+                .maxAbsoluteDifference(totals[1])
+                .largestDifferences(differences)
+                .build();
+    }
+
+    /**
+     * Replace live player and team ratings with a completed replay's ratings
+     */
+    public RatingReplay swap(String replayId) {
+        RatingReplay replay = getReplay(replayId);
+        if (replay.getStatus() != RankingJobStatus.COMPLETED) {
+            throw new RuntimeException("Only a completed replay can be swapped in");
+        }
+
+        for (String category : List.of("PLAYER", "TEAM")) {
+            Class<?> entityClass = entityClass(category);
+            forEachEntryChunk(replayId, category, chunk -> {
+                BulkOperations ratingOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+                chunk.forEach(entry -> ratingOps.updateOne(Query.query(Criteria.where("id").is(entry.getEntityId())),
+                        Update.update("rating", entry.getRating())));
+                ratingOps.execute();
+            });
+        }
+
+        replay.setSwappedAt(LocalDateTime.now());
+        mongoTemplate.save(replay);
+        leaderboardService.rebuild();
+        log.info("Rating replay {} swapped in", replayId);
+        return replay;
+    }
+
+    private void forEachEntryChunk(String replayId, String category,
+                                   Consumer<List<RatingReplayEntry>> consumer) {
+        Query query = Query.query(Criteria.where("replayId").is(replayId).and("rankingCategory").is(category));
+        query.fields().include("entityId").include("rating");
+        query.cursorBatchSize(bulkChunkSize);
+
+        try (Stream<RatingReplayEntry> entries = mongoTemplate.stream(query, RatingReplayEntry.class)) {
+            Iterator<RatingReplayEntry> iterator = entries.iterator();
+            List<RatingReplayEntry> chunk = new ArrayList<>(bulkChunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= bulkChunkSize) {
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>(bulkChunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        }
+    }
+
+    private Map<String, Double> liveRatings(Class<?> entityClass, List<RatingReplayEntry> chunk) {
+        Query query = Query.query(Criteria.where("id").in(chunk.stream().map(RatingReplayEntry::getEntityId).toList()));
+        query.fields().include("rating");
+        Map<String, Double> ratings = new HashMap<>();
+        for (Object entity : mongoTemplate.find(query, entityClass)) {
+            if (entity instanceof Team team) {
+                ratings.put(team.getId(), team.getRating());
+            } else {
+                PlayerProfile player = (PlayerProfile) entity;
+                ratings.put(player.getId(), player.getRating());
+            }
+        }
+        return ratings;
+    }
+
+    private static Class<?> entityClass(String category) {
+        return "TEAM".equals(category) ? Team.class : PlayerProfile.class;
+    }
+
+    /**
+     * Ratings and match counts of one category, indexed through an open-addressing id map
+     */
+    private static final class ReplayState {
+        private final IdIndexMap ids = new IdIndexMap(1 << 16);
+        private final double initialRating;
+        private double[] ratings = new double[1 << 16];
+        private int[] played = new int[1 << 16];
+
+        private ReplayState(double initialRating) {
+            this.initialRating = initialRating;
+        }
+
+        private void apply(RatingFunction function, String firstId, String secondId, double firstScore) {
+            int first = index(firstId);
+            int second = index(secondId);
+            function.apply(ratings, first, second, firstScore);
+            played[first]++;
+            played[second]++;
+        }
+
+        private int index(String id) {
+            int known = ids.size();
+            int index = ids.indexOf(id);
+            if (index == known) {
+                if (index == ratings.length) {
+                    ratings = Arrays.copyOf(ratings, index * 2);
+                    played = Arrays.copyOf(played, index * 2);
+                }
+                ratings[index] = initialRating;
+            }
+            return index;
+        }
+    }
+}
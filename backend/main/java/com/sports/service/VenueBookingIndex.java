@@ -0,0 +1,82 @@
+package com.sports.service;
+
+import com.sports.model.entity.VenueBooking;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Venue Booking Index - The bookings of one venue as two layers of non-overlapping
+ * intervals, each in a tree keyed by start time: event holds and match bookings.
+ *
+ * Within a layer intervals never overlap, so the booking with the latest start before
+ * an interval's end is the only one that can tell whether anything overlaps it, and
+ * "is this slot free" is one O(log n) lookup per layer. A match may sit inside the hold
+ * of its own event; holds of other events and overlapping matches conflict.
+ * Not thread-safe; the booking service locks per venue.
+ */
+class VenueBookingIndex {
+
+    private final TreeMap<LocalDateTime, VenueBooking> holds = new TreeMap<>();
+    private final TreeMap<LocalDateTime, VenueBooking> matches = new TreeMap<>();
+    private long revision = -1; // -1 = not loaded
+
+    long revision() {
+        return revision;
+    }
+
+    void revision(long revision) {
+        this.revision = revision;
+    }
+
+    void clear() {
+        holds.clear();
+        matches.clear();
+        revision = -1;
+    }
+
+    void add(VenueBooking booking) {
+        layer(booking.isEventHold()).put(booking.getStartTime(), booking);
+    }
+
+    void remove(VenueBooking booking) {
+        layer(booking.isEventHold()).remove(booking.getStartTime(), booking);
+    }
+
+    /**
+     * A booking the given one would overlap, or null when the venue is free for it
+     */
+    VenueBooking conflict(VenueBooking booking) {
+        LocalDateTime start = booking.getStartTime();
+        LocalDateTime end = booking.getEndTime();
+        boolean hold = booking.isEventHold();
+        VenueBooking sameLayer = latestOverlapping(layer(hold), start, end);
+        if (sameLayer != null) {
+            return sameLayer;
+        }
+        // The other layer only conflicts across events; walk back over this event's own bookings
+        NavigableMap<LocalDateTime, VenueBooking> overlapping = layer(!hold).headMap(end, false).descendingMap();
+        for (Map.Entry<LocalDateTime, VenueBooking> entry : overlapping.entrySet()) {
+            VenueBooking other = entry.getValue();
+            if (!other.getEndTime().isAfter(start)) {
+                return null;
+            }
+            if (booking.getEventId() == null || !booking.getEventId().equals(other.getEventId())) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    private static VenueBooking latestOverlapping(TreeMap<LocalDateTime, VenueBooking> layer,
+                                                  LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, VenueBooking> latest = layer.lowerEntry(end);
+        return latest != null && latest.getValue().getEndTime().isAfter(start) ? latest.getValue() : null;
+    }
+
+    private TreeMap<LocalDateTime, VenueBooking> layer(boolean hold) {
+        return hold ? holds : matches;
+    }
+}
@@ -0,0 +1,372 @@
+package com.sports.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.Venue;
+import com.sports.model.entity.VenueBooking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Venue Booking Service - Reserves venues for events and matches without double booking.
+ *
+ * Each node keeps a booking index per venue (see VenueBookingIndex) that answers
+ * conflict checks in O(log n) instead of querying the matches at the venue. The venue's
+ * booking revision tells whether the index is current; a stale index is reloaded from
+ * the venue's upcoming bookings. A reservation inserts its bookings and then moves the
+ * revision on with a compare-and-set, so of two nodes booking the same venue at once
+ * only one succeeds; the other removes its bookings, moves the revision on so nodes that
+ * saw them reload, and checks again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VenueBookingService {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_SLOT_SEARCH_STEPS = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${venues.booking.match-minutes:120}")
+    private long matchMinutes;
+
+    private final Map<String, VenueBookingIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the venue is open and unbooked for the whole interval, for the given event
+     * (its own hold does not count against its matches)
+     */
+    public boolean isFree(String venueId, String eventId, LocalDateTime start, LocalDateTime end) {
+        Venue venue = loadVenue(venueId);
+        VenueBookingIndex index = indexes.computeIfAbsent(venueId, id -> new VenueBookingIndex());
+        synchronized (index) {
+            sync(venue, index);
+            VenueBooking probe = booking(venueId, eventId, "probe", start, end);
+            return isOpen(venue, start, end) && index.conflict(probe) == null;
+        }
+    }
+
+    /**
+     * Earliest start at or after notBefore where a match of the given length fits
+     */
+    public LocalDateTime nextFreeSlot(String venueId, String eventId, LocalDateTime notBefore, long minutes) {
+        Venue venue = loadVenue(venueId);
+        VenueBookingIndex index = indexes.computeIfAbsent(venueId, id -> new VenueBookingIndex());
+        synchronized (index) {
+            sync(venue, index);
+            return nextFree(venue, index, eventId, notBefore, minutes);
+        }
+    }
+
+    /**
+     * Hold the venue for the whole event, from its start to its end date
+     */
+    public void reserveEvent(Event event) {
+        if (event.getVenueId() == null || event.getStartDate() == null) {
+            return;
+        }
+        LocalDateTime end = event.getEndDate() != null ? event.getEndDate() : event.getStartDate().plusDays(1);
+        if (!end.isAfter(event.getStartDate())) {
+            throw new RuntimeException("Event must end after it starts");
+        }
+        reserve(event.getVenueId(), List.of(booking(event.getVenueId(), event.getId(), null, event.getStartDate(), end)),
+                false);
+    }
+
+    public void reserveMatch(Match match) {
+        if (match.getVenueId() == null || match.getScheduledTime() == null) {
+            return;
+        }
+        reserve(match.getVenueId(), List.of(matchBooking(match)), false);
+    }
+
+    /**
+     * Book generated fixtures at one venue in a single reservation. Each match is moved to
+     * the first free slot at or after its planned time, and a match planned later than
+     * another never starts before that one ends, so rounds keep their order when a
+     * round does not fit in its interval.
+     */
+    public void placeMatches(String venueId, List<Match> matches) {
+        List<Match> planned = new ArrayList<>(matches);
+        planned.sort(Comparator.comparing(Match::getScheduledTime));
+        List<VenueBooking> bookings = new ArrayList<>(planned.size());
+        for (Match match : planned) {
+            bookings.add(matchBooking(match));
+        }
+        reserve(venueId, bookings, true);
+        for (int i = 0; i < planned.size(); i++) {
+            planned.get(i).setScheduledTime(bookings.get(i).getStartTime());
+        }
+    }
+
+    /**
+     * Move an event's hold when its venue or dates change. The new hold is checked like a
+     * new event; on a conflict the old hold is restored and the change is rejected.
+     */
+    public void rebookEvent(Event previous, Event updated) {
+        if (Objects.equals(previous.getVenueId(), updated.getVenueId())
+                && Objects.equals(previous.getStartDate(), updated.getStartDate())
+                && Objects.equals(previous.getEndDate(), updated.getEndDate())) {
+            return;
+        }
+        releaseEvent(previous.getId());
+        try {
+            reserveEvent(updated);
+        } catch (RuntimeException e) {
+            try {
+                reserveEvent(previous);
+            } catch (RuntimeException restore) {
+                log.warn("Could not restore the venue hold of event {}: {}", previous.getId(), restore.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    public void releaseEvent(String eventId) {
+        release(Query.query(Criteria.where("eventId").is(eventId).and("matchId").is(null)));
+    }
+
+    public void releaseMatches(Collection<String> matchIds) {
+        release(Query.query(Criteria.where("matchId").in(matchIds)));
+    }
+
+    private void release(Query bookings) {
+        List<VenueBooking> released = mongoTemplate.findAllAndRemove(bookings, VenueBooking.class);
+        Set<String> venueIds = new HashSet<>();
+        released.forEach(booking -> venueIds.add(booking.getVenueId()));
+        for (String venueId : venueIds) {
+            // Other nodes reload on the new revision; this node can drop its index right away
+            bumpRevision(venueId);
+            VenueBookingIndex index = indexes.get(venueId);
+            if (index != null) {
+                synchronized (index) {
+                    index.clear();
+                }
+            }
+        }
+    }
+
+    private void bumpRevision(String venueId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(venueId)),
+                new Update().inc("bookingRevision", 1), Venue.class);
+    }
+
+    private void reserve(String venueId, List<VenueBooking> bookings, boolean place) {
+        VenueBookingIndex index = indexes.computeIfAbsent(venueId, id -> new VenueBookingIndex());
+        List<LocalDateTime> plannedStarts = bookings.stream().map(VenueBooking::getStartTime).toList();
+        List<Long> lengths = bookings.stream()
+                .map(booking -> Duration.between(booking.getStartTime(), booking.getEndTime()).toMinutes())
+                .toList();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Venue venue = loadVenue(venueId);
+            synchronized (index) {
+                sync(venue, index);
+                long revision = index.revision();
+                List<VenueBooking> added = new ArrayList<>(bookings.size());
+                try {
+                    LocalDateTime floor = null;
+                    LocalDateTime planned = null;
+                    LocalDateTime plannedEnd = null;
+                    for (int i = 0; i < bookings.size(); i++) {
+                        VenueBooking booking = bookings.get(i);
+                        if (place) {
+                            // Matches planned later start after every earlier-planned match has ended
+                            if (planned != null && plannedStarts.get(i).isAfter(planned)) {
+                                floor = max(floor, plannedEnd);
+                            }
+                            planned = plannedStarts.get(i);
+                            long minutes = lengths.get(i);
+                            LocalDateTime start = nextFree(venue, index, booking.getEventId(), max(floor, planned), minutes);
+                            booking.setStartTime(start);
+                            booking.setEndTime(start.plusMinutes(minutes));
+                        } else {
+                            check(venue, index, booking);
+                        }
+                        index.add(booking);
+                        added.add(booking);
+                        if (place) {
+                            plannedEnd = max(plannedEnd, booking.getEndTime());
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    added.forEach(index::remove);
+                    throw e;
+                }
+
+                mongoTemplate.insert(bookings, VenueBooking.class);
+                UpdateResult moved = mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("id").is(venueId).and("bookingRevision").is(revision)),
+                        new Update().inc("bookingRevision", 1), Venue.class);
+                if (moved.getModifiedCount() == 1) {
+                    index.revision(revision + 1);
+                    return;
+                }
+                // Another node reserved first; undo ours and look again with its bookings loaded.
+                // Nodes that synced while ours were in place indexed them, so move the revision on for them too.
+                mongoTemplate.remove(Query.query(Criteria.where("id").in(bookings.stream().map(VenueBooking::getId).toList())),
+                        VenueBooking.class);
+                bumpRevision(venueId);
+                index.clear();
+                bookings.forEach(booking -> booking.setId(new ObjectId().toHexString()));
+            }
+        }
+        throw new RuntimeException("Could not reserve venue, too many concurrent bookings");
+    }
+
+    private void check(Venue venue, VenueBookingIndex index, VenueBooking booking) {
+        if (!booking.getEndTime().isAfter(booking.getStartTime())) {
+            throw new RuntimeException("Booking must end after it starts");
+        }
+        // Past bookings are not indexed; recording a finished match cannot clash with anything upcoming
+        if (!booking.getEndTime().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        if (!booking.isEventHold() && !isOpen(venue, booking.getStartTime(), booking.getEndTime())) {
+            throw new RuntimeException("Venue is closed at " + booking.getStartTime());
+        }
+        VenueBooking conflict = index.conflict(booking);
+        if (conflict != null) {
+            throw new RuntimeException("Venue is already booked from " + conflict.getStartTime()
+                    + " to " + conflict.getEndTime());
+        }
+    }
+
+    /**
+     * First fit: each step is O(log n) and skips past one conflicting booking or to the
+     * next opening
+     */
+    private LocalDateTime nextFree(Venue venue, VenueBookingIndex index, String eventId,
+                                   LocalDateTime notBefore, long minutes) {
+        LocalDateTime start = notBefore;
+        for (int step = 0; step < MAX_SLOT_SEARCH_STEPS; step++) {
+            start = nextOpening(venue, start, minutes);
+            VenueBooking conflict = index.conflict(booking(venue.getId(), eventId, "probe", start, start.plusMinutes(minutes)));
+            if (conflict == null) {
+                return start;
+            }
+            start = conflict.getEndTime();
+        }
+        throw new RuntimeException("No free slot found at the venue");
+    }
+
+    /**
+     * Earliest start at or after the given time inside one opening window long enough
+     */
+    private static LocalDateTime nextOpening(Venue venue, LocalDateTime from, long minutes) {
+        if (venue.getOpeningHours() == null || venue.getOpeningHours().isEmpty()) {
+            return from;
+        }
+        for (int day = 0; day <= 7; day++) {
+            LocalDate date = from.toLocalDate().plusDays(day);
+            LocalDateTime best = null;
+            for (Venue.OpeningHours hours : venue.getOpeningHours()) {
+                if (hours.getDayOfWeek() != date.getDayOfWeek()) {
+                    continue;
+                }
+                LocalDateTime start = max(date.atTime(hours.getOpens()), from);
+                if (!start.plusMinutes(minutes).isAfter(closing(date, hours)) && (best == null || start.isBefore(best))) {
+                    best = start;
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        throw new RuntimeException("Venue has no opening long enough for " + minutes + " minutes");
+    }
+
+    private static boolean isOpen(Venue venue, LocalDateTime start, LocalDateTime end) {
+        if (venue.getOpeningHours() == null || venue.getOpeningHours().isEmpty()) {
+            return true;
+        }
+        LocalDate date = start.toLocalDate();
+        for (Venue.OpeningHours hours : venue.getOpeningHours()) {
+            if (hours.getDayOfWeek() == date.getDayOfWeek()
+                    && !start.isBefore(date.atTime(hours.getOpens()))
+                    && !end.isAfter(closing(date, hours))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closing at midnight (00:00) means the end of that day
+     */
+    private static LocalDateTime closing(LocalDate date, Venue.OpeningHours hours) {
+        return hours.getCloses().equals(LocalTime.MIDNIGHT) ? date.plusDays(1).atStartOfDay() : date.atTime(hours.getCloses());
+    }
+
+    private void sync(Venue venue, VenueBookingIndex index) {
+        long revision = venue.getBookingRevision() == null ? 0 : venue.getBookingRevision();
+        if (index.revision() == revision) {
+            return;
+        }
+        index.clear();
+        if (revision == 0) {
+            // Venues saved before revisions existed; start counting so the compare-and-set has a value to match
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(venue.getId()).and("bookingRevision").is(null)),
+                    new Update().set("bookingRevision", 0L), Venue.class);
+        }
+        Query upcoming = Query.query(Criteria.where("venueId").is(venue.getId()).and("endTime").gt(LocalDateTime.now()));
+        mongoTemplate.find(upcoming, VenueBooking.class).forEach(index::add);
+        index.revision(revision);
+    }
+
+    private Venue loadVenue(String venueId) {
+        Query query = Query.query(Criteria.where("id").is(venueId));
+        query.fields().include("bookingRevision").include("openingHours");
+        Venue venue = mongoTemplate.findOne(query, Venue.class);
+        if (venue == null) {
+            throw new RuntimeException("Venue not found");
+        }
+        return venue;
+    }
+
+    private VenueBooking matchBooking(Match match) {
+        return booking(match.getVenueId(), match.getEventId(), match.getId(),
+                match.getScheduledTime(), match.getScheduledTime().plusMinutes(matchMinutes));
+    }
+
+    private static VenueBooking booking(String venueId, String eventId, String matchId,
+                                        LocalDateTime start, LocalDateTime end) {
+        VenueBooking booking = VenueBooking.builder()
+                .venueId(venueId)
+                .eventId(eventId)
+                .matchId(matchId)
+                .startTime(start)
+                .endTime(end)
+                .build();
+        booking.setId(new ObjectId().toHexString());
+        booking.setCreatedAt(LocalDateTime.now());
+        booking.setIsActive(true);
+        return booking;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,336 @@
+package com.sports.service;
+
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.ViewerNodeShare;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Viewer Counter Service - Counts match and event viewers in memory and flushes them in bulk.
+ *
+ * Views (GET hits and STOMP subscriptions) and concurrent viewers (open subscriptions to
+ * /topic/matches/{id} or /topic/events/{id}) are kept apart. Both are LongAdders keyed by
+ * id, so hot matches do not contend on one counter, and every flush writes the deltas
+ * accumulated since the last one as a single bulk $inc per collection. Concurrent counts
+ * are this node's share of the stored figure and are withdrawn again on shutdown.
+ *
+ * Each flush also renews a {@link ViewerNodeShare} record holding the share this node has
+ * added so far. A node that dies without shutting down stops renewing it; once it is
+ * older than the node TTL the first node to claim it withdraws that share.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ViewerCounterService {
+
+    private static final String MATCH_TOPIC = "/topic/matches/";
+    private static final String EVENT_TOPIC = "/topic/events/";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${live.viewers.flush-ms:5000}")
+    private long flushMs;
+
+    @Value("${live.viewers.node-ttl-ms:30000}")
+    private long nodeTtlMs;
+
+    private final Counters matches = new Counters(Match.class, "totalViewers");
+    private final Counters events = new Counters(Event.class, "totalViews");
+    // sessionId -> subscriptionId -> watched topic, to release viewers on unsubscribe or disconnect
+    private final Map<String, Map<String, Watch>> sessions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void start() {
+        try {
+            // A node restarted under a configured id withdraws what its previous run left behind
+            ViewerNodeShare previous = claim(Query.query(Criteria.where("id").is(jobLeaseService.getNodeId())));
+            if (previous != null) {
+                withdraw(previous);
+            }
+        } catch (Exception e) {
+            log.warn("Could not withdraw the viewers of this node's previous run: {}", e.getMessage());
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "viewer-counters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        // This node's viewers go away with it
+        matches.withdrawConcurrent();
+        events.withdrawConcurrent();
+        flush();
+        if (matches.applied.isEmpty() && events.applied.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("id").is(jobLeaseService.getNodeId())),
+                    ViewerNodeShare.class);
+        }
+    }
+
+    public void matchViewed(String matchId) {
+        matches.view(matchId);
+    }
+
+    public void eventViewed(String eventId) {
+        events.view(eventId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent subscribed) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(subscribed.getMessage());
+        Watch watch = watch(accessor.getDestination());
+        if (watch == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Watch previous = sessions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), watch);
+        if (previous != null) {
+            previous.counters.leave(previous.id);
+        }
+        watch.counters.view(watch.id);
+        watch.counters.join(watch.id);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent unsubscribed) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(unsubscribed.getMessage());
+        Map<String, Watch> watches = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if (watches == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Watch watch = watches.remove(accessor.getSubscriptionId());
+        if (watch != null) {
+            watch.counters.leave(watch.id);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent disconnected) {
+        Map<String, Watch> watches = sessions.remove(disconnected.getSessionId());
+        if (watches != null) {
+            watches.values().forEach(watch -> watch.counters.leave(watch.id));
+        }
+    }
+
+    private Watch watch(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        if (destination.startsWith(MATCH_TOPIC)) {
+            return Watch.of(matches, destination.substring(MATCH_TOPIC.length()));
+        }
+        if (destination.startsWith(EVENT_TOPIC)) {
+            return Watch.of(events, destination.substring(EVENT_TOPIC.length()));
+        }
+        return null;
+    }
+
+    private synchronized void flush() {
+        matches.flush();
+        events.flush();
+        try {
+            renewShare();
+            withdrawExpiredShares();
+        } catch (Exception e) {
+            log.warn("Could not renew or reap viewer node shares: {}", e.getMessage());
+        }
+    }
+
+    private void renewShare() {
+        Update update = new Update()
+                .set("expiresAt", LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(nodeTtlMs)))
+                .set("matchViewers", Map.copyOf(matches.applied))
+                .set("eventViewers", Map.copyOf(events.applied))
+                .setOnInsert("isActive", true);
+        mongoTemplate.upsert(Query.query(Criteria.where("id").is(jobLeaseService.getNodeId())), update,
+                ViewerNodeShare.class);
+    }
+
+    private void withdrawExpiredShares() {
+        Query expired = Query.query(Criteria.where("expiresAt").lt(LocalDateTime.now())
+                .and("id").ne(jobLeaseService.getNodeId()));
+        for (ViewerNodeShare share; (share = claim(expired)) != null; ) {
+            withdraw(share);
+        }
+    }
+
+    /**
+     * Removing the record is the claim, so each share is withdrawn by one node only
+     */
+    private ViewerNodeShare claim(Query query) {
+        return mongoTemplate.findAndRemove(query, ViewerNodeShare.class);
+    }
+
+    private void withdraw(ViewerNodeShare share) {
+        log.info("Withdrawing the viewers of node {}", share.getId());
+        matches.withdraw(share.getMatchViewers());
+        events.withdraw(share.getEventViewers());
+    }
+
+    private record Watch(Counters counters, String id) {
+
+        private static Watch of(Counters counters, String id) {
+            return id.isEmpty() || id.contains("/") ? null : new Watch(counters, id);
+        }
+    }
+
+    /**
+     * View and concurrent-viewer counters of one collection
+     */
+    private final class Counters {
+        private final Class<?> entityClass;
+        private final String viewsField;
+        // Deltas since the last flush
+        private final Map<String, LongAdder> views = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> concurrentDeltas = new ConcurrentHashMap<>();
+        // Open subscriptions on this node
+        private final Map<String, LongAdder> concurrent = new ConcurrentHashMap<>();
+        // Adders dropped from the maps while idle; drained once more in case of a late increment
+        private final ConcurrentLinkedQueue<Retired> retired = new ConcurrentLinkedQueue<>();
+        // Concurrent viewers this node has written to the stored figures, as renewed in its share record
+        private final Map<String, Long> applied = new HashMap<>();
+
+        private Counters(Class<?> entityClass, String viewsField) {
+            this.entityClass = entityClass;
+            this.viewsField = viewsField;
+        }
+
+        private void view(String id) {
+            views.computeIfAbsent(id, key -> new LongAdder()).increment();
+        }
+
+        private void join(String id) {
+            concurrent.computeIfAbsent(id, key -> new LongAdder()).increment();
+            concurrentDeltas.computeIfAbsent(id, key -> new LongAdder()).increment();
+        }
+
+        private void leave(String id) {
+            concurrent.computeIfAbsent(id, key -> new LongAdder()).decrement();
+            concurrentDeltas.computeIfAbsent(id, key -> new LongAdder()).decrement();
+        }
+
+        private void withdrawConcurrent() {
+            concurrent.forEach((id, adder) -> concurrentDeltas.computeIfAbsent(id, key -> new LongAdder())
+                    .add(-adder.sumThenReset()));
+        }
+
+        /**
+         * Take another node's share off the stored figures
+         */
+        private void withdraw(Map<String, Long> shares) {
+            if (shares == null || shares.isEmpty()) {
+                return;
+            }
+            try {
+                BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+                shares.forEach((id, share) -> ops.updateOne(Query.query(Criteria.where("id").is(id)),
+                        new Update().inc("currentViewers", (int) -share)));
+                ops.execute();
+            } catch (Exception e) {
+                log.warn("Could not withdraw {} {} viewer shares: {}",
+                        shares.size(), entityClass.getSimpleName(), e.getMessage());
+            }
+        }
+
+        private void flush() {
+            Map<String, long[]> deltas = new HashMap<>();
+            List<Retired> drained = new ArrayList<>();
+            for (Retired late; (late = retired.poll()) != null; ) {
+                drained.add(late);
+            }
+            drained.forEach(late -> delta(deltas, late.id)[late.views ? 0 : 1] += late.adder.sumThenReset());
+            drain(views, deltas, 0, true);
+            drain(concurrentDeltas, deltas, 1, false);
+            concurrent.forEach((id, adder) -> {
+                if (adder.sum() == 0 && concurrent.remove(id, adder) && adder.sum() != 0) {
+                    // Joined or left while being removed; put the count back
+                    concurrent.computeIfAbsent(id, key -> new LongAdder()).add(adder.sumThenReset());
+                }
+            });
+
+            deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+                deltas.forEach((id, delta) -> {
+                    Update update = new Update();
+                    if (delta[0] != 0) {
+                        update.inc(viewsField, (int) delta[0]);
+                    }
+                    if (delta[1] != 0) {
+                        update.inc("currentViewers", (int) delta[1]);
+                    }
+                    ops.updateOne(Query.query(Criteria.where("id").is(id)), update);
+                });
+                ops.execute();
+                deltas.forEach((id, delta) -> {
+                    if (delta[1] != 0 && applied.merge(id, delta[1], Long::sum) == 0) {
+                        applied.remove(id);
+                    }
+                });
+            } catch (Exception e) {
+                // Put the deltas back so the next flush retries them
+                deltas.forEach((id, delta) -> {
+                    views.computeIfAbsent(id, key -> new LongAdder()).add(delta[0]);
+                    concurrentDeltas.computeIfAbsent(id, key -> new LongAdder()).add(delta[1]);
+                });
+                log.warn("Could not flush viewer counts of {} {} documents: {}",
+                        deltas.size(), entityClass.getSimpleName(), e.getMessage());
+            }
+        }
+
+        private void drain(Map<String, LongAdder> adders, Map<String, long[]> deltas, int slot, boolean views) {
+            adders.forEach((id, adder) -> {
+                long delta = adder.sumThenReset();
+                if (delta != 0) {
+                    delta(deltas, id)[slot] += delta;
+                } else if (adders.remove(id, adder)) {
+                    retired.add(new Retired(id, adder, views));
+                }
+            });
+        }
+
+        private long[] delta(Map<String, long[]> deltas, String id) {
+            return deltas.computeIfAbsent(id, key -> new long[2]);
+        }
+    }
+
+    private record Retired(String id, LongAdder adder, boolean views) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.sports.config;
+
+import com.sports.SportsRankingPlatformApplication;
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Starts the application with the broker-benchmark profile from the test classpath, e.g.
+ * mvn spring-boot:test-run -Dspring-boot.run.arguments=--websocket.broker.mode=EMBEDDED
+ */
+public class BrokerBenchmarkApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(SportsRankingPlatformApplication::main)
+                .withAdditionalProfiles("broker-benchmark")
+                .run(args);
+    }
+}
@@ -0,0 +1,292 @@
+package com.sports.config;
+
+import com.sports.dto.MatchDelta;
+import com.sports.model.enums.MatchStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker fan-out benchmark, run with the broker-benchmark profile in any broker mode.
+ * It lives in the test sources and is started by BrokerBenchmarkApplication.
+ *
+ * Simulated STOMP sessions subscribe through the client inbound channel exactly as
+ * WebSocket clients would, spread over a number of match topics. Messages are then
+ * published through the broker template, and every delivery is counted and timed on
+ * the client outbound channel, where it is dropped instead of written to a socket. The
+ * figures therefore cover the broker and channel fan-out, not network or browser cost.
+ */
+@Slf4j
+@Component
+@Profile("broker-benchmark")
+public class BrokerBenchmarkRunner implements ApplicationRunner {
+
+    private static final String SESSION_PREFIX = "bench-";
+    private static final String SENT_AT = "bench-sent-at";
+    private static final String WARM_UP = "bench-warm-up";
+    private static final int MAX_LATENCY_SAMPLES = 2_000_000;
+
+    private final AbstractSubscribableChannel clientInboundChannel;
+    private final AbstractSubscribableChannel clientOutboundChannel;
+    private final SimpMessagingTemplate brokerMessagingTemplate;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${benchmark.broker.subscribers:10000,50000}")
+    private int[] subscriberCounts;
+
+    @Value("${benchmark.broker.topics:100}")
+    private int topics;
+
+    @Value("${benchmark.broker.messages:1000}")
+    private int messages;
+
+    @Value("${benchmark.broker.timeout-seconds:300}")
+    private long timeoutSeconds;
+
+    @Value("${benchmark.broker.exit:true}")
+    private boolean exitWhenDone;
+
+    private volatile boolean brokerAvailable;
+
+    // Per-round measurement state, reset before each round
+    private final Set<String> connected = ConcurrentHashMap.newKeySet();
+    private final Set<String> warmedUp = ConcurrentHashMap.newKeySet();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong lastDeliveryNanos = new AtomicLong();
+    private final AtomicInteger latencyCount = new AtomicInteger();
+    private final long[] latencies = new long[MAX_LATENCY_SAMPLES];
+
+    public BrokerBenchmarkRunner(@Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+                                 @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel,
+                                 @Qualifier("brokerMessagingTemplate") SimpMessagingTemplate brokerMessagingTemplate,
+                                 ConfigurableApplicationContext context) {
+        this.clientInboundChannel = clientInboundChannel;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.brokerMessagingTemplate = brokerMessagingTemplate;
+        this.context = context;
+    }
+
+    @EventListener
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        brokerAvailable = event.isBrokerAvailable();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        awaitBroker();
+        ChannelInterceptor recorder = new DeliveryRecorder();
+        clientOutboundChannel.addInterceptor(recorder);
+        try {
+            for (int subscribers : subscriberCounts) {
+                runRound(subscribers);
+            }
+        } finally {
+            clientOutboundChannel.removeInterceptor(recorder);
+        }
+        if (exitWhenDone) {
+            // Closing the context stops the web server, so the JVM exits once run() returns
+            SpringApplication.exit(context);
+        }
+    }
+
+    private void runRound(int subscribers) throws InterruptedException {
+        String round = SESSION_PREFIX + subscribers + "-";
+        connected.clear();
+        for (int i = 0; i < subscribers; i++) {
+            send(StompCommand.CONNECT, round + i, null);
+        }
+        // Like a real client, subscribe only once the broker has acknowledged the connection
+        awaitConnected(subscribers);
+        int[] topicSubscribers = new int[topics];
+        for (int i = 0; i < subscribers; i++) {
+            topicSubscribers[i % topics]++;
+            send(StompCommand.SUBSCRIBE, round + i, destination(i % topics));
+        }
+
+        warmUp(subscribers);
+
+        delivered.set(0);
+        latencyCount.set(0);
+        lastDeliveryNanos.set(0);
+        long expected = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            int topic = i % topics;
+            expected += topicSubscribers[topic];
+            publish(topic, Map.of(SENT_AT, String.valueOf(System.nanoTime())));
+        }
+        long publishedNanos = System.nanoTime() - started;
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (delivered.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long elapsedNanos = Math.max(1, lastDeliveryNanos.get() - started);
+        report(subscribers, expected, publishedNanos, elapsedNanos);
+
+        for (int i = 0; i < subscribers; i++) {
+            send(StompCommand.DISCONNECT, round + i, null);
+        }
+    }
+
+    private void awaitConnected(int subscribers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (connected.size() < subscribers && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        if (connected.size() < subscribers) {
+            log.warn("Only {} of {} benchmark sessions connected before the timeout", connected.size(), subscribers);
+        }
+    }
+
+    /**
+     * Publish until every session has received a message, so all subscriptions are in place
+     */
+    private void warmUp(int subscribers) throws InterruptedException {
+        warmedUp.clear();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (warmedUp.size() < subscribers && System.nanoTime() < deadline) {
+            for (int topic = 0; topic < topics; topic++) {
+                publish(topic, Map.of(WARM_UP, "true"));
+            }
+            Thread.sleep(200);
+        }
+        if (warmedUp.size() < subscribers) {
+            log.warn("Only {} of {} benchmark sessions subscribed before the timeout", warmedUp.size(), subscribers);
+        }
+        // Let the last warm-up deliveries drain before measuring
+        Thread.sleep(500);
+    }
+
+    private void report(int subscribers, long expected, long publishedNanos, long elapsedNanos) {
+        int samples = Math.min(latencyCount.get(), MAX_LATENCY_SAMPLES);
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+
+        log.info("Broker benchmark: subscribers={} topics={} published={} in {} ms, delivered={}/{} in {} ms, "
+                        + "{} msgs/s, latency p50={} us p99={} us max={} us",
+                subscribers, topics, messages, TimeUnit.NANOSECONDS.toMillis(publishedNanos),
+                delivered.get(), expected, Math.round(seconds * 1000),
+                Math.round(delivered.get() / seconds),
+                micros(percentile(sorted, 0.50)), micros(percentile(sorted, 0.99)),
+                micros(samples == 0 ? 0 : sorted[samples - 1]));
+    }
+
+    private void publish(int topic, Map<String, Object> headers) {
+        MatchDelta delta = MatchDelta.builder()
+                .matchId("benchmark-" + topic)
+                .type(MatchDelta.Type.SCORE)
+                .status(MatchStatus.LIVE)
+                .team1Score(1)
+                .team2Score(0)
+                .timestamp(System.currentTimeMillis())
+                .build();
+        brokerMessagingTemplate.convertAndSend(destination(topic), delta, headers);
+    }
+
+    private void send(StompCommand command, String sessionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(new HashMap<>());
+        if (command == StompCommand.CONNECT) {
+            accessor.setAcceptVersion("1.2");
+            accessor.setHeartbeat(0, 0);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+            accessor.setSubscriptionId("sub-0");
+        }
+        clientInboundChannel.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private void awaitBroker() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!brokerAvailable && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        if (!brokerAvailable) {
+            throw new IllegalStateException("Message broker did not become available");
+        }
+    }
+
+    private static String destination(int topic) {
+        return "/topic/benchmark/" + topic;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.floor(sorted.length * quantile))];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Counts and times deliveries to benchmark sessions and keeps them off the WebSocket handler
+     */
+    private final class DeliveryRecorder implements ChannelInterceptor {
+
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+            String sessionId = accessor.getSessionId();
+            if (sessionId == null || !sessionId.startsWith(SESSION_PREFIX)) {
+                return message;
+            }
+            // The simple broker acknowledges with CONNECT_ACK, a relayed broker with a CONNECTED frame
+            if (accessor.getMessageType() == SimpMessageType.CONNECT_ACK
+                    || accessor.getMessageType() == SimpMessageType.OTHER
+                    && StompHeaderAccessor.wrap(message).getCommand() == StompCommand.CONNECTED) {
+                connected.add(sessionId);
+            } else if (accessor.getMessageType() == SimpMessageType.MESSAGE) {
+                if (accessor.getFirstNativeHeader(WARM_UP) != null) {
+                    warmedUp.add(sessionId);
+                } else {
+                    record(accessor.getFirstNativeHeader(SENT_AT));
+                }
+            }
+            return null;
+        }
+
+        private void record(String sentAt) {
+            if (sentAt == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            int index = latencyCount.getAndIncrement();
+            if (index < MAX_LATENCY_SAMPLES) {
+                latencies[index] = now - Long.parseLong(sentAt);
+            }
+            lastDeliveryNanos.accumulateAndGet(now, Math::max);
+            delivered.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.sports.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sports.dto.FixtureRequest;
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.enums.FixtureFormat;
+import com.sports.model.enums.MatchStatus;
+import com.sports.repository.EventRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Elimination brackets of every size from 2 to 40 played out to the end, advancing
+ * participants only through the links FixtureService sets and BracketService follows.
+ * Winners are drawn at random (seeded by the size), so upsets exercise every path.
+ */
+class BracketLinksTest {
+
+    private static final String EVENT_ID = "event-1";
+
+    private final Map<String, Match> stored = new LinkedHashMap<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final MatchListCache matchListCache = mock(MatchListCache.class);
+    private final FixtureService fixtureService = new FixtureService(mongoTemplate, eventRepository,
+            matchListCache, mock(VenueBookingService.class));
+    private final BracketService bracketService = new BracketService(mongoTemplate, matchListCache);
+
+    @BeforeEach
+    void fakeStore() {
+        doAnswer(call -> {
+            Collection<Match> matches = call.getArgument(0);
+            matches.forEach(match -> stored.put(match.getId(), match));
+            return matches;
+        }).when(mongoTemplate).insert(anyCollection(), eq(Match.class));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Event.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Match.class)))
+                .thenAnswer(call -> fill(call.getArgument(0), call.getArgument(1)));
+    }
+
+    static IntStream sizes() {
+        return IntStream.rangeClosed(2, 40);
+    }
+
+    @ParameterizedTest
+    @MethodSource("sizes")
+    void singleEliminationEndsWithOneUnbeatenChampion(int size) {
+        List<String> players = generate(size, FixtureFormat.SINGLE_ELIMINATION);
+        assertLinksRunForward();
+
+        Map<String, Integer> losses = playOut(new Random(size));
+
+        assertThat(stored).hasSize(size - 1);
+        assertThat(stored.values()).allMatch(match -> match.getStatus() == MatchStatus.COMPLETED);
+        Match last = lastMatch();
+        assertThat(last.getWinnerNextMatchId()).isNull();
+        for (String player : players) {
+            assertThat(losses.getOrDefault(player, 0))
+                    .as("losses of %s", player)
+                    .isEqualTo(player.equals(last.getWinnerPlayerId()) ? 0 : 1);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("sizes")
+    void doubleEliminationKnocksEveryoneOutTwiceExceptTheFinalists(int size) {
+        List<String> players = generate(size, FixtureFormat.DOUBLE_ELIMINATION);
+        assertLinksRunForward();
+
+        Map<String, Integer> losses = playOut(new Random(size));
+
+        assertThat(stored.values()).allMatch(match -> match.getStatus() == MatchStatus.COMPLETED);
+        Match grandFinal = lastMatch();
+        assertThat(grandFinal.getBracket()).isEqualTo(FixtureService.GRAND_FINAL);
+        String champion = grandFinal.getWinnerPlayerId();
+        String runnerUp = champion.equals(grandFinal.getPlayer1Id()) ? grandFinal.getPlayer2Id() : grandFinal.getPlayer1Id();
+        for (String player : players) {
+            int lost = losses.getOrDefault(player, 0);
+            if (player.equals(champion)) {
+                assertThat(lost).as("losses of champion %s", player).isLessThanOrEqualTo(1);
+            } else if (player.equals(runnerUp)) {
+                assertThat(lost).as("losses of runner-up %s", player).isBetween(1, 2);
+            } else {
+                assertThat(lost).as("losses of %s", player).isEqualTo(2);
+            }
+        }
+        // Every match has a loser, and every loss is one match
+        assertThat(losses.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(stored.size());
+    }
+
+    private List<String> generate(int size, FixtureFormat format) {
+        List<String> players = IntStream.rangeClosed(1, size).mapToObj(seed -> "p" + seed).toList();
+        Event event = Event.builder().participantIds(new ArrayList<>(players)).build();
+        event.setId(EVENT_ID);
+        when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+        fixtureService.generate(EVENT_ID, FixtureRequest.builder()
+                .format(format)
+                .startTime(LocalDateTime.of(2026, 1, 1, 10, 0))
+                .build());
+        return players;
+    }
+
+    /**
+     * Each link points at a stored match scheduled later, and no slot is fed twice
+     */
+    private void assertLinksRunForward() {
+        Map<String, Match> feeds = new HashMap<>();
+        for (Match match : stored.values()) {
+            for (String link : new String[] {
+                    slotKey(match.getWinnerNextMatchId(), match.getWinnerNextSlot()),
+                    slotKey(match.getLoserNextMatchId(), match.getLoserNextSlot())}) {
+                if (link == null) {
+                    continue;
+                }
+                Match target = stored.get(link.substring(0, link.indexOf('#')));
+                assertThat(target).as("link from %s", match.getRoundName()).isNotNull();
+                assertThat(target.getScheduledTime()).isAfter(match.getScheduledTime());
+                assertThat(feeds.put(link, match)).as("slot %s fed twice", link).isNull();
+            }
+        }
+    }
+
+    /**
+     * Complete every ready match until none is left, returning the losses per player
+     */
+    private Map<String, Integer> playOut(Random random) {
+        Map<String, Integer> losses = new HashMap<>();
+        boolean progressed = true;
+        while (progressed) {
+            progressed = false;
+            for (Match match : new ArrayList<>(stored.values())) {
+                if (match.getStatus() != MatchStatus.SCHEDULED || match.getPlayer1Id() == null || match.getPlayer2Id() == null) {
+                    continue;
+                }
+                boolean firstWins = random.nextBoolean();
+                match.setWinnerPlayerId(firstWins ? match.getPlayer1Id() : match.getPlayer2Id());
+                match.setStatus(MatchStatus.COMPLETED);
+                losses.merge(firstWins ? match.getPlayer2Id() : match.getPlayer1Id(), 1, Integer::sum);
+                bracketService.advance(match);
+                progressed = true;
+            }
+        }
+        return losses;
+    }
+
+    private Match lastMatch() {
+        return stored.values().stream()
+                .filter(match -> match.getWinnerNextMatchId() == null && match.getLoserNextMatchId() == null)
+                .reduce((only, other) -> {
+                    throw new AssertionError("More than one match leads nowhere");
+                })
+                .orElseThrow();
+    }
+
+    /**
+     * BracketService's conditional slot fill: the slot must be empty or already hold the
+     * participant, and the match must still be scheduled
+     */
+    private UpdateResult fill(Query query, UpdateDefinition update) {
+        Document filter = query.getQueryObject();
+        Match match = stored.get((String) filter.get("id"));
+        Document set = update.getUpdateObject().get("$set", Document.class);
+        String field = set.keySet().iterator().next();
+        String current = "player1Id".equals(field) ? match.getPlayer1Id() : match.getPlayer2Id();
+        String participant = (String) set.get(field);
+        if (match.getStatus() != filter.get("status") || (current != null && !current.equals(participant))) {
+            return UpdateResult.acknowledged(0, 0L, null);
+        }
+        if ("player1Id".equals(field)) {
+            match.setPlayer1Id(participant);
+        } else {
+            match.setPlayer2Id(participant);
+        }
+        return UpdateResult.acknowledged(1, current == null ? 1L : 0L, null);
+    }
+
+    private static String slotKey(String matchId, Integer slot) {
+        return matchId == null ? null : matchId + "#" + slot;
+    }
+}
@@ -0,0 +1,179 @@
+package com.sports.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sports.dto.FixtureRequest;
+import com.sports.dto.FixtureResult;
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.enums.FixtureFormat;
+import com.sports.model.enums.MatchStatus;
+import com.sports.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Swiss rounds generated one at a time against an in-memory match collection, with
+ * the better seed winning every played match.
+ */
+class FixtureServiceSwissTest {
+
+    private static final String EVENT_ID = "event-1";
+
+    private final List<Match> stored = new ArrayList<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final FixtureService fixtureService = new FixtureService(mongoTemplate, eventRepository,
+            mock(MatchListCache.class), mock(VenueBookingService.class));
+
+    private List<String> players;
+
+    @BeforeEach
+    void fakeStore() {
+        doAnswer(call -> {
+            Collection<Match> matches = call.getArgument(0);
+            stored.addAll(matches);
+            return matches;
+        }).when(mongoTemplate).insert(anyCollection(), eq(Match.class));
+        when(mongoTemplate.stream(any(Query.class), eq(Match.class)))
+                .thenAnswer(call -> new ArrayList<>(stored).stream());
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Event.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    void firstRoundPairsNeighbouringSeeds() {
+        field(8);
+
+        FixtureResult result = nextRound();
+
+        assertThat(result.getFirstRound()).isEqualTo(1);
+        assertThat(result.getByes()).isZero();
+        assertThat(pairs(1)).containsExactly("p1-p2", "p3-p4", "p5-p6", "p7-p8");
+    }
+
+    @Test
+    void laterRoundsPairByPointsWithoutRematches() {
+        field(8);
+
+        nextRound();
+        playRound(1);
+        nextRound();
+        assertThat(pairs(2)).containsExactly("p1-p3", "p5-p7", "p2-p4", "p6-p8");
+        playRound(2);
+        nextRound();
+        playRound(3);
+
+        Set<String> met = new HashSet<>();
+        for (int round = 1; round <= 3; round++) {
+            List<Match> matches = round(round);
+            assertThat(matches).hasSize(4);
+            assertThat(matches.stream().flatMap(match -> IntStream.of(1, 2).mapToObj(side -> side(match, side))))
+                    .containsExactlyInAnyOrderElementsOf(players);
+            for (String pair : pairs(round)) {
+                assertThat(met.add(pair)).as("rematch %s in round %d", pair, round).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void oddFieldGivesEachByeOnceStartingWithTheLowestRanked() {
+        field(5);
+
+        Set<String> hadBye = new HashSet<>();
+        for (int round = 1; round <= 5; round++) {
+            FixtureResult result = nextRound();
+            assertThat(result.getByes()).isEqualTo(1);
+
+            List<Match> byes = round(round).stream().filter(match -> match.getPlayer2Id() == null).toList();
+            assertThat(byes).hasSize(1);
+            Match bye = byes.get(0);
+            assertThat(bye.getStatus()).isEqualTo(MatchStatus.COMPLETED);
+            assertThat(bye.getWinnerPlayerId()).isEqualTo(bye.getPlayer1Id());
+            if (round == 1) {
+                assertThat(bye.getPlayer1Id()).isEqualTo("p5");
+            }
+            assertThat(hadBye.add(bye.getPlayer1Id())).as("second bye for %s", bye.getPlayer1Id()).isTrue();
+            playRound(round);
+        }
+        assertThat(hadBye).containsExactlyInAnyOrderElementsOf(players);
+    }
+
+    @Test
+    void unfinishedRoundBlocksTheNext() {
+        field(4);
+        nextRound();
+
+        assertThatThrownBy(this::nextRound)
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Round 1 is still in progress");
+    }
+
+    private void field(int size) {
+        players = IntStream.rangeClosed(1, size).mapToObj(seed -> "p" + seed).toList();
+        Event event = Event.builder().participantIds(new ArrayList<>(players)).build();
+        event.setId(EVENT_ID);
+        when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+    }
+
+    private FixtureResult nextRound() {
+        return fixtureService.generate(EVENT_ID, FixtureRequest.builder()
+                .format(FixtureFormat.SWISS)
+                .startTime(LocalDateTime.of(2026, 1, 1, 10, 0))
+                .build());
+    }
+
+    /**
+     * Complete every scheduled match of the round, won by the better seed
+     */
+    private void playRound(int round) {
+        for (Match match : round(round)) {
+            if (match.getStatus() == MatchStatus.SCHEDULED) {
+                String better = players.indexOf(match.getPlayer1Id()) < players.indexOf(match.getPlayer2Id())
+                        ? match.getPlayer1Id() : match.getPlayer2Id();
+                match.setWinnerPlayerId(better);
+                match.setStatus(MatchStatus.COMPLETED);
+            }
+        }
+    }
+
+    private List<Match> round(int round) {
+        return stored.stream().filter(match -> match.getRound() == round).toList();
+    }
+
+    /**
+     * Played pairings of the round in generation order, each written better seed first
+     */
+    private List<String> pairs(int round) {
+        return round(round).stream()
+                .filter(match -> match.getPlayer2Id() != null)
+                .map(match -> players.indexOf(match.getPlayer1Id()) < players.indexOf(match.getPlayer2Id())
+                        ? match.getPlayer1Id() + "-" + match.getPlayer2Id()
+                        : match.getPlayer2Id() + "-" + match.getPlayer1Id())
+                .toList();
+    }
+
+    private static String side(Match match, int side) {
+        return side == 1 ? match.getPlayer1Id() : match.getPlayer2Id();
+    }
+}
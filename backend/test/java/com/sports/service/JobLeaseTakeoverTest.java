@@ -0,0 +1,268 @@
+package com.sports.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sports.config.LeaderElectionConfig;
+import com.sports.model.entity.JobLease;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.autoproxy.DefaultAdvisorAutoProxyCreator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two application contexts share one lease collection: node A stalls past its lease,
+ * node B takes the job over, and A's next write is fenced off.
+ */
+class JobLeaseTakeoverTest {
+
+    private static final String JOB = "test-nightly";
+
+    private final LeaseStore store = new LeaseStore();
+    private final Ledger ledger = new Ledger();
+    private final List<AnnotationConfigApplicationContext> contexts = new ArrayList<>();
+
+    @AfterEach
+    void closeContexts() {
+        ledger.resume.countDown();
+        contexts.forEach(AnnotationConfigApplicationContext::close);
+    }
+
+    @Test
+    void stalledLeaderIsFencedOffAfterTakeOver() throws Exception {
+        AnnotationConfigApplicationContext nodeA = node("node-a");
+        AnnotationConfigApplicationContext nodeB = node("node-b");
+
+        AtomicReference<Throwable> leaderFailure = new AtomicReference<>();
+        Thread leader = new Thread(() -> {
+            try {
+                nodeA.getBean(NightlyJob.class).run();
+            } catch (Throwable e) {
+                leaderFailure.set(e);
+            }
+        });
+        leader.start();
+        assertThat(ledger.paused.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // B fires the same occurrence while A holds the lease: skipped, but remembered for take-over
+        nodeB.getBean(NightlyJob.class).run();
+        assertThat(ledger.writes).containsExactly("node-a:1");
+
+        // A stops renewing (GC pause, partition) until its lease has expired
+        store.expire(JOB);
+        nodeB.getBean(JobLeaseService.class).takeOverAbandonedJobs();
+        assertThat(ledger.finished.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ledger.resume.countDown();
+        leader.join(10_000);
+
+        assertThat(leaderFailure.get()).isInstanceOf(CancellationException.class);
+        assertThat(ledger.writes).containsExactly("node-a:1", "node-b:2", "node-b:2");
+        assertThat(ledger.takeOver).containsExactly(true);
+
+        // B releases the lease just after its job returns
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!Boolean.FALSE.equals(store.get(JOB).get("running")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Document lease = store.get(JOB);
+        assertThat(lease.get("owner")).isEqualTo("node-b");
+        assertThat(lease.get("fencingToken")).isEqualTo(2L);
+        assertThat(lease.get("completedToken")).isEqualTo(2L);
+        assertThat(lease.get("running")).isEqualTo(false);
+    }
+
+    private AnnotationConfigApplicationContext node(String nodeId) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("node", Map.of("cluster.node-id", nodeId)));
+        context.register(LeaderElectionConfig.class);
+        context.registerBean(DefaultAdvisorAutoProxyCreator.class);
+        context.registerBean(MongoTemplate.class, store::template);
+        context.registerBean(Ledger.class, () -> ledger);
+        context.registerBean(JobLeaseService.class);
+        context.registerBean(NightlyJob.class);
+        context.refresh();
+        contexts.add(context);
+        return context;
+    }
+
+    /**
+     * What the job's writes would have reached, in order; shared by both nodes like the database
+     */
+    static class Ledger {
+        final List<String> writes = new CopyOnWriteArrayList<>();
+        final List<Boolean> takeOver = new CopyOnWriteArrayList<>();
+        final CountDownLatch paused = new CountDownLatch(1);
+        final CountDownLatch resume = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+    }
+
+    /**
+     * A two-chunk leased job; node A stalls between its chunks
+     */
+    static class NightlyJob {
+        private final JobLeaseService leases;
+        private final Ledger ledger;
+
+        NightlyJob(JobLeaseService leases, Ledger ledger) {
+            this.leases = leases;
+            this.ledger = ledger;
+        }
+
+        @LeaderOnly(value = JOB, leaseSeconds = 60)
+        public void run() throws InterruptedException {
+            JobLeaseService.Lease lease = JobLeaseService.currentLease();
+            write(lease);
+            if ("node-a".equals(leases.getNodeId())) {
+                ledger.paused.countDown();
+                ledger.resume.await(10, TimeUnit.SECONDS);
+            } else {
+                ledger.takeOver.add(lease.isTakeOver());
+            }
+            write(lease);
+            ledger.finished.countDown();
+        }
+
+        private void write(JobLeaseService.Lease lease) {
+            if (!leases.holds(lease)) {
+                throw new CancellationException("Lease " + lease.getName() + " lost");
+            }
+            ledger.writes.add(leases.getNodeId() + ":" + lease.getFencingToken());
+        }
+    }
+
+    /**
+     * Just enough of a Mongo lease collection for JobLeaseService: equality, $lte and $in
+     * filters, and $set, $inc and $setOnInsert updates
+     */
+    static class LeaseStore {
+        private final Map<String, Document> leases = new ConcurrentHashMap<>();
+
+        MongoTemplate template() {
+            MongoTemplate template = mock(MongoTemplate.class);
+            when(template.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(JobLease.class)))
+                    .thenAnswer(call -> upsert(call.getArgument(0), call.getArgument(1)));
+            when(template.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(JobLease.class)))
+                    .thenAnswer(call -> updateFirst(call.getArgument(0), call.getArgument(1)));
+            when(template.find(any(Query.class), eq(JobLease.class)))
+                    .thenAnswer(call -> find(call.getArgument(0)));
+            when(template.exists(any(Query.class), eq(JobLease.class)))
+                    .thenAnswer(call -> !find(call.getArgument(0)).isEmpty());
+            return template;
+        }
+
+        Document get(String id) {
+            return leases.get(id);
+        }
+
+        synchronized void expire(String id) {
+            leases.get(id).put("expiresAt", LocalDateTime.now().minusSeconds(1));
+        }
+
+        private synchronized JobLease upsert(Query query, UpdateDefinition update) {
+            String id = (String) query.getQueryObject().get("id");
+            Document lease = leases.get(id);
+            if (lease == null) {
+                lease = new Document("id", id);
+                apply(lease, update.getUpdateObject(), true);
+                leases.put(id, lease);
+            } else if (matches(lease, query.getQueryObject())) {
+                apply(lease, update.getUpdateObject(), false);
+            } else {
+                throw new DuplicateKeyException("E11000 duplicate key error: " + id);
+            }
+            return toLease(lease);
+        }
+
+        private synchronized UpdateResult updateFirst(Query query, UpdateDefinition update) {
+            for (Document lease : leases.values()) {
+                if (matches(lease, query.getQueryObject())) {
+                    apply(lease, update.getUpdateObject(), false);
+                    return UpdateResult.acknowledged(1, 1L, null);
+                }
+            }
+            return UpdateResult.acknowledged(0, 0L, null);
+        }
+
+        private synchronized List<JobLease> find(Query query) {
+            return leases.values().stream()
+                    .filter(lease -> matches(lease, query.getQueryObject()))
+                    .map(LeaseStore::toLease)
+                    .toList();
+        }
+
+        private static boolean matches(Document lease, Document filter) {
+            for (Map.Entry<String, Object> condition : filter.entrySet()) {
+                Object actual = lease.get(condition.getKey());
+                if (condition.getValue() instanceof Document operators) {
+                    if (operators.containsKey("$lte")
+                            && (actual == null || ((LocalDateTime) actual).isAfter((LocalDateTime) operators.get("$lte")))) {
+                        return false;
+                    }
+                    if (operators.containsKey("$in") && !((Collection<?>) operators.get("$in")).contains(actual)) {
+                        return false;
+                    }
+                } else if (!condition.getValue().equals(actual)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void apply(Document lease, Document update, boolean inserting) {
+            Document set = update.get("$set", Document.class);
+            if (set != null) {
+                lease.putAll(set);
+            }
+            Document inc = update.get("$inc", Document.class);
+            if (inc != null) {
+                inc.forEach((field, by) -> lease.put(field,
+                        ((Number) lease.getOrDefault(field, 0L)).longValue() + ((Number) by).longValue()));
+            }
+            Document setOnInsert = update.get("$setOnInsert", Document.class);
+            if (inserting && setOnInsert != null) {
+                lease.putAll(setOnInsert);
+            }
+        }
+
+        private static JobLease toLease(Document lease) {
+            JobLease copy = JobLease.builder()
+                    .owner(lease.getString("owner"))
+                    .fencingToken(lease.getLong("fencingToken"))
+                    .running(lease.getBoolean("running"))
+                    .acquiredAt((LocalDateTime) lease.get("acquiredAt"))
+                    .heartbeatAt((LocalDateTime) lease.get("heartbeatAt"))
+                    .expiresAt((LocalDateTime) lease.get("expiresAt"))
+                    .completedAt((LocalDateTime) lease.get("completedAt"))
+                    .completedToken(lease.getLong("completedToken"))
+                    .build();
+            copy.setId(lease.getString("id"));
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.sports.service;
+
+import com.sports.dto.LeaderboardEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ranks, pages and windows of the leaderboard skip list, checked against a sorted list.
+ */
+class LeaderboardIndexTest {
+
+    private final LeaderboardIndex index = new LeaderboardIndex();
+
+    @Test
+    void ranksByRatingThenId() {
+        index.put("c", 1500);
+        index.put("a", 1600);
+        index.put("d", 1500);
+        index.put("b", 1500);
+
+        assertThat(ids(index.page(0, 10))).containsExactly("a", "b", "c", "d");
+        assertThat(index.rankOf("a")).isEqualTo(1);
+        assertThat(index.rankOf("d")).isEqualTo(4);
+        assertThat(index.rankOf("missing")).isEqualTo(-1);
+        assertThat(index.entryOf("c")).isEqualTo(new LeaderboardEntry(3, "c", 1500));
+    }
+
+    @Test
+    void ratingChangeMovesTheEntry() {
+        index.put("a", 1600);
+        index.put("b", 1500);
+        index.put("c", 1400);
+
+        index.put("c", 1700);
+        index.put("a", 1600);
+
+        assertThat(ids(index.page(0, 10))).containsExactly("c", "a", "b");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void removeAndClearEmptyTheIndex() {
+        index.put("a", 1600);
+        index.put("b", 1500);
+
+        index.remove("a");
+        index.remove("missing");
+        assertThat(index.rankOf("b")).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.clear();
+        assertThat(index.size()).isZero();
+        assertThat(index.page(0, 10)).isEmpty();
+        index.put("c", 1400);
+        assertThat(index.rankOf("c")).isEqualTo(1);
+    }
+
+    @Test
+    void pageAndAroundStopAtTheEnds() {
+        for (int i = 0; i < 10; i++) {
+            index.put("p" + i, 2000 - i);
+        }
+
+        assertThat(index.page(8, 5)).extracting(LeaderboardEntry::getRank).containsExactly(9, 10);
+        assertThat(index.page(10, 5)).isEmpty();
+        assertThat(index.page(-1, 5)).isEmpty();
+        assertThat(index.page(0, 0)).isEmpty();
+        assertThat(ids(index.around("p0", 2))).containsExactly("p0", "p1", "p2");
+        assertThat(ids(index.around("p9", 2))).containsExactly("p7", "p8", "p9");
+        assertThat(index.around("missing", 2)).isEmpty();
+    }
+
+    @Test
+    void agreesWithASortedListUnderRandomUpdates() {
+        Random random = new Random(7);
+        Map<String, Double> ratings = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String id = "e" + random.nextInt(2_000);
+            if (random.nextInt(10) == 0) {
+                index.remove(id);
+                ratings.remove(id);
+            } else {
+                // Few distinct ratings, so ties are common
+                double rating = 1000 + random.nextInt(300);
+                index.put(id, rating);
+                ratings.put(id, rating);
+            }
+        }
+
+        List<String> expected = new ArrayList<>(ratings.keySet());
+        expected.sort(Comparator.comparingDouble((String id) -> -ratings.get(id)).thenComparing(id -> id));
+        assertThat(index.size()).isEqualTo(expected.size());
+        assertThat(ids(index.page(0, expected.size()))).containsExactlyElementsOf(expected);
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            String id = expected.get(rank - 1);
+            assertThat(index.rankOf(id)).as("rank of %s", id).isEqualTo(rank);
+        }
+        for (int offset = 0; offset < expected.size(); offset += 97) {
+            assertThat(ids(index.page(offset, 25)))
+                    .containsExactlyElementsOf(expected.subList(offset, Math.min(expected.size(), offset + 25)));
+        }
+        String middle = expected.get(expected.size() / 2);
+        assertThat(ids(index.around(middle, 5)))
+                .containsExactlyElementsOf(expected.subList(expected.size() / 2 - 5, expected.size() / 2 + 6));
+    }
+
+    private static List<String> ids(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getEntityId).toList();
+    }
+}
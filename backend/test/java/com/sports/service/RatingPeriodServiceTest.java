@@ -0,0 +1,148 @@
+package com.sports.service;
+
+import com.sports.model.entity.Event;
+import com.sports.model.entity.Match;
+import com.sports.model.entity.PlayerProfile;
+import com.sports.model.enums.SportType;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Glicko-2 rating periods computed end to end over a mocked store, starting from the
+ * worked example in Glickman's "Example of the Glicko-2 system".
+ */
+class RatingPeriodServiceTest {
+
+    private static final String EVENT_ID = "event-1";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final RatingPeriodService ratingPeriodService =
+            new RatingPeriodService(mongoTemplate, mock(LeaderboardService.class));
+
+    private final List<PlayerProfile> profiles = new ArrayList<>();
+    private final List<Match> matches = new ArrayList<>();
+    private final Map<String, Document> written = new HashMap<>();
+
+    @BeforeEach
+    void fakeStore() {
+        ReflectionTestUtils.setField(ratingPeriodService, "ratingModel", "GLICKO2");
+        ReflectionTestUtils.setField(ratingPeriodService, "tau", 0.5);
+        ReflectionTestUtils.setField(ratingPeriodService, "bulkChunkSize", 1000);
+
+        Event event = Event.builder().sportType(SportType.TENNIS).build();
+        event.setId(EVENT_ID);
+        when(mongoTemplate.findOne(any(Query.class), eq(Event.class))).thenReturn(event);
+        when(mongoTemplate.stream(any(Query.class), eq(Match.class))).thenAnswer(call -> matches.stream());
+        when(mongoTemplate.find(any(Query.class), eq(PlayerProfile.class))).thenAnswer(call -> profiles);
+
+        BulkOperations bulk = mock(BulkOperations.class);
+        doAnswer(call -> {
+            Query query = call.getArgument(0);
+            Update update = call.getArgument(1);
+            written.put((String) query.getQueryObject().get("id"), update.getUpdateObject().get("$set", Document.class));
+            return bulk;
+        }).when(bulk).updateOne(any(Query.class), any(Update.class));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerProfile.class)).thenReturn(bulk);
+    }
+
+    @Test
+    void matchesGlickmansWorkedExample() {
+        profile("player", 1500, 200, 0.06);
+        profile("a", 1400, 30, 0.06);
+        profile("b", 1550, 100, 0.06);
+        profile("c", 1700, 300, 0.06);
+        match("player", "a", 1, 0);
+        match("player", "b", 0, 1);
+        match("player", "c", 0, 1);
+
+        ratingPeriodService.rateEvent(EVENT_ID);
+
+        Document player = written.get("player");
+        assertThat(player.getDouble("rating")).isCloseTo(1464.05, within(0.01));
+        assertThat(player.getDouble("ratingDeviation")).isCloseTo(151.52, within(0.01));
+        assertThat(player.getDouble("volatility")).isCloseTo(0.05999, within(0.00001));
+    }
+
+    @Test
+    void drawBetweenEqualsKeepsRatingsAndNarrowsDeviations() {
+        profile("a", 1500, 200, 0.06);
+        profile("b", 1500, 200, 0.06);
+        match("a", "b", 2, 2);
+
+        ratingPeriodService.rateEvent(EVENT_ID);
+
+        for (String id : List.of("a", "b")) {
+            Document rated = written.get(id);
+            assertThat(rated.getDouble("rating")).isCloseTo(1500, within(1e-9));
+            assertThat(rated.getDouble("ratingDeviation")).isLessThan(200);
+            assertThat(rated.getDouble("volatility")).isLessThan(0.06);
+        }
+        assertThat(written.get("a").getDouble("ratingDeviation"))
+                .isCloseTo(written.get("b").getDouble("ratingDeviation"), within(1e-9));
+    }
+
+    @Test
+    void largeUpsetRaisesVolatility() {
+        // The surprise exceeds phi^2 + v, so the volatility bracket starts from ln(delta^2 - phi^2 - v)
+        profile("underdog", 1200, 50, 0.06);
+        profile("favourite", 2400, 50, 0.06);
+        match("underdog", "favourite", 3, 0);
+
+        ratingPeriodService.rateEvent(EVENT_ID);
+
+        Document underdog = written.get("underdog");
+        Document favourite = written.get("favourite");
+        assertThat(underdog.getDouble("rating")).isGreaterThan(1200);
+        assertThat(favourite.getDouble("rating")).isLessThan(2400);
+        assertThat(underdog.getDouble("volatility")).isGreaterThan(0.06).isLessThan(1);
+        assertThat(favourite.getDouble("volatility")).isGreaterThan(0.06).isLessThan(1);
+    }
+
+    @Test
+    void periodsNeedTheGlickoModel() {
+        ReflectionTestUtils.setField(ratingPeriodService, "ratingModel", "ELO");
+
+        assertThatThrownBy(() -> ratingPeriodService.rateEvent(EVENT_ID))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Rating periods only apply when ranking.rating-model is GLICKO2");
+    }
+
+    private void profile(String id, double rating, double deviation, double volatility) {
+        PlayerProfile profile = PlayerProfile.builder()
+                .rating(rating)
+                .ratingDeviation(deviation)
+                .volatility(volatility)
+                .build();
+        profile.setId(id);
+        profiles.add(profile);
+    }
+
+    private void match(String player1, String player2, int score1, int score2) {
+        matches.add(Match.builder()
+                .player1Id(player1)
+                .player2Id(player2)
+                .team1Score(score1)
+                .team2Score(score2)
+                .build());
+    }
+}
@@ -0,0 +1,141 @@
+package com.sports.service;
+
+import com.sports.model.entity.VenueBooking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Interval conflicts in one venue's bookings, for match bookings and event holds.
+ */
+class VenueBookingIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    private final VenueBookingIndex index = new VenueBookingIndex();
+
+    @Test
+    void matchesThatOnlyTouchDoNotConflict() {
+        index.add(match("e1", 10, 12));
+
+        assertThat(index.conflict(match("e2", 8, 10))).isNull();
+        assertThat(index.conflict(match("e2", 12, 14))).isNull();
+    }
+
+    @Test
+    void overlappingMatchesConflictWhateverTheirEvent() {
+        VenueBooking booked = match("e1", 10, 12);
+        index.add(booked);
+        index.add(match("e1", 14, 16));
+
+        assertThat(index.conflict(match("e1", 9, 11))).isSameAs(booked);
+        assertThat(index.conflict(match("e2", 11, 13))).isSameAs(booked);
+        assertThat(index.conflict(match("e2", 10, 12))).isSameAs(booked);
+        assertThat(index.conflict(match("e2", 10, 11))).isSameAs(booked);
+        assertThat(index.conflict(match("e2", 9, 13))).isSameAs(booked);
+        assertThat(index.conflict(match("e2", 12, 14))).isNull();
+    }
+
+    @Test
+    void matchFitsInsideItsOwnEventHoldOnly() {
+        VenueBooking hold = hold("e1", 9, 18);
+        index.add(hold);
+
+        assertThat(index.conflict(match("e1", 10, 12))).isNull();
+        assertThat(index.conflict(match("e2", 10, 12))).isSameAs(hold);
+        assertThat(index.conflict(match(null, 10, 12))).isSameAs(hold);
+        assertThat(index.conflict(match("e2", 18, 20))).isNull();
+    }
+
+    @Test
+    void holdConflictsWithOtherEventsMatchesBehindItsOwn() {
+        VenueBooking other = match("e2", 10, 11);
+        index.add(other);
+        index.add(match("e1", 12, 13));
+        index.add(match("e1", 14, 15));
+
+        // The walk back passes e1's own matches before it reaches e2's
+        assertThat(index.conflict(hold("e1", 9, 16))).isSameAs(other);
+        assertThat(index.conflict(hold("e1", 11, 16))).isNull();
+    }
+
+    @Test
+    void holdsOfDifferentEventsConflict() {
+        VenueBooking hold = hold("e1", 9, 18);
+        index.add(hold);
+
+        assertThat(index.conflict(hold("e2", 17, 20))).isSameAs(hold);
+        assertThat(index.conflict(hold("e2", 18, 20))).isNull();
+    }
+
+    @Test
+    void removedBookingFreesItsSlot() {
+        VenueBooking booked = match("e1", 10, 12);
+        index.add(booked);
+        index.remove(booked);
+
+        assertThat(index.conflict(match("e2", 10, 12))).isNull();
+    }
+
+    @Test
+    void agreesWithPairwiseOverlapOnRandomBookings() {
+        Random random = new Random(42);
+        List<VenueBooking> booked = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int start = random.nextInt(2_000);
+            int length = 1 + random.nextInt(random.nextInt(10) == 0 ? 200 : 20);
+            String eventId = "e" + random.nextInt(5);
+            VenueBooking candidate = random.nextInt(8) == 0
+                    ? hold(eventId, start, start + length)
+                    : match(eventId, start, start + length);
+
+            VenueBooking conflict = index.conflict(candidate);
+            List<VenueBooking> expected = booked.stream().filter(other -> conflicts(candidate, other)).toList();
+            if (expected.isEmpty()) {
+                assertThat(conflict).as("booking %d", i).isNull();
+                index.add(candidate);
+                booked.add(candidate);
+            } else {
+                assertThat(expected).as("booking %d", i).contains(conflict);
+            }
+        }
+    }
+
+    /**
+     * The rule the index implements, checked pair by pair
+     */
+    private static boolean conflicts(VenueBooking booking, VenueBooking other) {
+        boolean overlap = booking.getStartTime().isBefore(other.getEndTime())
+                && other.getStartTime().isBefore(booking.getEndTime());
+        if (!overlap) {
+            return false;
+        }
+        if (booking.isEventHold() == other.isEventHold()) {
+            return true;
+        }
+        return booking.getEventId() == null || !booking.getEventId().equals(other.getEventId());
+    }
+
+    private static VenueBooking match(String eventId, int startHour, int endHour) {
+        return booking(eventId, "match-" + eventId + "-" + startHour, startHour, endHour);
+    }
+
+    private static VenueBooking hold(String eventId, int startHour, int endHour) {
+        return booking(eventId, null, startHour, endHour);
+    }
+
+    private static VenueBooking booking(String eventId, String matchId, int startHour, int endHour) {
+        return VenueBooking.builder()
+                .venueId("venue-1")
+                .eventId(eventId)
+                .matchId(matchId)
+                .startTime(DAY.plusHours(startHour))
+                .endTime(DAY.plusHours(endHour))
+                .build();
+    }
+}